@@ -0,0 +1,151 @@
+package it.polimi.ingsw;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static java.lang.System.exit;
+
+/**
+ * Compares two JMH results written with {@code -rf json}: a baseline and a new run. For every benchmark found in both,
+ * it prints the change of the score and, if the run was made with {@code -prof gc}, of the bytes allocated per operation.
+ * The scores are times per operation, so a higher score is a regression.
+ * <p>
+ * A benchmark is a regression if it is slower than the baseline, or allocates more, by more than the threshold (10% by
+ * default) and the confidence intervals of the two scores don't overlap: a change within the error of the runs is
+ * noise. The allocation of the benchmarks whose setup runs inside the measured iterations (see
+ * {@link #SETUP_ALLOCATES}) is printed but not checked. The exit status is 1 if there is any regression, so the
+ * comparison can be used in a script.
+ */
+public class BenchmarkComparator {
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+    /**
+     * The benchmarks with an invocation setup: {@code -prof gc} counts the objects it creates too
+     */
+    private static final Set<String> SETUP_ALLOCATES = Set.of("GameBenchmark.moveMotherNature");
+
+    public static void main(String[] args) throws IOException {
+        double threshold = 10;
+        Path baseline = null;
+        Path current = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--threshold")) threshold = Double.parseDouble(args[++i]);
+                else if (baseline == null) baseline = Path.of(args[i]);
+                else if (current == null) current = Path.of(args[i]);
+                else throw new IllegalArgumentException(args[i]);
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            current = null;
+        }
+        if (current == null) {
+            System.out.println("Usage: [--threshold percent] <baseline.json> <current.json>");
+            exit(1);
+        }
+        Map<String, Result> before = read(baseline);
+        Map<String, Result> after = read(current);
+        int regressions = 0;
+        for (Map.Entry<String, Result> entry : after.entrySet()) {
+            Result old = before.get(entry.getKey());
+            Result now = entry.getValue();
+            if (old == null) {
+                System.out.printf("%-60s %12.1f %s (new)%n", entry.getKey(), now.score(), now.unit());
+                continue;
+            }
+            double change = (now.score() - old.score()) / old.score() * 100;
+            boolean slower = worse(old.score(), old.error(), now.score(), now.error(), threshold);
+            boolean allocates = !Double.isNaN(old.allocation()) && !Double.isNaN(now.allocation())
+                    && !SETUP_ALLOCATES.contains(entry.getKey().split(" ")[0])
+                    && worse(old.allocation() + 0.5, old.allocationError(), now.allocation(), now.allocationError(), threshold);
+            if (slower || allocates) regressions++;
+            System.out.printf("%-60s %12.1f ±%5.1f%% -> %12.1f ±%5.1f%% %s %+7.1f%%", entry.getKey(),
+                    old.score(), old.error() / old.score() * 100, now.score(), now.error() / now.score() * 100,
+                    now.unit(), change);
+            if (!Double.isNaN(now.allocation()) && !Double.isNaN(old.allocation()))
+                System.out.printf("  %8.0f -> %8.0f B/op", old.allocation(), now.allocation());
+            System.out.println(slower || allocates ? "  REGRESSION" : "");
+        }
+        before.keySet().stream().filter(key -> !after.containsKey(key))
+                .forEach(key -> System.out.printf("%-60s (missing)%n", key));
+        System.out.println(regressions + " regressions");
+        exit(regressions > 0 ? 1 : 0);
+    }
+
+    /**
+     * @param old       the baseline value
+     * @param oldError  the half-width of its confidence interval
+     * @param now       the new value
+     * @param nowError  the half-width of its confidence interval
+     * @param threshold the change allowed, in percent
+     * @return true if the new value is higher than the threshold allows and the two intervals don't overlap
+     */
+    static boolean worse(double old, double oldError, double now, double nowError, double threshold) {
+        return now > old * (1 + threshold / 100) && now - nowError > old + oldError;
+    }
+
+    /**
+     * Read the results of a run
+     *
+     * @param file the JSON file written by JMH
+     * @return the results by benchmark name and parameters
+     * @throws IOException if the file can't be read
+     */
+    private static Map<String, Result> read(Path file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            for (JsonElement element : JsonParser.parseReader(reader).getAsJsonArray()) {
+                JsonObject benchmark = element.getAsJsonObject();
+                StringBuilder key = new StringBuilder(benchmark.get("benchmark").getAsString()
+                        .replaceFirst("^.*\\.([^.]+\\.[^.]+)$", "$1"));
+                if (benchmark.has("params")) {
+                    Map<String, String> params = new TreeMap<>();
+                    benchmark.getAsJsonObject("params").entrySet()
+                            .forEach(param -> params.put(param.getKey(), param.getValue().getAsString()));
+                    params.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+                }
+                JsonObject primary = benchmark.getAsJsonObject("primaryMetric");
+                double allocation = Double.NaN;
+                double allocationError = Double.NaN;
+                JsonObject secondary = benchmark.getAsJsonObject("secondaryMetrics");
+                if (secondary != null && secondary.has(ALLOCATION)) {
+                    allocation = secondary.getAsJsonObject(ALLOCATION).get("score").getAsDouble();
+                    allocationError = error(secondary.getAsJsonObject(ALLOCATION));
+                }
+                results.put(key.toString(), new Result(primary.get("score").getAsDouble(), error(primary),
+                        primary.get("scoreUnit").getAsString(), allocation, allocationError));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @param metric a metric of a result
+     * @return the half-width of the 99.9% confidence interval of its score, 0 if JMH couldn't compute it (a single
+     * measurement)
+     */
+    private static double error(JsonObject metric) {
+        JsonElement error = metric.get("scoreError");
+        if (error == null || !error.isJsonPrimitive() || !error.getAsJsonPrimitive().isNumber()) return 0;
+        double value = error.getAsDouble();
+        return Double.isNaN(value) ? 0 : value;
+    }
+
+    /**
+     * @param score           the average time per operation
+     * @param error           the half-width of the confidence interval of the score
+     * @param unit            the unit of the score
+     * @param allocation      the bytes allocated per operation, NaN if not measured
+     * @param allocationError the half-width of the confidence interval of the allocation
+     */
+    private record Result(double score, double error, String unit, double allocation, double allocationError) {
+    }
+}
@@ -0,0 +1,95 @@
+package it.polimi.ingsw.model;
+
+import it.polimi.ingsw.model.place.Island;
+import it.polimi.ingsw.model.player.TowerColor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays the conquests of a match on a board, until three islands are left or 48 conquests are done, and merges the
+ * adjacent islands after each conquest. The merge of the board, that checks only the neighbours of the conquered island,
+ * is compared with a copy of the previous one, that scanned the whole ring.
+ * Each operation starts from a new board, the same sequence of conquests is used by both.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+    private static final int MAX_CONQUESTS = 48;
+    private static final TowerColor[] COLORS = {TowerColor.BLACK, TowerColor.WHITE, TowerColor.GREY};
+
+    /**
+     * The island conquered at each step, as a position in the current ring, and its new tower
+     */
+    private final int[] positions = new int[MAX_CONQUESTS];
+    private final TowerColor[] towers = new TowerColor[MAX_CONQUESTS];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (int i = 0; i < MAX_CONQUESTS; i++) {
+            positions[i] = (i * 7 + i / 3) % 12;
+            towers[i] = COLORS[(i * 5 / 4) % COLORS.length];
+        }
+    }
+
+    @Benchmark
+    public int neighbours() {
+        Board board = new Board();
+        List<Island> islands = board.getIslands();
+        for (int i = 0; i < MAX_CONQUESTS && islands.size() > 3; i++) {
+            Island island = islands.get(positions[i] % islands.size());
+            island.addTower(towers[i]);
+            board.adjacencyUpdate(island);
+        }
+        return islands.size() + board.getMotherNaturePos();
+    }
+
+    @Benchmark
+    public int wholeRing() {
+        Board board = new Board();
+        List<Island> islands = board.getIslands();
+        for (int i = 0; i < MAX_CONQUESTS && islands.size() > 3; i++) {
+            Island island = islands.get(positions[i] % islands.size());
+            island.addTower(towers[i]);
+            legacyAdjacencyUpdate(board);
+        }
+        return islands.size() + board.getMotherNaturePos();
+    }
+
+    /**
+     * The previous merge of the board
+     */
+    private static void legacyAdjacencyUpdate(Board board) {
+        List<Island> islands = board.getIslands();
+        int motherNaturePos = board.getMotherNaturePos();
+        int i = 0;
+        while (i < islands.size()) {
+            if (i == islands.size() - 1) {
+                if (islands.get(i).getTower() != null && islands.get(i).getTower().equals(islands.get(0).getTower())) {
+                    islands.get(0).add(islands.get(i).getStudents());
+                    islands.get(0).upgradeDimension(islands.get(i).getDimension());
+                    islands.get(0).upgradeBanTiles(islands.get(i).getBanTiles());
+                    if (motherNaturePos == islands.size() - 1) motherNaturePos = 0;
+                    islands.remove(i);
+                }
+            } else {
+                if (islands.get(i).getTower() != null && islands.get(i).getTower().equals(islands.get(i + 1).getTower())) {
+                    islands.get(i).add(islands.get(i + 1).getStudents());
+                    islands.get(i).upgradeDimension(islands.get(i + 1).getDimension());
+                    islands.get(i).upgradeBanTiles(islands.get(i + 1).getBanTiles());
+                    if (motherNaturePos == i + 1) motherNaturePos = i;
+                    islands.remove(i + 1);
+                    i--;
+                }
+            }
+            i++;
+        }
+        board.setMotherNaturePos(motherNaturePos);
+        board.notifyObserver(obs -> obs.updateBoardUsage(islands.size()));
+    }
+}
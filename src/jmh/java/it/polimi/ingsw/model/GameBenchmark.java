@@ -0,0 +1,164 @@
+package it.polimi.ingsw.model;
+
+import it.polimi.ingsw.model.clouds.Cloud;
+import it.polimi.ingsw.model.pawns.PawnColor;
+import it.polimi.ingsw.model.pawns.Pawns;
+import it.polimi.ingsw.model.place.Island;
+import it.polimi.ingsw.model.player.Assistant;
+import it.polimi.ingsw.model.player.Player;
+import it.polimi.ingsw.model.player.TowerColor;
+import it.polimi.ingsw.model.player.Wizard;
+import it.polimi.ingsw.network.communication.notification.ModelUpdateNotification;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The operations of the {@link Game} used on every turn of a match, with the limits of a match of 2 and of 3 players.
+ * The game is started with a fixed seed and its updates are deferred, as on the server: only {@link #snapshot()}
+ * builds a {@link ShortModel}. The operations that change the game are undone inside the measured method, so every
+ * invocation starts from the same state.
+ * <p>
+ * The size of the Java-serialized update is printed when the trial starts. The results of a run can be compared with
+ * the baseline in {@code src/jmh/baselines} by the {@code BenchmarkComparator}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 2)
+@Fork(5)
+@State(Scope.Thread)
+public class GameBenchmark {
+    private static final PawnColor[] COLORS = PawnColor.values();
+    private static final Wizard[] WIZARDS = Wizard.values();
+    private static final TowerColor[] TOWERS = TowerColor.values();
+
+    @Param({"2", "3"})
+    public int nPlayers;
+
+    private Game game;
+    private Player player;
+    private Island island;
+    private int step;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        game = startedGame(nPlayers);
+        player = game.getCurrentPlayer();
+        island = game.getBoard().getIslands().get(1);
+        System.out.println("bytes per serialized update (" + nPlayers + " players): "
+                + serialize(new ModelUpdateNotification(new ShortModel(game, false))).length);
+    }
+
+    static Game startedGame(int nPlayers) {
+        Game game = new Game(new SplittableRandom(42));
+        for (int i = 0; i < nPlayers; i++)
+            game.addPlayer("p" + i, WIZARDS[i], TOWERS[i]);
+        game.startGame(false);
+        game.setDeferUpdates(true);
+        game.setCurrentPlayer("p0");
+        game.playAssistant(Assistant.CAT);
+        return game;
+    }
+
+    private static byte[] serialize(Object msg) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(msg);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public int moveFromEntranceToHall() {
+        Pawns entrance = player.getSchool().getEntrance();
+        PawnColor color = entrance.getByIndex(step++ % entrance.totalElements());
+        game.moveFromEntranceToHall(color);
+        player.getSchool().getHall().removeColor(color);
+        entrance.addColor(color);
+        return player.getSchool().getProfessorTable().totalElements();
+    }
+
+    @Benchmark
+    public int fillClouds() {
+        game.fillClouds();
+        int students = 0;
+        for (Cloud cloud : game.getClouds()) {
+            Pawns picked = cloud.getStudentsAndRemove();
+            students += picked.totalElements();
+            game.getSack().returnTo(picked);
+        }
+        return students;
+    }
+
+    @Benchmark
+    public Set<Assistant> playableAssistant() {
+        return game.getPlayableAssistant();
+    }
+
+    /**
+     * Snapshot after a student is added to or removed from an island, so that a part of the model has changed
+     */
+    @Benchmark
+    public ShortModel snapshot() {
+        PawnColor color = COLORS[(step / 2) % COLORS.length];
+        if (step++ % 2 == 0) island.add(color);
+        else island.getStudents().removeColor(color);
+        return new ShortModel(game, false);
+    }
+
+    @Benchmark
+    public byte[] serializeUpdate() throws IOException {
+        return serialize(new ModelUpdateNotification(new ShortModel(game, false)));
+    }
+
+    /**
+     * Each invocation plays the conquests of a whole batch of games, so the time of a single move is far longer than
+     * the overhead of the invocation and of its setup
+     */
+    @Benchmark
+    @OperationsPerInvocation(Conquests.BATCH)
+    public int moveMotherNature(Conquests conquests) {
+        int towers = 0;
+        for (int i = 0; i < Conquests.BATCH; i++) {
+            conquests.games[i].moveMotherNature(1, conquests.players[i]);
+            if (conquests.games[i].getBoard().getMotherNatureIsland().getTower() != null) towers++;
+        }
+        return towers;
+    }
+
+    /**
+     * A batch of games where the next step of mother nature conquers an island next to one of the current player, so
+     * the two islands are merged. The games are used once, so a new batch is created before every invocation, out of
+     * the measured time. Its allocation is still counted by {@code -prof gc}: the comparator doesn't check the
+     * allocation of this benchmark.
+     */
+    @State(Scope.Thread)
+    public static class Conquests {
+        static final int BATCH = 256;
+        private final Game[] games = new Game[BATCH];
+        private final Player[] players = new Player[BATCH];
+
+        @Setup(Level.Invocation)
+        public void setUp(GameBenchmark benchmark) {
+            for (int i = 0; i < BATCH; i++) {
+                Game game = startedGame(benchmark.nPlayers);
+                Player player = game.getCurrentPlayer();
+                for (PawnColor color : COLORS)
+                    player.getSchool().addProfessor(color);
+                Board board = game.getBoard();
+                int next = (board.getMotherNaturePos() + 1) % board.numberOfIslands();
+                if (board.getIslands().get(next).getStudents().totalElements() == 0)
+                    board.getIslands().get(next).add(COLORS[0]);
+                board.getIslands().get((next + 1) % board.numberOfIslands()).addTower(player.addTowerToIsland(1));
+                games[i] = game;
+                players[i] = player;
+            }
+        }
+    }
+}
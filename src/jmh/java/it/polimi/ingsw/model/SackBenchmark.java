@@ -0,0 +1,64 @@
+package it.polimi.ingsw.model;
+
+import it.polimi.ingsw.model.pawns.Pawns;
+import it.polimi.ingsw.model.player.TowerColor;
+import it.polimi.ingsw.observer.WinObserver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the extraction of a group of students one at a time with the bulk extraction of {@link Sack}.
+ * The sizes are the ones of a cloud, of an entrance and of the whole sack. The students go back into the sack after each call.
+ * As in a match, the sack is observed by a {@link WinObserver}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SackBenchmark {
+    @Param({"4", "9", "110"})
+    public int size;
+
+    private Sack sack;
+    private int sackUsage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sack = new Sack(new SplittableRandom(42));
+        sack.fill();
+        sack.addObserver(new WinObserver() {
+            @Override
+            public void updateBoardUsage(int size) {
+            }
+
+            @Override
+            public void updateSackUsage(int totalElements) {
+                sackUsage = totalElements;
+            }
+
+            @Override
+            public void updateTowerPlaced(TowerColor winner) {
+            }
+        });
+    }
+
+    @Benchmark
+    public Pawns oneByOne() {
+        Pawns extracted = new Pawns();
+        for (int i = 0; i < size; i++)
+            extracted.addColor(sack.extract());
+        sack.returnTo(extracted);
+        return extracted;
+    }
+
+    @Benchmark
+    public Pawns bulk() {
+        Pawns extracted = sack.extract(size);
+        sack.returnTo(extracted);
+        return extracted;
+    }
+}
@@ -0,0 +1,67 @@
+package it.polimi.ingsw.model;
+
+import it.polimi.ingsw.model.character.ShortCharacter;
+import it.polimi.ingsw.model.clouds.ShortCloud;
+import it.polimi.ingsw.model.pawns.PawnColor;
+import it.polimi.ingsw.model.place.Island;
+import it.polimi.ingsw.model.place.ShortSchool;
+import it.polimi.ingsw.model.player.ShortPlayer;
+import it.polimi.ingsw.model.player.TowerColor;
+import it.polimi.ingsw.model.player.Wizard;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the snapshot of an expert match of three players after a student is placed on an island, the most common
+ * change. The snapshot sharing the unchanged parts with the previous one is compared with a deep copy of the whole
+ * game, as the snapshots were built before. Use {@code -prof gc} to see the allocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ShortModelBenchmark {
+    private static final PawnColor[] COLORS = PawnColor.values();
+    private Game game;
+    private int step;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        game = new Game(new SplittableRandom(42));
+        game.addPlayer("p1", Wizard.KING, TowerColor.BLACK);
+        game.addPlayer("p2", Wizard.SORCERER, TowerColor.WHITE);
+        game.addPlayer("p3", Wizard.WITCH, TowerColor.GREY);
+        game.startGame(true);
+        game.fillClouds();
+    }
+
+    private void placeStudent() {
+        step++;
+        Island island = game.getBoard().getIslands().get(step % game.getBoard().getIslands().size());
+        island.add(COLORS[step % COLORS.length]);
+    }
+
+    @Benchmark
+    public ShortModel shared() {
+        placeStudent();
+        return new ShortModel(game, true);
+    }
+
+    @Benchmark
+    public ShortModel deepCopy() {
+        placeStudent();
+        Map<ShortPlayer, ShortSchool> schoolMap = new HashMap<>();
+        game.getPlayers().forEach(p -> schoolMap.put(new ShortPlayer(p), new ShortSchool(p.getSchool())));
+        Map<String, Integer> moneyMap = new HashMap<>();
+        game.getPlayers().forEach(p -> moneyMap.put(p.getPlayerName(), game.getBank().getCashByPlayer(p)));
+        return new ShortModel(true, 0, 0, schoolMap, moneyMap, game.assistantMap(),
+                game.getClouds().stream().map(ShortCloud::new).toList(), new ShortBoard(game.getBoard()),
+                game.getCharacterInUse().stream().map(ShortCharacter::new).toList(), game.getSack().getNumberOfPawns());
+    }
+}
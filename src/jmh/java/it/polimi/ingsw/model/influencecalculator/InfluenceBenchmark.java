@@ -0,0 +1,80 @@
+package it.polimi.ingsw.model.influencecalculator;
+
+import it.polimi.ingsw.model.Game;
+import it.polimi.ingsw.model.pawns.Pawns;
+import it.polimi.ingsw.model.place.Island;
+import it.polimi.ingsw.model.player.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static it.polimi.ingsw.model.pawns.PawnColor.*;
+import static it.polimi.ingsw.model.player.TowerColor.*;
+import static it.polimi.ingsw.model.player.Wizard.*;
+
+/**
+ * Compares the choice of the player with the highest influence on an island, as done by the board before, with a
+ * map of the scores and a list of the winners, and as done now, with a score per player and no allocation.
+ * Three players own four professors, use {@code -prof gc} to see the allocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InfluenceBenchmark {
+    @Param({"Standard", "Knight"})
+    public String strategyName;
+
+    private InfluenceStrategy strategy;
+    private Island island;
+    private List<Player> players;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Game game = new Game(new SplittableRandom(42));
+        game.addPlayer("p1", KING, BLACK);
+        game.addPlayer("p2", SORCERER, WHITE);
+        game.addPlayer("p3", WITCH, GREY);
+        game.init();
+        players = game.getPlayers();
+        players.get(0).getSchool().addProfessor(GREEN);
+        players.get(0).getSchool().addProfessor(YELLOW);
+        players.get(1).getSchool().addProfessor(BLUE);
+        players.get(2).getSchool().addProfessor(RED);
+        island = new Island();
+        island.add(new Pawns(2, 1, 1, 3, 3));
+        island.addTower(WHITE);
+        strategy = strategyName.equals("Knight") ? new KnightStrategy(GREY) : new StandardStrategy();
+    }
+
+    @Benchmark
+    public Player scoreMap() {
+        Map<Player, Integer> scores = strategy.getScores(island, players);
+        int winnerValue = Collections.max(scores.values());
+        List<Player> winners = new ArrayList<>();
+        for (Map.Entry<Player, Integer> entry : scores.entrySet())
+            if (entry.getValue().equals(winnerValue))
+                winners.add(entry.getKey());
+        return winners.size() == 1 ? winners.get(0) : null;
+    }
+
+    @Benchmark
+    public Player scorePerPlayer() {
+        Player best = null;
+        int bestScore = Integer.MIN_VALUE;
+        boolean tie = false;
+        for (Player player : players) {
+            int score = strategy.getScore(island, player);
+            if (score > bestScore) {
+                best = player;
+                bestScore = score;
+                tie = false;
+            } else if (score == bestScore)
+                tie = true;
+        }
+        return tie ? null : best;
+    }
+}
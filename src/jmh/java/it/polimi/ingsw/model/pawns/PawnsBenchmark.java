@@ -0,0 +1,61 @@
+package it.polimi.ingsw.model.pawns;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the operations of {@link Pawns} used by every place of the board. Each benchmark leaves the pawns as it
+ * found them, so the sizes don't drift during the run. The sizes are the ones of a sack and of an entrance.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PawnsBenchmark {
+    private Pawns sack;
+    private Pawns entrance;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sack = new Pawns(24, 24, 24, 24, 24);
+        entrance = new Pawns(2, 1, 3, 0, 1);
+    }
+
+    @Benchmark
+    public boolean addAndRemovePawns() {
+        sack.addPawns(entrance);
+        return sack.removePawns(entrance);
+    }
+
+    @Benchmark
+    public boolean addAndRemoveColor() {
+        sack.addColor(PawnColor.PINK);
+        return sack.removeColor(PawnColor.PINK);
+    }
+
+    @Benchmark
+    public boolean canBeRemoved() {
+        return sack.canBeRemoved(entrance);
+    }
+
+    @Benchmark
+    public int totalElements() {
+        return sack.totalElements();
+    }
+
+    @Benchmark
+    public PawnColor getByIndex() {
+        index = (index + 37) % 120;
+        return sack.getByIndex(index);
+    }
+
+    @Benchmark
+    public List<PawnColor> toList() {
+        return entrance.toList();
+    }
+}
@@ -0,0 +1,94 @@
+package it.polimi.ingsw.model.profassignment;
+
+import it.polimi.ingsw.model.Game;
+import it.polimi.ingsw.model.pawns.PawnColor;
+import it.polimi.ingsw.model.pawns.Pawns;
+import it.polimi.ingsw.model.player.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static it.polimi.ingsw.model.player.TowerColor.*;
+import static it.polimi.ingsw.model.player.Wizard.*;
+
+/**
+ * The check done after every student moved in a hall, in the middle of a match: every professor is owned and most
+ * checks don't change the owner. The check of {@link ProfessorAssignor} is compared with a copy of the previous one,
+ * that built a map of the students, a list of the winners and then looked for the owner.
+ * Each operation checks the five colors, use {@code -prof gc} to see the allocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProfessorAssignorBenchmark {
+    private static final PawnColor[] COLORS = PawnColor.values();
+
+    @Param({"2", "3"})
+    public int nPlayers;
+
+    private List<Player> players;
+    private ProfessorAssignor assignor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Game game = new Game(new SplittableRandom(42));
+        game.addPlayer("p1", KING, BLACK);
+        game.addPlayer("p2", SORCERER, WHITE);
+        if (nPlayers == 3) game.addPlayer("p3", WITCH, GREY);
+        game.init();
+        players = game.getPlayers();
+        assignor = new ProfessorAssignor();
+        players.get(0).getSchool().getHall().addPawns(new Pawns(4, 1, 3, 0, 2));
+        players.get(1).getSchool().getHall().addPawns(new Pawns(2, 3, 3, 1, 0));
+        if (nPlayers == 3) players.get(2).getSchool().getHall().addPawns(new Pawns(1, 1, 0, 2, 5));
+        for (PawnColor color : COLORS)
+            assignor.colorProfessorChecker(color, players);
+    }
+
+    @Benchmark
+    public int singlePass() {
+        int changes = 0;
+        for (PawnColor color : COLORS)
+            if (assignor.colorProfessorChecker(color, players) != null) changes++;
+        return changes;
+    }
+
+    @Benchmark
+    public int winnersList() {
+        int changes = 0;
+        for (PawnColor color : COLORS)
+            if (legacyColorProfessorChecker(color, players) != null) changes++;
+        return changes;
+    }
+
+    /**
+     * The previous check, without the professors not yet assigned: they are all assigned in this benchmark
+     */
+    private static Player legacyColorProfessorChecker(PawnColor pawnColor, List<Player> players) {
+        Map<Player, Integer> scores = new HashMap<>();
+        for (Player player : players) {
+            int playerStudents = player.getSchool().getHall().getFromColor(pawnColor);
+            scores.put(player, playerStudents);
+        }
+        int winnerValue = (Collections.max(scores.values()));
+        List<Player> winners = new ArrayList<>();
+        for (Map.Entry<Player, Integer> entry : scores.entrySet()) {
+            if (entry.getValue().equals(winnerValue))
+                winners.add(entry.getKey());
+        }
+        if (winners.size() == 1) {
+            for (Player player : players) {
+                if (player.getSchool().getProfessorTable().getFromColor(pawnColor) == 1 && !player.equals(winners.get(0))) {
+                    player.getSchool().removeProfessor(pawnColor);
+                    winners.get(0).getSchool().getProfessorTable().addColor(pawnColor);
+                    return winners.get(0);
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,101 @@
+package it.polimi.ingsw.network.communication.codec;
+
+import it.polimi.ingsw.model.Game;
+import it.polimi.ingsw.model.ShortModel;
+import it.polimi.ingsw.model.pawns.PawnColor;
+import it.polimi.ingsw.model.player.Assistant;
+import it.polimi.ingsw.model.player.TowerColor;
+import it.polimi.ingsw.model.player.Wizard;
+import it.polimi.ingsw.network.communication.Target;
+import it.polimi.ingsw.network.communication.notification.ChooseAssistantNotification;
+import it.polimi.ingsw.network.communication.notification.ModelUpdateNotification;
+import it.polimi.ingsw.network.communication.notification.MoveStudentNotification;
+import it.polimi.ingsw.network.communication.notification.Notification;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the binary {@link NotificationCodec} with the Java serialization previously used on the wire.
+ * The size of each message in both formats is printed when the trial starts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NotificationCodecBenchmark {
+    @Param({"model", "move", "assistant"})
+    public String message;
+
+    private Notification notification;
+    private byte[] serialized;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        notification = switch (message) {
+            case "model" -> new ModelUpdateNotification(startedGame());
+            case "move" -> new MoveStudentNotification(PawnColor.GREEN, Target.ISLAND, 7);
+            default -> new ChooseAssistantNotification(startedGameAssistants());
+        };
+        notification.setClientId("Luca");
+        serialized = serialize(notification);
+        encoded = FrameCodec.encode(notification);
+        System.out.println("bytes per message (" + message + "): serialization=" + serialized.length
+                + " codec=" + encoded.length);
+    }
+
+    private static Game newGame() {
+        Game game = new Game();
+        game.addPlayer("Luca", Wizard.KING, TowerColor.BLACK);
+        game.addPlayer("Marco", Wizard.SORCERER, TowerColor.WHITE);
+        game.addPlayer("Anna", Wizard.WITCH, TowerColor.GREY);
+        game.init();
+        game.startGame(true);
+        return game;
+    }
+
+    private static ShortModel startedGame() {
+        return new ShortModel(newGame(), true);
+    }
+
+    private static Set<Assistant> startedGameAssistants() {
+        Game game = newGame();
+        game.setCurrentPlayer("Luca");
+        return game.getPlayableAssistant();
+    }
+
+    private static byte[] serialize(Notification msg) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(msg);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] serializationEncode() throws IOException {
+        return serialize(notification);
+    }
+
+    @Benchmark
+    public Object serializationDecode() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+
+    @Benchmark
+    public byte[] codecEncode() throws IOException {
+        return FrameCodec.encode(notification);
+    }
+
+    @Benchmark
+    public Notification codecDecode() throws IOException {
+        return FrameCodec.decode(encoded, FrameCodec.HEADER_SIZE, encoded.length - FrameCodec.HEADER_SIZE);
+    }
+}
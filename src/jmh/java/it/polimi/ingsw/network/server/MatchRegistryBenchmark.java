@@ -0,0 +1,201 @@
+package it.polimi.ingsw.network.server;
+
+import it.polimi.ingsw.controller.server.GameController;
+import it.polimi.ingsw.network.communication.notification.Notification;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Simulates the logins and the disconnections of many clients on the {@link MatchRegistry} and on the synchronized
+ * maps previously kept by the {@link Server}. Each thread logs in its share of the clients, pairs them in matches
+ * and then disconnects all of them, while the other threads do the same.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MatchRegistryBenchmark {
+    @Param({"registry", "synchronized"})
+    public String implementation;
+
+    @Param({"1", "8"})
+    public int threads;
+
+    @Param({"10000"})
+    public int clients;
+
+    private ExecutorService pool;
+    private String[] nicknames;
+    private Connection[] connections;
+    private GameController[] controllers;
+    private Registry registry;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = Executors.newFixedThreadPool(threads);
+        nicknames = new String[clients];
+        connections = new Connection[clients];
+        controllers = new GameController[clients / 2];
+        for (int i = 0; i < clients; i++) {
+            nicknames[i] = "player" + i;
+            connections[i] = new IdleConnection();
+        }
+        for (int i = 0; i < controllers.length; i++)
+            controllers[i] = new GameController();
+    }
+
+    @Setup(Level.Invocation)
+    public void newRegistry() {
+        registry = implementation.equals("registry") ? new ShardedRegistry() : new SynchronizedRegistry();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    public int loginAndDisconnect() throws Exception {
+        int slice = clients / threads;
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int from = t * slice;
+            int to = t == threads - 1 ? clients : from + slice;
+            tasks.add(pool.submit(() -> simulate(from, to)));
+        }
+        for (Future<?> task : tasks)
+            task.get();
+        return registry.size();
+    }
+
+    private void simulate(int from, int to) {
+        for (int i = from; i < to; i++)
+            registry.login(nicknames[i], connections[i]);
+        for (int i = from; i + 1 < to; i += 2)
+            registry.addMatch(List.of(nicknames[i], nicknames[i + 1]), controllers[i / 2]);
+        for (int i = from; i < to; i++)
+            registry.disconnect(connections[i]);
+    }
+
+    /**
+     * The operations done by the server on login, on the start of a match and on disconnection
+     */
+    private interface Registry {
+        void login(String nickname, Connection connection);
+
+        void addMatch(List<String> names, GameController controller);
+
+        void disconnect(Connection connection);
+
+        int size();
+    }
+
+    private static class ShardedRegistry implements Registry {
+        private final MatchRegistry registry = new MatchRegistry();
+
+        @Override
+        public void login(String nickname, Connection connection) {
+            registry.claimNickname(nickname, connection);
+        }
+
+        @Override
+        public void addMatch(List<String> names, GameController controller) {
+            registry.addMatch(names, controller);
+        }
+
+        @Override
+        public void disconnect(Connection connection) {
+            String nickname = registry.releaseNickname(connection);
+            if (nickname != null) registry.removeMatchOf(nickname);
+        }
+
+        @Override
+        public int size() {
+            return registry.nicknameCount() + registry.matchCount();
+        }
+    }
+
+    /**
+     * The bookkeeping of the server before the {@link MatchRegistry}
+     */
+    private static class SynchronizedRegistry implements Registry {
+        private final Map<String, GameController> matchesMap = Collections.synchronizedMap(new HashMap<>());
+        private final Map<Connection, String> socketStringMap = Collections.synchronizedMap(new HashMap<>());
+        private final Set<String> alreadyChosenNicknames = Collections.synchronizedSet(new HashSet<>());
+        private final ReentrantLock lock = new ReentrantLock();
+
+        @Override
+        public void login(String nickname, Connection connection) {
+            lock.lock();
+            try {
+                if (alreadyChosenNicknames.contains(nickname)) return;
+                alreadyChosenNicknames.add(nickname);
+                socketStringMap.put(connection, nickname);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void addMatch(List<String> names, GameController controller) {
+            lock.lock();
+            try {
+                names.forEach(name -> matchesMap.put(name, controller));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void disconnect(Connection connection) {
+            lock.lock();
+            try {
+                String nickname = socketStringMap.get(connection);
+                if (nickname == null) return;
+                alreadyChosenNicknames.remove(nickname);
+                socketStringMap.remove(connection);
+                for (Map.Entry<String, GameController> entry : matchesMap.entrySet()) {
+                    if (entry.getKey().equals(nickname)) {
+                        removeMatch(nickname);
+                        return;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void removeMatch(String name) {
+            Map<String, GameController> clone = new HashMap<>(matchesMap);
+            GameController controller = clone.get(name);
+            clone.entrySet().stream().filter(entry -> entry.getValue().equals(controller)).map(Map.Entry::getKey).forEach(matchesMap::remove);
+        }
+
+        @Override
+        public int size() {
+            return alreadyChosenNicknames.size() + matchesMap.size();
+        }
+    }
+
+    private static class IdleConnection implements Connection {
+        @Override
+        public void sendMessage(Notification msg) {
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public void run() {
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package it.polimi.ingsw;
+
+import it.polimi.ingsw.network.server.Server;
+import it.polimi.ingsw.network.server.Transport;
+import it.polimi.ingsw.view.bot.BotStrategy;
+import it.polimi.ingsw.view.bot.LoadGenerator;
+import it.polimi.ingsw.view.bot.LoadStats;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import static java.lang.System.exit;
+
+public class EriantysLoadGenerator {
+    public static void main(String[] args) throws InterruptedException, IOException {
+        String address = null;
+        int port = 0;
+        int clients = 100;
+        int nPlayers = 2;
+        boolean expertMode = false;
+        BotStrategy strategy = BotStrategy.RANDOM;
+        Transport transport = Transport.SOCKET;
+        long timeout = 300;
+        long seed = 42;
+        Path matchLogDirectory = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--host" -> address = args[++i];
+                    case "-p", "--port" -> port = Integer.parseInt(args[++i]);
+                    case "--clients" -> clients = Integer.parseInt(args[++i]);
+                    case "--players" -> nPlayers = Integer.parseInt(args[++i]);
+                    case "--expert" -> expertMode = true;
+                    case "--strategy" -> strategy = BotStrategy.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                    case "--nio" -> transport = Transport.NIO;
+                    case "--virtual" -> transport = Transport.VIRTUAL_THREAD;
+                    case "--timeout" -> timeout = Long.parseLong(args[++i]);
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--match-log" -> matchLogDirectory = Path.of(args[++i]);
+                    default -> throw new IllegalArgumentException(args[i]);
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.out.println("Usage: [--host address --port port] [--clients n] [--players 2|3] [--expert] [--strategy random|greedy]"
+                    + " [--nio|--virtual] [--timeout seconds] [--seed n] [--match-log directory]");
+            exit(1);
+        }
+        if (address == null) { //no server given: the bots play against a server in this process
+            Server.LOGGER.setLevel(Level.WARNING);
+            Server server = new Server(0, transport);
+            server.setMatchLogDirectory(matchLogDirectory);
+            server.start();
+            address = "localhost";
+            port = server.getPort();
+        }
+        LoadGenerator generator = new LoadGenerator(address, port, clients, nPlayers, expertMode, strategy, seed);
+        LoadStats stats = generator.run(timeout, TimeUnit.SECONDS);
+        System.out.println(stats.report());
+        exit(0);
+    }
+}
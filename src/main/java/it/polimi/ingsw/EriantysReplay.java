@@ -0,0 +1,64 @@
+package it.polimi.ingsw;
+
+import it.polimi.ingsw.controller.server.MatchLog;
+import it.polimi.ingsw.controller.server.MatchReplayer;
+import it.polimi.ingsw.network.communication.notification.Notification;
+import it.polimi.ingsw.network.server.Server;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+
+import static java.lang.System.exit;
+
+public class EriantysReplay {
+    public static void main(String[] args) throws IOException {
+        int repeat = 1;
+        List<Path> files = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--repeat")) repeat = Math.max(1, Integer.parseInt(args[++i]));
+                else files.add(Path.of(args[i]));
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            files.clear();
+        }
+        if (files.isEmpty()) {
+            System.out.println("Usage: [--repeat n] <match log>...");
+            exit(1);
+        }
+        Server.LOGGER.setLevel(Level.WARNING);
+        List<MatchLog.Header> headers = new ArrayList<>();
+        List<List<Notification>> logs = new ArrayList<>();
+        for (Path file : files) {
+            try (InputStream in = Files.newInputStream(file)) {
+                DataInputStream log = new DataInputStream(in);
+                headers.add(MatchLog.readHeader(log));
+                List<Notification> messages = new ArrayList<>();
+                for (Notification msg = MatchLog.readMessage(log); msg != null; msg = MatchLog.readMessage(log))
+                    messages.add(msg);
+                logs.add(messages);
+            }
+        }
+        long messages = 0;
+        long nanos = 0;
+        for (int r = 0; r < repeat; r++) {
+            for (int i = 0; i < files.size(); i++) {
+                MatchReplayer.Replay replay = MatchReplayer.replay(headers.get(i), logs.get(i));
+                messages += replay.received();
+                nanos += replay.nanos();
+                if (r == 0)
+                    System.out.printf("%s: seed %x, %d messages, winner %s%n", files.get(i), replay.seed(), replay.received(), replay.winner());
+            }
+        }
+        double seconds = nanos / 1e9;
+        System.out.printf("%d matches replayed in %.3f s: %.1f matches/s, %.0f messages/s%n",
+                (long) repeat * files.size(), seconds, repeat * files.size() / seconds, messages / seconds);
+        exit(0);
+    }
+}
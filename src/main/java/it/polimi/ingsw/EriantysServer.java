@@ -1,28 +1,118 @@
 package it.polimi.ingsw;
 
 import it.polimi.ingsw.constants.Constants;
+import it.polimi.ingsw.controller.server.TurnDeadlines;
+import it.polimi.ingsw.network.server.OutboundPolicy;
 import it.polimi.ingsw.network.server.Server;
+import it.polimi.ingsw.network.server.ServerLog;
+import it.polimi.ingsw.network.server.Transport;
+import it.polimi.ingsw.utility.logging.AsyncLogHandler;
+import it.polimi.ingsw.utility.logging.StructuredFormatter;
+import it.polimi.ingsw.utility.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.FileHandler;
+import java.util.logging.Handler;
+import java.util.logging.Level;
 
 public class EriantysServer {
+    private static final long METRICS_PERIOD_MILLIS = 10_000;
+    private static final int LOG_FILE_LIMIT = 10 * 1024 * 1024;
+    private static final int LOG_FILE_COUNT = 5;
+
     public static void main(String[] args) {
-        Server server;
-        if (args.length > 0) {
-            for (int i = 0; i < args.length; i++) {
-                if (args[i].equals("-p") || args[i].equals("--port")) {
-                    try {
-                        server = new Server(Integer.parseInt(args[i + 1]));
-                        server.start();
-                        return;
-                    } catch (IllegalArgumentException e) {
-                        Server.LOGGER.severe(() -> "Port format not valid, starting server with default port: " + Constants.DEFAULT_PORT);
-                        server = new Server(Constants.DEFAULT_PORT);
-                        server.start();
-                        return;
-                    }
+        int port = Constants.DEFAULT_PORT;
+        Transport transport = Transport.SOCKET;
+        int maxQueue = OutboundPolicy.DEFAULT.maxDepth();
+        boolean coalesce = OutboundPolicy.DEFAULT.coalesceModelUpdates();
+        OutboundPolicy.Overflow overflow = OutboundPolicy.DEFAULT.overflow();
+        Path matchLogDirectory = null;
+        Path metricsFile = null;
+        long turnTimeout = TurnDeadlines.DEFAULT_TIMEOUT_MILLIS / 1000;
+        String logPattern = null;
+        int logMessages = 0;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-p") || args[i].equals("--port")) {
+                try {
+                    port = Integer.parseInt(args[i + 1]);
+                } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                    Server.LOGGER.severe(() -> "Port format not valid, starting server with default port: " + Constants.DEFAULT_PORT);
+                }
+            } else if (args[i].equals("--nio")) {
+                transport = Transport.NIO;
+            } else if (args[i].equals("--virtual")) {
+                transport = Transport.VIRTUAL_THREAD;
+            } else if (args[i].equals("--max-queue")) {
+                try {
+                    maxQueue = Math.max(1, Integer.parseInt(args[i + 1]));
+                } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                    Server.LOGGER.severe(() -> "Queue size not valid, using the default one: " + OutboundPolicy.DEFAULT.maxDepth());
+                }
+            } else if (args[i].equals("--no-coalesce")) {
+                coalesce = false;
+            } else if (args[i].equals("--drop-on-overflow")) {
+                overflow = OutboundPolicy.Overflow.DROP;
+            } else if (args[i].equals("--match-log") && i + 1 < args.length) {
+                matchLogDirectory = Path.of(args[i + 1]);
+            } else if (args[i].equals("--metrics") && i + 1 < args.length) {
+                metricsFile = Path.of(args[i + 1]);
+            } else if (args[i].equals("--turn-timeout")) {
+                try {
+                    turnTimeout = Math.max(0, Long.parseLong(args[i + 1]));
+                } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                    Server.LOGGER.severe(() -> "Turn timeout not valid, using the default one: " + TurnDeadlines.DEFAULT_TIMEOUT_MILLIS / 1000 + " s");
+                }
+            } else if (args[i].equals("--log") && i + 1 < args.length) {
+                logPattern = args[i + 1];
+            } else if (args[i].equals("--log-messages")) {
+                try {
+                    logMessages = Math.max(1, Integer.parseInt(args[i + 1]));
+                } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                    Server.LOGGER.severe(() -> "Message sampling not valid, the messages are not logged");
                 }
             }
-        } //if -p was not found
-        server = new Server(Constants.DEFAULT_PORT);
+        }
+        installLog(logPattern, logMessages);
+        Server server = new Server(port, transport, new OutboundPolicy(maxQueue, coalesce, overflow));
+        try {
+            server.setMatchLogDirectory(matchLogDirectory);
+        } catch (IOException e) {
+            Server.LOGGER.severe(() -> "Match log directory not valid, the matches are not recorded");
+        }
+        server.setTurnTimeout(turnTimeout * 1000);
+        if (metricsFile != null) MetricsRegistry.GLOBAL.startDump(metricsFile, METRICS_PERIOD_MILLIS);
         server.start();
     }
+
+    /**
+     * Move the log of the server to a background thread, that writes it to the console and, if a pattern is given, to
+     * rotating files.
+     *
+     * @param pattern     the pattern of the names of the files, as in {@link FileHandler}, or null
+     * @param logMessages if positive, one message received in this number is logged
+     */
+    private static void installLog(String pattern, int logMessages) {
+        List<Handler> targets = new ArrayList<>();
+        targets.add(new ConsoleHandler());
+        if (pattern != null) {
+            try {
+                targets.add(new FileHandler(pattern, LOG_FILE_LIMIT, LOG_FILE_COUNT, true));
+            } catch (IOException e) {
+                Server.LOGGER.severe(() -> "Log file not valid, the log is written to the console only");
+            }
+        }
+        for (Handler target : targets) {
+            target.setFormatter(new StructuredFormatter());
+            target.setLevel(Level.ALL);
+        }
+        AsyncLogHandler.install(Server.LOGGER, targets);
+        if (logMessages > 0) {
+            ServerLog.sampleMessages(logMessages);
+            Server.LOGGER.setLevel(Level.FINE);
+        }
+    }
 }
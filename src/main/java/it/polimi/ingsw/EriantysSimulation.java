@@ -0,0 +1,94 @@
+package it.polimi.ingsw;
+
+import it.polimi.ingsw.network.server.Server;
+import it.polimi.ingsw.view.bot.BotStrategy;
+import it.polimi.ingsw.view.bot.MatchSimulator;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import static java.lang.System.exit;
+
+public class EriantysSimulation {
+    public static void main(String[] args) throws InterruptedException {
+        int games = 10000;
+        int warmup = -1;
+        int threads = 1;
+        int nPlayers = 2;
+        boolean expertMode = false;
+        BotStrategy strategy = BotStrategy.RANDOM;
+        long seed = 42;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--games" -> games = Integer.parseInt(args[++i]);
+                    case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    case "--players" -> nPlayers = Integer.parseInt(args[++i]);
+                    case "--expert" -> expertMode = true;
+                    case "--strategy" -> strategy = BotStrategy.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    default -> throw new IllegalArgumentException(args[i]);
+                }
+            }
+            if (games < 1 || threads < 1) throw new IllegalArgumentException();
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.out.println("Usage: [--games n] [--warmup n] [--threads n] [--players 2|3] [--expert] [--strategy random|greedy] [--seed n]");
+            exit(1);
+        }
+        Server.LOGGER.setLevel(Level.WARNING);
+        MatchSimulator simulator = new MatchSimulator(nPlayers, expertMode, strategy);
+        run(simulator, warmup < 0 ? games / 10 : warmup, threads, seed - 1_000_000); //warm up with other matches
+
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        AtomicLong allocated = new AtomicLong();
+        AtomicLong completed = new AtomicLong();
+        AtomicLong messages = new AtomicLong();
+        List<Thread> workers = new ArrayList<>();
+        int perThread = (games + threads - 1) / threads;
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            long first = seed + (long) t * perThread;
+            int count = Math.min(perThread, games - t * perThread);
+            Thread worker = new Thread(() -> {
+                long before = bean.getCurrentThreadAllocatedBytes();
+                for (int g = 0; g < count; g++) {
+                    MatchSimulator.Simulation simulation = simulator.play(first + g);
+                    if (simulation.completed()) completed.incrementAndGet();
+                    messages.addAndGet(simulation.received() + simulation.sent());
+                }
+                allocated.addAndGet(bean.getCurrentThreadAllocatedBytes() - before);
+            }, "simulation-" + t);
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers)
+            worker.join();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        int cores = Math.min(threads, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%d matches of %d players (%s, %s bots) on %d threads in %.3f s, %d completed%n",
+                games, nPlayers, expertMode ? "expert" : "simple", strategy.name().toLowerCase(Locale.ROOT), threads, seconds, completed.get());
+        System.out.printf("%.1f matches/s, %.1f matches/s per core, %.0f messages per match, %.0f KB allocated per match%n",
+                games / seconds, games / seconds / cores, (double) messages.get() / games, allocated.get() / 1024.0 / games);
+        exit(0);
+    }
+
+    private static void run(MatchSimulator simulator, int games, int threads, long seed) throws InterruptedException {
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long first = seed + (long) t * games;
+            Thread worker = new Thread(() -> {
+                for (int g = 0; g < games / threads; g++)
+                    simulator.play(first + g);
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers)
+            worker.join();
+    }
+}
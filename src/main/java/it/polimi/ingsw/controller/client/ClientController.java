@@ -28,12 +28,16 @@ public class ClientController implements ClientObserver {
     private final View view;
     private final Client client;
     private String nickname;
+    /**
+     * A resync has been asked and the full model hasn't arrived yet
+     */
+    private boolean resyncPending;
 
     public ClientController(View view) {
         this.view = view;
         client = new Client(this);
         ShortModel shortModel = new ShortModel();
-        visitor = new ClientSideVisitor(view, shortModel);
+        visitor = new ClientSideVisitor(view, shortModel, this::resync);
         view.injectResource(shortModel);
     }
 
@@ -64,9 +68,22 @@ public class ClientController implements ClientObserver {
      * @param msg to be dispatched
      */
     public void receiveMessage(Notification msg) {
+        if (msg instanceof ModelUpdateNotification update && update.getModel().isFull()) resyncPending = false;
         msg.accept(visitor);
     }
 
+    /**
+     * Ask the server for a full model snapshot, when the local model is no more in sync. The deltas already sent by
+     * the server are refused too until the snapshot arrives: they don't ask for another one.
+     */
+    private void resync() {
+        if (resyncPending) return;
+        resyncPending = true;
+        Notification resync = new ResyncNotification();
+        resync.setClientId(nickname);
+        client.sendMessage(resync);
+    }
+
     /**
      * Receive update from the view regarding connection info
      *
@@ -222,6 +239,13 @@ public class ClientController implements ClientObserver {
         client.sendMessage(swapNotification);
     }
 
+    /**
+     * Close the connection with the server
+     */
+    public void disconnect() {
+        client.disconnect();
+    }
+
     /**
      * This method is called when the connection with the server is closed due to error in networking.
      */
@@ -1,25 +1,49 @@
 package it.polimi.ingsw.controller.server;
 
 import it.polimi.ingsw.model.Game;
-import it.polimi.ingsw.model.ShortModel;
 import it.polimi.ingsw.network.communication.NotificationVisitor;
+import it.polimi.ingsw.network.communication.codec.EncodedNotification;
 import it.polimi.ingsw.network.communication.notification.ErrorMessageNotification;
 import it.polimi.ingsw.network.communication.notification.GenericMessageNotification;
-import it.polimi.ingsw.network.communication.notification.ModelUpdateNotification;
 import it.polimi.ingsw.network.communication.notification.Notification;
 import it.polimi.ingsw.network.server.Connection;
 import it.polimi.ingsw.network.server.Server;
+import it.polimi.ingsw.network.server.ServerLog;
 import it.polimi.ingsw.network.server.ServerSideVisitor;
 import it.polimi.ingsw.network.server.VirtualView;
+import it.polimi.ingsw.utility.TimerWheel;
+import it.polimi.ingsw.utility.events.MessageDispatchEvent;
+import it.polimi.ingsw.utility.metrics.LatencyHistogram;
+import it.polimi.ingsw.utility.metrics.MetricsRegistry;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Level;
 
 /**
  * This class handle a specific game. It observes a VirtualView and update the model {@link Game}
  * It has a reference to each VirtualView with the nickname of the represented client. According to the
  * turn logic (and the state) of the game, it sends messages to the client.
+ * <p>
+ * The match is an actor: the messages of the clients and the disconnections are queued in its {@link MatchActor} and
+ * handled one at a time, so the controller, the {@link TurnManager} and the model are only used by one thread at once.
+ * <p>
+ * Every random choice of the match is made with a generator created from the seed of the match. A match created with
+ * the same seed, the same players and receiving the same messages evolves in the same way, so the messages can be
+ * recorded in a {@link MatchLog} and the match played again by the {@link MatchReplayer}.
+ * <p>
+ * The model updates are deferred: the snapshot of the model is built once at the end of each task of the actor, or
+ * earlier if another message has to be sent to the players, instead of once for every change of the model.
+ * <p>
+ * With {@link TurnDeadlines} every request to a player has a deadline. When it expires a default move is queued in the
+ * mailbox of the match and handled as a message of the player: it is recorded in the {@link MatchLog} like the others,
+ * so the replay of the match doesn't need the deadlines.
  */
 public class GameController {
+    private static final LatencyHistogram MAILBOX_WAIT = MetricsRegistry.GLOBAL.histogram("match.mailbox.wait");
+    private static final MetricsRegistry.HistogramFamily HANDLING = MetricsRegistry.GLOBAL.histograms("match.handling");
     private final NotificationVisitor visitor;
     private final Map<String, VirtualView> virtualViewMap;
     private final Map<String, Connection> connectionMap;
@@ -27,37 +51,189 @@ public class GameController {
     private final Game game;
     private final TurnManager turnManager;
     private final WinHandler winHandler;
+    private final MatchActor actor;
+    private final long seed;
+    private MatchLog log;
+    private TurnDeadlines deadlines;
+    private TimerWheel.Timeout deadline;
+    private boolean ended;
     private boolean expertMode;
 
+    /**
+     * Create a controller that handles the messages on the thread that receives them
+     */
     public GameController() {
-        this.virtualViewMap = Collections.synchronizedMap(new HashMap<>());
-        this.connectionMap = Collections.synchronizedMap(new HashMap<>());
-        this.names = Collections.synchronizedList(new ArrayList<>());
-        this.game = new Game();
+        this(Runnable::run);
+    }
+
+    /**
+     * @param workers the pool of threads shared by the matches
+     */
+    public GameController(Executor workers) {
+        this(workers, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * @param workers the pool of threads shared by the matches
+     * @param seed    the seed of the random choices of the match
+     */
+    public GameController(Executor workers, long seed) {
+        this.seed = seed;
+        this.actor = new MatchActor(workers, this::flushLog);
+        this.virtualViewMap = new HashMap<>();
+        this.connectionMap = new HashMap<>();
+        this.names = new ArrayList<>();
+        this.game = new Game(new SplittableRandom(seed));
+        this.game.setDeferUpdates(true);
         this.turnManager = new TurnManager(game, this);
         this.visitor = new ServerSideVisitor(game, turnManager);
         this.winHandler = new WinHandler(this, game);
     }
 
     /**
-     * Add a client in the game
+     * Add a client in the game. The clients must be added before the match is started.
      *
      * @param nickname         the nickname of the player
      * @param socketConnection the connection entity with the player
      */
-    public synchronized void addClient(String nickname, Connection socketConnection) {
+    public void addClient(String nickname, Connection socketConnection) {
         names.add(nickname);
         connectionMap.put(nickname, socketConnection);
-        virtualViewMap.put(nickname, new VirtualView(socketConnection));
+        virtualViewMap.put(nickname, new VirtualView(socketConnection, game::flushModelUpdate));
     }
 
     /**
-     * This method is used to update model according to view's action (client input)
+     * This method is used to update model according to view's action (client input).
+     * The message is queued in the mailbox of the match. The time it waits in the mailbox and the time it takes to
+     * handle it are measured.
      *
      * @param msg the message sent by the client
      */
     public void handleMessage(Notification msg) {
-        msg.accept(visitor);
+        long queued = System.nanoTime();
+        actor.execute(() -> {
+            long started = System.nanoTime();
+            MAILBOX_WAIT.record(started - queued);
+            MessageDispatchEvent event = new MessageDispatchEvent();
+            event.begin();
+            record(msg);
+            msg.accept(visitor);
+            game.flushModelUpdate();
+            HANDLING.record(msg, System.nanoTime() - started);
+            commit(event, msg, false);
+        });
+    }
+
+    /**
+     * Record the messages handled by this match in a log. It must be called before the match is initialized.
+     *
+     * @param log the log of the match
+     */
+    public void recordTo(MatchLog log) {
+        this.log = log;
+    }
+
+    /**
+     * Give the players a deadline to answer each request. It must be called before the match is initialized.
+     *
+     * @param deadlines the time to answer each kind of request, null to wait for the players forever
+     */
+    public void setTurnDeadlines(TurnDeadlines deadlines) {
+        this.deadlines = deadlines;
+    }
+
+    /**
+     * Start the deadline of a request sent to the current player, the deadline of the previous request is cancelled.
+     *
+     * @param prompt   the kind of request
+     * @param sequence the sequence number of the request
+     */
+    void awaitAnswer(TurnManager.Prompt prompt, int sequence) {
+        cancelDeadline();
+        if (deadlines == null || ended) return;
+        deadline = deadlines.schedule(prompt, () -> actor.execute(() -> playDefaultMove(sequence)));
+    }
+
+    private void cancelDeadline() {
+        if (deadline != null) deadline.cancel();
+        deadline = null;
+    }
+
+    /**
+     * Play a default move for the current player, unless the request has been answered in the meantime
+     *
+     * @param sequence the sequence number of the expired request
+     */
+    private void playDefaultMove(int sequence) {
+        if (ended) return;
+        Notification move = turnManager.defaultMove(sequence);
+        String name = turnManager.getRequestName();
+        if (move == null || !connectionMap.containsKey(name)) return;
+        ServerLog.match(Level.INFO, "No answer in time, a default move is played", seed, name, turnManager.getGameState());
+        virtualViewMap.get(name).showMessage("Time is up, a move has been played for you.");
+        move.setClientId(name);
+        MessageDispatchEvent event = new MessageDispatchEvent();
+        event.begin();
+        record(move);
+        move.accept(visitor);
+        game.flushModelUpdate();
+        commit(event, move, true);
+    }
+
+    private void commit(MessageDispatchEvent event, Notification msg, boolean defaultMove) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.type = msg.getClass();
+            event.player = msg.getSenderID();
+            event.seed = seed;
+            event.defaultMove = defaultMove;
+            event.commit();
+        }
+    }
+
+    private void record(Notification msg) {
+        if (log == null) return;
+        try {
+            log.append(msg);
+        } catch (IOException e) {
+            Server.LOGGER.log(Level.WARNING, e, () -> "Match log not written, the recording is stopped");
+            closeLog();
+        }
+    }
+
+    /**
+     * Write the messages recorded by the last batch of tasks of the actor
+     */
+    private void flushLog() {
+        if (log == null) return;
+        try {
+            log.flush();
+        } catch (IOException e) {
+            Server.LOGGER.log(Level.WARNING, e, () -> "Match log not written, the recording is stopped");
+            closeLog();
+        }
+    }
+
+    private void closeLog() {
+        if (log == null) return;
+        try {
+            log.close();
+        } catch (IOException e) {
+            Server.LOGGER.log(Level.WARNING, e, () -> "Match log not closed");
+        }
+        log = null;
+    }
+
+    /**
+     * Run a task in the mailbox of the match, after the messages already received
+     *
+     * @param task the task to run
+     */
+    public void execute(Runnable task) {
+        actor.execute(() -> {
+            task.run();
+            game.flushModelUpdate();
+        });
     }
 
     /**
@@ -67,10 +243,19 @@ public class GameController {
      */
     public void init(boolean expertMode) {
         this.expertMode = expertMode;
-        virtualViewMap.values().forEach(game::addObserver);
+        if (log != null) {
+            try {
+                log.writeHeader(new MatchLog.Header(seed, expertMode, List.copyOf(names)));
+            } catch (IOException e) {
+                Server.LOGGER.log(Level.WARNING, e, () -> "Match log not written, the recording is stopped");
+                closeLog();
+            }
+        }
+        game.addObserver(this::sendModelUpdate);
         broadcast(new GenericMessageNotification("Game is started!"));
         turnManager.setFirstOrder(names);
         turnManager.onInit();
+        game.flushModelUpdate();
     }
 
     /**
@@ -90,7 +275,7 @@ public class GameController {
     public void handleWin(String name) {
         if (connectionMap.isEmpty())
             return; //in case of "multiple win condition" (e.g. a player finishes all his towers and the island are less than 3) the client are notified one time
-        game.notifyObserver(new ModelUpdateNotification(new ShortModel(game, expertMode))); //final update
+        game.notifyModelUpdate(); //final update
         notifyWinner(name);
     }
 
@@ -99,7 +284,7 @@ public class GameController {
      *
      * @param winner the nickname of the winner
      */
-    private synchronized void notifyWinner(String winner) {
+    private void notifyWinner(String winner) {
         virtualViewMap.get(winner).win(winner, true);
         removeClient(winner);
         names.remove(winner);
@@ -108,6 +293,16 @@ public class GameController {
             removeClient(name);
         }
         names.clear();
+        end();
+    }
+
+    /**
+     * Stop the deadlines and the recording of an ended match
+     */
+    private void end() {
+        ended = true;
+        cancelDeadline();
+        closeLog();
     }
 
     /**
@@ -121,15 +316,18 @@ public class GameController {
     }
 
     /**
-     * Broadcast a disconnection message to all the listening client and close the game
+     * Broadcast a disconnection message to all the listening client and close the game.
+     * The disconnection is queued in the mailbox of the match, after the messages already received.
      *
      * @param nickname the nickname of the disconnected client
      */
-    public synchronized void handleDisconnection(String nickname) {
-        connectionMap.remove(nickname);
-        virtualViewMap.remove(nickname);
-        Notification disconnection = new ErrorMessageNotification(nickname + " has left the match! GAME ENDED.");
-        broadcast(disconnection, nickname);
+    public void handleDisconnection(String nickname) {
+        actor.execute(() -> {
+            removeClient(nickname);
+            Notification disconnection = new ErrorMessageNotification(nickname + " has left the match! GAME ENDED.");
+            broadcast(disconnection, nickname);
+            end();
+        });
     }
 
     /**
@@ -138,8 +336,21 @@ public class GameController {
      * @param msg the message to broadcast
      */
     public void broadcast(Notification msg) {
+        game.flushModelUpdate();
         msg.setClientId(Server.NAME);
-        connectionMap.values().forEach(connection -> connection.sendMessage(msg));
+        Notification shared = EncodedNotification.of(msg);
+        connectionMap.values().forEach(connection -> connection.sendMessage(shared));
+    }
+
+    /**
+     * Send a model update to all the players. The controller is the only observer of the model, so the update is
+     * shared by all the connections and encoded only once.
+     *
+     * @param msg the model update
+     */
+    private void sendModelUpdate(Notification msg) {
+        Notification shared = EncodedNotification.of(msg);
+        virtualViewMap.values().forEach(view -> view.update(shared));
     }
 
     /**
@@ -149,7 +360,9 @@ public class GameController {
      * @param exclusion the excluded client
      */
     public void broadcast(Notification msg, String exclusion) {
-        connectionMap.keySet().stream().filter(s -> !s.equals(exclusion)).map(connectionMap::get).forEach(connection -> connection.sendMessage(msg));
+        game.flushModelUpdate();
+        Notification shared = EncodedNotification.of(msg);
+        connectionMap.keySet().stream().filter(s -> !s.equals(exclusion)).map(connectionMap::get).forEach(connection -> connection.sendMessage(shared));
     }
 
     /**
@@ -199,6 +412,13 @@ public class GameController {
         return winHandler;
     }
 
+    /**
+     * @return the seed of the random choices of the match
+     */
+    public long getSeed() {
+        return seed;
+    }
+
     /**
      * @return true if the game mode is set, false otherwise.
      */
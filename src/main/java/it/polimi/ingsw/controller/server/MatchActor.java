@@ -0,0 +1,89 @@
+package it.polimi.ingsw.controller.server;
+
+import it.polimi.ingsw.network.server.Server;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * The mailbox of a match. The tasks submitted to the actor are executed one at a time, in the order they arrive, so
+ * the {@link GameController}, the {@link TurnManager} and the model of the match never need a lock.
+ * <p>
+ * The actor doesn't own a thread: when its mailbox is not empty it is scheduled on a pool of workers shared by all the
+ * matches, and it gives the worker back after a batch of tasks so that a busy match can't starve the others.
+ */
+public class MatchActor implements Executor {
+    /**
+     * Maximum number of tasks executed before giving the worker back to the pool
+     */
+    private static final int BATCH_SIZE = 64;
+    private final Executor workers;
+    private final Runnable afterBatch;
+    private final Queue<Runnable> mailbox;
+    private final AtomicBoolean scheduled;
+
+    /**
+     * @param workers the pool that runs the tasks, a direct executor ({@code Runnable::run}) runs them on the caller thread
+     */
+    public MatchActor(Executor workers) {
+        this(workers, () -> {
+        });
+    }
+
+    /**
+     * @param workers    the pool that runs the tasks, a direct executor ({@code Runnable::run}) runs them on the caller thread
+     * @param afterBatch the task run after each batch of tasks, before the worker is given back (e.g. to flush what the
+     *                   tasks have written)
+     */
+    public MatchActor(Executor workers, Runnable afterBatch) {
+        this.workers = workers;
+        this.afterBatch = afterBatch;
+        this.mailbox = new ConcurrentLinkedQueue<>();
+        this.scheduled = new AtomicBoolean(false);
+    }
+
+    /**
+     * Add a task to the mailbox. It can be called by any thread, also by a task of this actor:
+     * in that case the new task runs after the current one.
+     *
+     * @param task the task to execute
+     */
+    @Override
+    public void execute(Runnable task) {
+        mailbox.add(task);
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                workers.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                Server.LOGGER.severe(() -> "Match workers are not available, " + mailbox.size() + " tasks are waiting");
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                Runnable task = mailbox.poll();
+                if (task == null) break;
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    Server.LOGGER.log(Level.SEVERE, e, () -> "Error while handling a match event");
+                }
+            }
+            afterBatch.run();
+        } finally {
+            scheduled.set(false);
+            if (!mailbox.isEmpty()) schedule();
+        }
+    }
+}
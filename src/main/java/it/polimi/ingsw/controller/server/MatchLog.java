@@ -0,0 +1,141 @@
+package it.polimi.ingsw.controller.server;
+
+import it.polimi.ingsw.network.communication.codec.FrameCodec;
+import it.polimi.ingsw.network.communication.codec.WireReader;
+import it.polimi.ingsw.network.communication.codec.WireWriter;
+import it.polimi.ingsw.network.communication.notification.Notification;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An append-only log of the messages received by a match. Together with the seed of the match it is enough to play
+ * the match again, see {@link MatchReplayer}.
+ * <p>
+ * The log starts with a header frame (the seed, the game mode and the players in the order they were added), followed
+ * by the messages in the order they were handled, each one in the same frame used on the wire by the {@link FrameCodec}.
+ * A log interrupted in the middle of a frame (e.g. by a crash) is still readable up to the last complete frame.
+ * <p>
+ * The messages are not flushed one by one: the {@link GameController} flushes the log when its actor has handled a
+ * batch of messages, so a busy match doesn't pay a write to the file for each message.
+ */
+public class MatchLog implements Closeable {
+    /**
+     * Version of the header, the messages carry the version of the wire protocol
+     */
+    public static final int VERSION = 2;
+    private final OutputStream out;
+
+    /**
+     * @param out the stream the log is written to, the header is flushed when it is written
+     */
+    public MatchLog(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Create a log in a file, an existing file is overwritten
+     *
+     * @param file the file of the log
+     * @return the new log
+     * @throws IOException if the file can't be created
+     */
+    public static MatchLog create(Path file) throws IOException {
+        return new MatchLog(new BufferedOutputStream(Files.newOutputStream(file)));
+    }
+
+    /**
+     * Write the header, it must be the first write of the log
+     *
+     * @param header the parameters of the match
+     * @throws IOException if the log can't be written
+     */
+    public void writeHeader(Header header) throws IOException {
+        WireWriter frame = new WireWriter(64);
+        frame.skip(FrameCodec.HEADER_SIZE);
+        frame.writeByte(VERSION);
+        frame.writeLong(header.seed());
+        frame.writeBoolean(header.expertMode());
+        frame.writeVarInt(header.players().size() + 1);
+        for (String player : header.players())
+            frame.writeString(player);
+        frame.putInt(0, frame.size() - FrameCodec.HEADER_SIZE);
+        out.write(frame.toByteArray());
+        out.flush();
+    }
+
+    /**
+     * Append a message handled by the match, it is written to the file at the next {@link #flush()}
+     *
+     * @param msg the message
+     * @throws IOException if the log can't be written or the message has no binary representation
+     */
+    public void append(Notification msg) throws IOException {
+        out.write(FrameCodec.encode(msg));
+    }
+
+    /**
+     * Write the messages appended since the last flush
+     *
+     * @throws IOException if the log can't be written
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Read the header of a log
+     *
+     * @param in the log, positioned at its beginning
+     * @return the parameters of the match
+     * @throws IOException if the log is truncated or written with another version
+     */
+    public static Header readHeader(DataInputStream in) throws IOException {
+        byte[] payload = new byte[FrameCodec.checkLength(in.readInt())];
+        in.readFully(payload);
+        WireReader header = new WireReader(payload, 0, payload.length);
+        int version = header.readByte();
+        if (version != VERSION) throw new InvalidClassException("Unsupported match log version " + version);
+        long seed = header.readLong();
+        boolean expertMode = header.readBoolean();
+        int size = header.readSize();
+        if (size < 0) throw new StreamCorruptedException("Match log without players");
+        List<String> players = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            players.add(header.readString());
+        return new Header(seed, expertMode, players);
+    }
+
+    /**
+     * Read the next message of a log
+     *
+     * @param in the log, positioned after the header
+     * @return the next message, or null if the log is ended (an incomplete last frame is ignored)
+     * @throws IOException if the log can't be read or a frame is corrupted
+     */
+    public static Notification readMessage(DataInputStream in) throws IOException {
+        try {
+            return FrameCodec.read(in);
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The parameters of a match that are not carried by its messages
+     *
+     * @param seed       the seed of the generator of the match
+     * @param expertMode whether the match is in expert mode
+     * @param players    the nicknames of the players, in the order they were added to the controller
+     */
+    public record Header(long seed, boolean expertMode, List<String> players) {
+    }
+}
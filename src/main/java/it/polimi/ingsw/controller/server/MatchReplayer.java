@@ -0,0 +1,97 @@
+package it.polimi.ingsw.controller.server;
+
+import it.polimi.ingsw.network.communication.codec.EncodedNotification;
+import it.polimi.ingsw.network.communication.notification.Notification;
+import it.polimi.ingsw.network.communication.notification.WinNotification;
+import it.polimi.ingsw.network.server.Connection;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plays again a match recorded in a {@link MatchLog}. A new {@link GameController} is created with the seed and the
+ * players of the log, then the recorded messages are handled on the caller thread, one after the other, without
+ * waiting for the players and without a network: a match is replayed at full speed.
+ * <p>
+ * The messages sent by the controller to the players are counted and discarded.
+ */
+public class MatchReplayer {
+    private MatchReplayer() {
+        //cannot be instantiated
+    }
+
+    /**
+     * Replay a match
+     *
+     * @param in the log of the match
+     * @return the outcome of the replay
+     * @throws IOException if the log can't be read or is corrupted
+     */
+    public static Replay replay(InputStream in) throws IOException {
+        DataInputStream log = new DataInputStream(in);
+        MatchLog.Header header = MatchLog.readHeader(log);
+        List<Notification> messages = new ArrayList<>();
+        for (Notification msg = MatchLog.readMessage(log); msg != null; msg = MatchLog.readMessage(log))
+            messages.add(msg);
+        return replay(header, messages);
+    }
+
+    /**
+     * Replay a match whose log has already been read, so that only the engine is measured
+     *
+     * @param header   the header of the log
+     * @param messages the messages of the log
+     * @return the outcome of the replay
+     */
+    public static Replay replay(MatchLog.Header header, List<Notification> messages) {
+        ReplayConnection connection = new ReplayConnection();
+        long start = System.nanoTime();
+        GameController controller = new GameController(Runnable::run, header.seed());
+        for (String player : header.players())
+            controller.addClient(player, connection);
+        controller.init(header.expertMode());
+        for (Notification msg : messages)
+            controller.handleMessage(msg);
+        return new Replay(header.seed(), messages.size(), connection.sent, connection.winner, System.nanoTime() - start);
+    }
+
+    /**
+     * The outcome of a replay
+     *
+     * @param seed     the seed of the match
+     * @param received the number of replayed messages
+     * @param sent     the number of messages sent by the controller to the players
+     * @param winner   the winner of the match, null if the recorded match didn't end
+     * @param nanos    the duration of the replay
+     */
+    public record Replay(long seed, int received, int sent, String winner, long nanos) {
+    }
+
+    /**
+     * The connection of all the players of a replayed match
+     */
+    private static class ReplayConnection implements Connection {
+        private int sent;
+        private String winner;
+
+        @Override
+        public void sendMessage(Notification msg) {
+            sent++;
+            if (EncodedNotification.unwrap(msg) instanceof WinNotification win && win.isWin())
+                winner = win.getName();
+        }
+
+        @Override
+        public void disconnect() {
+            //nobody to disconnect
+        }
+
+        @Override
+        public void run() {
+            //nothing to read
+        }
+    }
+}
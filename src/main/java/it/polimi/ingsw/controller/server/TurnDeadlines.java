@@ -0,0 +1,65 @@
+package it.polimi.ingsw.controller.server;
+
+import it.polimi.ingsw.controller.server.TurnManager.Prompt;
+import it.polimi.ingsw.utility.TimerWheel;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The time a player has to answer each request of the {@link TurnManager}. When it expires the {@link GameController}
+ * plays a default move for the player, so a player who stops answering can't stall a match forever.
+ * <p>
+ * The deadlines of all the matches share one {@link TimerWheel}: a match that is waiting for an answer only has a
+ * timeout in the wheel, and no thread.
+ */
+public class TurnDeadlines {
+    /**
+     * The default time to answer a request
+     */
+    public static final long DEFAULT_TIMEOUT_MILLIS = 60_000;
+    private final TimerWheel timers;
+    private final Map<Prompt, Long> timeouts;
+
+    /**
+     * @param timers        the wheel shared by the matches
+     * @param timeoutMillis the time to answer any request
+     */
+    public TurnDeadlines(TimerWheel timers, long timeoutMillis) {
+        this.timers = timers;
+        this.timeouts = new EnumMap<>(Prompt.class);
+        for (Prompt prompt : Prompt.values())
+            timeouts.put(prompt, timeoutMillis);
+    }
+
+    /**
+     * Change the time to answer a kind of request. It must be called before the matches are started.
+     *
+     * @param prompt        the kind of request
+     * @param timeoutMillis the time to answer it
+     * @return this object
+     */
+    public TurnDeadlines withTimeout(Prompt prompt, long timeoutMillis) {
+        timeouts.put(prompt, timeoutMillis);
+        return this;
+    }
+
+    /**
+     * @param prompt a kind of request
+     * @return the time to answer it
+     */
+    public long getTimeout(Prompt prompt) {
+        return timeouts.get(prompt);
+    }
+
+    /**
+     * Start the deadline of a request
+     *
+     * @param prompt   the kind of request
+     * @param onExpiry the task to run when the deadline expires, on the thread of the wheel
+     * @return the timeout, to cancel it
+     */
+    TimerWheel.Timeout schedule(Prompt prompt, Runnable onExpiry) {
+        return timers.schedule(onExpiry, timeouts.get(prompt));
+    }
+}
@@ -1,8 +1,10 @@
 package it.polimi.ingsw.controller.server;
 
 import it.polimi.ingsw.model.Game;
+import it.polimi.ingsw.model.ShortModel;
 import it.polimi.ingsw.model.character.ActionVisitor;
 import it.polimi.ingsw.model.character.CharacterCard;
+import it.polimi.ingsw.model.clouds.Cloud;
 import it.polimi.ingsw.model.clouds.ShortCloud;
 import it.polimi.ingsw.model.pawns.PawnColor;
 import it.polimi.ingsw.model.place.Island;
@@ -10,14 +12,25 @@ import it.polimi.ingsw.model.player.Assistant;
 import it.polimi.ingsw.model.player.Player;
 import it.polimi.ingsw.model.player.TowerColor;
 import it.polimi.ingsw.model.player.Wizard;
+import it.polimi.ingsw.network.communication.Target;
+import it.polimi.ingsw.network.communication.notification.*;
+import it.polimi.ingsw.network.server.ServerLog;
+import it.polimi.ingsw.network.server.VirtualView;
 import it.polimi.ingsw.utility.Pair;
+import it.polimi.ingsw.utility.Shuffle;
+import it.polimi.ingsw.utility.events.GameStateEvent;
 import it.polimi.ingsw.utility.gamelimit.GameLimit;
 import it.polimi.ingsw.view.View;
 
 import java.util.*;
+import java.util.logging.Level;
 
 /**
  * This class handles the turn logic of each game
+ * <p>
+ * Every request sent to the current player is a prompt with its own sequence number. The {@link GameController} starts
+ * a deadline for each prompt: if it expires before the player answers, the controller asks the {@link #defaultMove(int)}
+ * for that prompt and handles it as if the player had sent it.
  */
 public class TurnManager {
     private final List<String> playersOrder;
@@ -33,6 +46,8 @@ public class TurnManager {
     private GameState gameState;
     private GameState callbackState;
     private CharacterCard chosenCard;
+    private Prompt prompt;
+    private int promptSequence = 0;
 
     public TurnManager(Game game, GameController controller) {
         this.availableWizard = EnumSet.allOf(Wizard.class);
@@ -68,13 +83,13 @@ public class TurnManager {
     }
 
     /**
-     * Set the first (random) turn of the game
+     * Set the first (random) turn of the game, the order is drawn with the generator of the match
      *
      * @param players the list of players in game
      */
     public void setFirstOrder(List<String> players) {
         List<String> clone = new ArrayList<>(players);
-        Collections.shuffle(clone);
+        Shuffle.shuffle(clone, controller.getGame().getRandom());
         playersOrder.clear();
         playersOrder.addAll(pickListFromFirst(clone.get(0), clone));
     }
@@ -115,7 +130,7 @@ public class TurnManager {
         switch (gameState) {
             case PLANNING_ADD_TO_CLOUD -> {
                 game.fillClouds();
-                gameState = GameState.PLANNING_ASSISTANT;
+                changeState(GameState.PLANNING_ASSISTANT);
                 turn();
             }
             case PLANNING_ASSISTANT -> chooseAssistant();
@@ -141,6 +156,7 @@ public class TurnManager {
             else
                 controller.getVirtualView(name).showMessage(requestName + " is choosing an assistant");
         }
+        await(Prompt.ASSISTANT);
     }
 
     /**
@@ -153,6 +169,7 @@ public class TurnManager {
             else
                 controller.getVirtualView(name).showMessage(requestName + " is moving a student");
         }
+        await(Prompt.MOVE_STUDENT);
     }
 
     /**
@@ -165,7 +182,7 @@ public class TurnManager {
             else
                 controller.getVirtualView(name).showMessage(requestName + " is moving mother nature");
         }
-
+        await(Prompt.MOTHER_NATURE);
     }
 
     /**
@@ -178,6 +195,7 @@ public class TurnManager {
             else
                 controller.getVirtualView(name).showMessage(requestName + " is choosing a cloud");
         }
+        await(Prompt.CLOUD);
     }
 
     /**
@@ -199,6 +217,7 @@ public class TurnManager {
             else
                 controller.getVirtualView(name).showMessage(requestName + " is choosing wizard and tower color.");
         }
+        await(Prompt.WIZARD_AND_TOWER_COLOR);
     }
 
     /**
@@ -217,7 +236,7 @@ public class TurnManager {
         } else {
             game.startGame(controller.isExpertMode());
             controller.startMatch();
-            gameState = GameState.PLANNING_ADD_TO_CLOUD;
+            changeState(GameState.PLANNING_ADD_TO_CLOUD);
             request = 0;
             turn();
         }
@@ -230,7 +249,7 @@ public class TurnManager {
         if (game.getPlayerByName(requestName).getHand().isEmpty())
             isLastTurn = true;
         if (request == playersOrder.size() - 1) {
-            gameState = GameState.ACTION_MOVE;
+            changeState(GameState.ACTION_MOVE);
             setActionOrder(game.getPlayedAssistantMap());
             request = 0;
             turn();
@@ -246,7 +265,7 @@ public class TurnManager {
     public void onMoveStudent() {
         if (studentsMoved == game.getGameLimit().getStudentOnCloud()) {
             studentsMoved = 1;
-            gameState = GameState.ACTION_MN;
+            changeState(GameState.ACTION_MN);
             turn();
         } else {
             studentsMoved++;
@@ -266,7 +285,7 @@ public class TurnManager {
      * Receive update about mother nature movement
      */
     public void onMoveMN() {
-        gameState = GameState.ACTION_CHOOSE_CLOUD;
+        changeState(GameState.ACTION_CHOOSE_CLOUD);
         turn();
     }
 
@@ -277,14 +296,14 @@ public class TurnManager {
         game.prepareNextTurn();
         if (request == playersOrder.size() - 1 && !isLastTurn) {
             request = 0;
-            gameState = GameState.PLANNING_ADD_TO_CLOUD;
+            changeState(GameState.PLANNING_ADD_TO_CLOUD);
             setPlanningOrder(game.getPlayedAssistantMap(), game.getPlayers().stream().map(Player::getPlayerName).toList());
             game.endTurn();
             turn();
         } else if (request == playersOrder.size() - 1 && isLastTurn) {
             controller.getWinHandler().handleWin();
         } else {
-            gameState = GameState.ACTION_MOVE;
+            changeState(GameState.ACTION_MOVE);
             request++;
             turn();
         }
@@ -297,7 +316,7 @@ public class TurnManager {
      */
     public void onChosenCharacter(CharacterCard character) {
         callbackState = gameState;
-        gameState = GameState.USE_CHARACTER;
+        changeState(GameState.USE_CHARACTER);
         if (character != null && game.canUseCharacter(character)) {
             this.chosenCard = character;
             for (String name : playersOrder) {
@@ -325,12 +344,19 @@ public class TurnManager {
      */
     private void askRequirements(String requirement) {
         switch (requirement) {
-            case "color" -> controller.getVirtualView(requestName).askColor();
-            case "island" -> controller.getVirtualView(requestName).askIsland();
+            case "color" -> {
+                controller.getVirtualView(requestName).askColor();
+                await(Prompt.CHARACTER_COLOR);
+            }
+            case "island" -> {
+                controller.getVirtualView(requestName).askIsland();
+                await(Prompt.CHARACTER_ISLAND);
+            }
             case "swap" -> {
                 characterRequest++;
                 int swap = Integer.parseInt(chosenCard.getRequires().get(characterRequest));
                 controller.getVirtualView(requestName).askSwapList(swap);
+                await(Prompt.CHARACTER_SWAP);
             }
             default -> chosenCard.getAction().accept(new ActionVisitor(this, game, chosenCard)); //no inputs needed
         }
@@ -375,7 +401,7 @@ public class TurnManager {
     public void onActionCompleted() {
         characterRequest = 0;
         game.useCharacter(chosenCard);
-        gameState = callbackState;
+        changeState(callbackState);
         turn();
     }
 
@@ -385,10 +411,84 @@ public class TurnManager {
     public void onActionFailed() {
         characterRequest = 0;
         controller.getVirtualView(requestName).showMessage("Not enough money to play this character or incorrect input.");
-        gameState = callbackState;
+        changeState(callbackState);
         turn();
     }
 
+    /**
+     * Send the last full model snapshot to a player that is no more in sync, at any moment of the game.
+     *
+     * @param name the nickname of the player
+     */
+    public void onResync(String name) {
+        VirtualView vv = controller.getVirtualView(name);
+        game.flushModelUpdate();
+        ShortModel model = game.getLastModel();
+        if (vv != null && model != null)
+            vv.update(new ModelUpdateNotification(model));
+    }
+
+    /**
+     * Move the turn to a new state, the transition is recorded by a {@link GameStateEvent}
+     *
+     * @param state the new state
+     */
+    private void changeState(GameState state) {
+        GameStateEvent event = new GameStateEvent();
+        if (event.isEnabled()) {
+            event.from = gameState == null ? null : gameState.name();
+            event.to = state.name();
+            event.player = requestName;
+            event.seed = controller.getSeed();
+            event.commit();
+        }
+        ServerLog.match(Level.FINER, "Turn state changed", controller.getSeed(), requestName, state);
+        gameState = state;
+    }
+
+    /**
+     * Wait for the answer of the current player to a new prompt
+     *
+     * @param prompt the kind of request sent to the player
+     */
+    private void await(Prompt prompt) {
+        this.prompt = prompt;
+        promptSequence++;
+        controller.awaitAnswer(prompt, promptSequence);
+    }
+
+    /**
+     * A legal move for the current player, used when the player doesn't answer in time. It is always the same move
+     * for the same state: the lowest assistant, a student to the island of mother nature, one step of mother nature,
+     * the first cloud with students, and the simplest input for a character.
+     *
+     * @param sequence the sequence number of the expired prompt
+     * @return the move, null if the prompt has already been answered
+     */
+    public Notification defaultMove(int sequence) {
+        if (sequence != promptSequence || prompt == null) return null;
+        int motherNature = game.getBoard().getMotherNaturePos();
+        return switch (prompt) {
+            case WIZARD_AND_TOWER_COLOR -> new ChooseWizAndTowerColorNotification(
+                    Arrays.stream(Wizard.values()).filter(availableWizard::contains).findFirst().orElseThrow(),
+                    Arrays.stream(TowerColor.values()).filter(availableTowerColor::contains).findFirst().orElseThrow());
+            case ASSISTANT -> new ChooseAssistantNotification(
+                    game.getPlayableAssistant().stream().min(Comparator.comparingInt(Assistant::value)).orElseThrow());
+            case MOVE_STUDENT -> new MoveStudentNotification(
+                    game.getCurrentPlayer().getSchool().getEntrance().getByIndex(0), Target.ISLAND, motherNature);
+            case MOTHER_NATURE -> new MoveMNNotification(1);
+            case CLOUD -> {
+                List<Cloud> clouds = game.getClouds();
+                int cloud = 0;
+                while (cloud < clouds.size() - 1 && clouds.get(cloud).isEmpty()) cloud++;
+                yield new ChooseCloudNotification(cloud);
+            }
+            case CHARACTER_COLOR -> new ColorNotification(PawnColor.values()[0]);
+            case CHARACTER_ISLAND -> new IslandNotification(motherNature);
+            case CHARACTER_SWAP -> new SwapNotification(List.of());
+        };
+    }
+
     /**
      * Current player nickname getter
      *
@@ -398,6 +498,13 @@ public class TurnManager {
         return requestName;
     }
 
+    /**
+     * @return the current state of the turn
+     */
+    public GameState getGameState() {
+        return gameState;
+    }
+
     /**
      * Current players order getter
      *
@@ -431,4 +538,9 @@ public class TurnManager {
      * The different state of the game
      */
     public enum GameState {PLANNING_ADD_TO_CLOUD, PLANNING_ASSISTANT, ACTION_MOVE, ACTION_MN, ACTION_CHOOSE_CLOUD, USE_CHARACTER}
+
+    /**
+     * The requests the current player has to answer
+     */
+    public enum Prompt {WIZARD_AND_TOWER_COLOR, ASSISTANT, MOVE_STUDENT, MOTHER_NATURE, CLOUD, CHARACTER_COLOR, CHARACTER_ISLAND, CHARACTER_SWAP}
 }
@@ -91,13 +91,11 @@ public class WinHandler implements WinObserver {
     }
 
     /**
-     * Extract a random player that win the match
+     * Extract a random player that win the match, with the generator of the game
      *
      * @param profWinners the players that have even the same number of professors
      */
     private void randomWinner(List<String> profWinners) {
-        List<String> copy = new ArrayList<>(profWinners);
-        Collections.shuffle(copy);
-        controller.handleWin(copy.get(0));
+        controller.handleWin(profWinners.get(model.getRandom().nextInt(profWinners.size())));
     }
 }
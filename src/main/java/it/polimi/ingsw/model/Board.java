@@ -4,14 +4,13 @@ import it.polimi.ingsw.constants.Constants;
 import it.polimi.ingsw.model.influencecalculator.InfluenceStrategy;
 import it.polimi.ingsw.model.influencecalculator.StandardStrategy;
 import it.polimi.ingsw.model.place.Island;
+import it.polimi.ingsw.model.place.ShortIsland;
 import it.polimi.ingsw.model.player.Player;
 import it.polimi.ingsw.model.player.TowerColor;
 import it.polimi.ingsw.observer.WinObservable;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 /**
  * This class represents the Board with the islands inside
@@ -21,6 +20,7 @@ public class Board extends WinObservable {
     private final List<Island> islands;
     private int motherNaturePos;
     private InfluenceStrategy influenceStrategy;
+    private ShortBoard snapshot;
 
     /**
      * Initiate the board with 12 Islands, set Strategy at standard and motherNature
@@ -48,61 +48,100 @@ public class Board extends WinObservable {
 
 
     /**
-     * Used to calculate if some adjacent islands as the same tower.
+     * Used to calculate if some adjacent islands as the same tower. The whole ring is checked.
      */
     public void adjacencyUpdate() {
         int i = 0;
-        while (i < islands.size()) {
-            if (i == islands.size() - 1) {
-                if (islands.get(i).getTower() != null && islands.get(i).getTower().equals(islands.get(0).getTower())) {
-                    islands.get(0).add(islands.get(i).getStudents());
-                    islands.get(0).upgradeDimension(islands.get(i).getDimension());
-                    islands.get(0).upgradeBanTiles(islands.get(i).getBanTiles());
-                    if (motherNaturePos == islands.size() - 1) motherNaturePos = 0;
-                    islands.remove(i);
-                }
-            } else {
-                if (islands.get(i).getTower() != null && islands.get(i).getTower().equals(islands.get(i + 1).getTower())) {
-                    islands.get(i).add(islands.get(i + 1).getStudents());
-                    islands.get(i).upgradeDimension(islands.get(i + 1).getDimension());
-                    islands.get(i).upgradeBanTiles(islands.get(i + 1).getBanTiles());
-                    if (motherNaturePos == i + 1) motherNaturePos = i;
-                    islands.remove(i + 1);
-                    i--;
-                }
-            }
-            i++;
+        while (islands.size() > 1 && i < islands.size()) {
+            if (mergeIfSameTower(i, next(i)) < 0) i++;
+        }
+        notifyObserver(obs -> obs.updateBoardUsage(islands.size()));
+    }
+
+    /**
+     * Merge a conquered island with its neighbours if they have the same tower. Only the two neighbours are checked:
+     * the other adjacent islands can't have the same tower, otherwise they would have been merged before.
+     *
+     * @param conquered the island whose tower has just changed
+     */
+    public void adjacencyUpdate(Island conquered) {
+        int index = islands.indexOf(conquered);
+        if (index >= 0) {
+            int merged = mergeIfSameTower(index, next(index));
+            if (merged >= 0) index = merged;
+            mergeIfSameTower(previous(index), index);
         }
         notifyObserver(obs -> obs.updateBoardUsage(islands.size()));
     }
 
+    private int next(int index) {
+        return index == islands.size() - 1 ? 0 : index + 1;
+    }
+
+    private int previous(int index) {
+        return index == 0 ? islands.size() - 1 : index - 1;
+    }
+
+    /**
+     * Merge two adjacent islands if they have the same tower. The island with the lower index absorbs the other one,
+     * so the islands before it keep their index. Mother nature stays on the island she was on, or on the merged one.
+     *
+     * @param first  the index of an island
+     * @param second the index of the island after it in the ring
+     * @return the index of the merged island, -1 if the islands have not been merged
+     */
+    private int mergeIfSameTower(int first, int second) {
+        if (first == second) return -1;
+        Island a = islands.get(first);
+        Island b = islands.get(second);
+        if (a.getTower() == null || a.getTower() != b.getTower()) return -1;
+        int survivor = Math.min(first, second);
+        int removed = Math.max(first, second);
+        Island kept = islands.get(survivor);
+        Island merged = islands.get(removed);
+        kept.add(merged.getStudents());
+        kept.upgradeDimension(merged.getDimension());
+        kept.upgradeBanTiles(merged.getBanTiles());
+        islands.remove(removed);
+        if (motherNaturePos == removed) motherNaturePos = survivor;
+        else if (motherNaturePos > removed) motherNaturePos--;
+        return survivor;
+    }
+
     /**
      * Move mother nature, trigger influence calc on island where she stops
      *
      * @param steps to move mother nature
      */
     public void moveMotherNature(int steps) {
-        int index = motherNaturePos;
-        if ((index + steps) > islands.size() - 1) {
-            motherNaturePos = index + steps - islands.size();
-        } else {
-            motherNaturePos = index + steps;
-        }
+        motherNaturePos = (motherNaturePos + steps) % islands.size(); //the steps can be more than the islands left
     }
 
     /**
-     * Calculate influence on a given island
+     * Calculate influence on a given island. The island is conquered only by the player with the highest score:
+     * in case of a tie nothing changes.
      *
      * @param island  on which to calc influence
      * @param players players in game
      * @return the TowerColor of the winner if present, null otherwise
      */
     public TowerColor calculateInfluence(Island island, List<Player> players) {
-        Map<Player, Integer> scores = influenceStrategy.getScores(island, players);
-        List<Player> winners = getWinners(scores);
-        TowerColor winner = island.conquerIsland(winners, players);
+        Player best = null;
+        int bestScore = Integer.MIN_VALUE;
+        boolean tie = false;
+        for (Player player : players) {
+            int score = influenceStrategy.getScore(island, player);
+            if (score > bestScore) {
+                best = player;
+                bestScore = score;
+                tie = false;
+            } else if (score == bestScore)
+                tie = true;
+        }
+        if (best == null || tie) return null;
+        TowerColor winner = island.conquerIsland(best, players);
         if (winner != null) {
-            adjacencyUpdate();
+            adjacencyUpdate(island);
             notifyObserver(obs -> obs.updateTowerPlaced(winner));
         }
         return winner;
@@ -118,22 +157,6 @@ public class Board extends WinObservable {
         return calculateInfluence(islands.get(motherNaturePos), players);
     }
 
-    /**
-     * private to calculate the winners from the scores
-     *
-     * @param scores for each player
-     * @return the player or players with the highest points
-     */
-
-    private List<Player> getWinners(Map<Player, Integer> scores) {
-        int winnerValue = (Collections.max(scores.values()));
-        List<Player> winners = new ArrayList<>();
-        for (Map.Entry<Player, Integer> entry : scores.entrySet())
-            if (entry.getValue().equals(winnerValue))
-                winners.add(entry.getKey());
-        return winners;
-    }
-
     public int numberOfIslands() {
         return islands.size();
     }
@@ -163,6 +186,23 @@ public class Board extends WinObservable {
         return influenceStrategy;
     }
 
+    /**
+     * @return an immutable copy of the board that shares the unchanged islands with the previous copy,
+     * the same object until the board changes
+     */
+    public ShortBoard toShort() {
+        List<ShortIsland> previous = snapshot == null ? null : snapshot.getIslands();
+        boolean changed = previous == null || previous.size() != islands.size() || snapshot.getMotherNaturePos() != motherNaturePos;
+        ShortIsland[] current = new ShortIsland[islands.size()];
+        for (int i = 0; i < current.length; i++) {
+            current[i] = islands.get(i).toShort();
+            if (!changed && previous.get(i) != current[i]) changed = true;
+        }
+        if (changed)
+            snapshot = new ShortBoard(List.of(current), motherNaturePos);
+        return snapshot;
+    }
+
     /**
      * Return List of islands
      *
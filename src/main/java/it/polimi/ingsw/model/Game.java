@@ -14,13 +14,21 @@ import it.polimi.ingsw.utility.Pair;
 import it.polimi.ingsw.utility.character.CharactersDeck;
 import it.polimi.ingsw.utility.gamelimit.GameLimit;
 import it.polimi.ingsw.utility.gamelimit.GameLimitData;
+import it.polimi.ingsw.utility.events.SnapshotEvent;
+import it.polimi.ingsw.utility.metrics.LatencyHistogram;
+import it.polimi.ingsw.utility.metrics.MetricsRegistry;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * This class represents Eriantys game
  */
 public class Game extends Observable {
+    /**
+     * The time to build a snapshot of the model and its delta
+     */
+    private static final LatencyHistogram SNAPSHOT_TIME = MetricsRegistry.GLOBAL.histogram("model.snapshot");
     private final List<Player> players;
     private final List<ShortPlayer> shortPlayers;
     private final Board board;
@@ -29,25 +37,40 @@ public class Game extends Observable {
     private final Bank bank;
     private final List<CharacterCard> characterInUse;
     private final List<Pair<String, Assistant>> playedAssistantMap;
+    private final RandomGenerator random;
     private CloudManager clouds;
     private Player currentPlayer;
     private GameLimitData gameLimitData;
     private boolean expertMode;
     private boolean alreadyPlayedACharacter;
     private int stepsIncrement;
+    private ShortModel lastModel;
+    private boolean deferUpdates;
+    private boolean modelChanged;
 
     /**
      * The class that represents Eriantys game
      */
     public Game() {
+        this(new Random());
+    }
+
+    /**
+     * The class that represents Eriantys game, all its random choices are made with the given generator: two games
+     * created with generators in the same state and receiving the same moves evolve in the same way.
+     *
+     * @param random the source of randomness of the match
+     */
+    public Game(RandomGenerator random) {
+        this.random = random;
         this.players = new ArrayList<>();
         this.shortPlayers = new ArrayList<>();
         this.board = new Board();
-        this.sack = new Sack();
+        this.sack = new Sack(random);
         this.playedAssistantMap = new ArrayList<>();
         this.bank = new Bank();
         this.hallManager = new HallManager(bank);
-        this.characterInUse = CharactersDeck.extractCharacterInUse();
+        this.characterInUse = CharactersDeck.extractCharacterInUse(random);
     }
 
     /**
@@ -76,7 +99,7 @@ public class Game extends Observable {
             player.initialEntranceFill(sack.extractListOfPawns(gameLimitData.getMaxEntrance()));
         if (expertMode)
             characterInUse.forEach(character -> character.fill(sack));
-        notifyObserver(new ModelUpdateNotification(new ShortModel(this, expertMode)));
+        notifyModelUpdate();
     }
 
     /**
@@ -155,7 +178,7 @@ public class Game extends Observable {
         bank.pay(currentPlayer, cost);
         if (!character.hasCoinOn()) character.setCoinOn(true);
         character.fill(sack);
-        notifyObserver(new ModelUpdateNotification(new ShortModel(this, expertMode)));
+        notifyModelUpdate();
     }
 
     /**
@@ -183,7 +206,7 @@ public class Game extends Observable {
                 board.getMotherNatureIsland().removeBanTiles();
             } else
                 board.calculateInfluence(players);
-            notifyObserver(new ModelUpdateNotification(new ShortModel(this, expertMode)));
+            notifyModelUpdate();
             return true;
         } else return false;
     }
@@ -198,7 +221,7 @@ public class Game extends Observable {
         Cloud cloudChosen = clouds.getSpecificCloud(cloud);
         if (cloudChosen != null) {
             boolean check = currentPlayer.addPawnsFromCloud(cloudChosen);
-            notifyObserver(new ModelUpdateNotification(new ShortModel(this, expertMode)));
+            notifyModelUpdate();
             return check;
         }
         return false;
@@ -210,7 +233,7 @@ public class Game extends Observable {
     public void fillClouds() {
         clouds.fillClouds(sack);
 
-        notifyObserver(new ModelUpdateNotification(new ShortModel(this, expertMode)));
+        notifyModelUpdate();
     }
 
     /**
@@ -219,7 +242,7 @@ public class Game extends Observable {
     public void playAssistant(Assistant assistant) {
         currentPlayer.playAssistant(assistant);
         playedAssistantMap.add(new Pair<>(currentPlayer.getPlayerName(), assistant));
-        notifyObserver(new ModelUpdateNotification(new ShortModel(this, expertMode)));
+        notifyModelUpdate();
     }
 
     /**
@@ -229,7 +252,7 @@ public class Game extends Observable {
      */
     public void moveFromEntranceToHall(PawnColor pawnColor) {
         currentPlayer.moveFromEntranceToHall(pawnColor);
-        notifyObserver(new ModelUpdateNotification(new ShortModel(this, expertMode)));
+        notifyModelUpdate();
     }
 
     /**
@@ -240,7 +263,72 @@ public class Game extends Observable {
      */
     public void moveFromEntranceToIsland(PawnColor pawnColor, int island) {
         currentPlayer.moveFromEntranceToIsland(new Pawns(pawnColor), board.getIslands().get(island));
-        notifyObserver(new ModelUpdateNotification(new ShortModel(this, expertMode)));
+        notifyModelUpdate();
+    }
+
+    /**
+     * Signal that the game has changed. The observers are notified immediately, unless the updates are deferred: in
+     * that case the snapshot is built only by the next {@link #flushModelUpdate()}, so many changes in a row cost a
+     * single snapshot.
+     */
+    public void notifyModelUpdate() {
+        modelChanged = true;
+        if (!deferUpdates) flushModelUpdate();
+    }
+
+    /**
+     * Notify the observers with the changes since the last update, if there are any. The first update of the game is
+     * a full snapshot, then only deltas are sent: each one has a new version and is based on the previous one.
+     */
+    public void flushModelUpdate() {
+        if (!modelChanged) return;
+        modelChanged = false;
+        SnapshotEvent event = new SnapshotEvent();
+        event.begin();
+        long start = System.nanoTime();
+        ShortModel snapshot = new ShortModel(this, expertMode);
+        if (lastModel == null) {
+            snapshot.setVersion(1);
+            lastModel = snapshot;
+            SNAPSHOT_TIME.record(System.nanoTime() - start);
+            commit(event, snapshot, true);
+            notifyObserver(new ModelUpdateNotification(snapshot));
+            return;
+        }
+        snapshot.setVersion(lastModel.getVersion() + 1);
+        ShortModel delta = snapshot.diff(lastModel);
+        SNAPSHOT_TIME.record(System.nanoTime() - start);
+        boolean empty = delta.isEmptyDelta(lastModel);
+        commit(event, snapshot, !empty);
+        if (empty) return;
+        lastModel = snapshot;
+        notifyObserver(new ModelUpdateNotification(delta));
+    }
+
+    private static void commit(SnapshotEvent event, ShortModel snapshot, boolean sent) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.version = snapshot.getVersion();
+            event.sent = sent;
+            event.commit();
+        }
+    }
+
+    /**
+     * Defer the model updates until {@link #flushModelUpdate()} is called, instead of sending one for each change
+     *
+     * @param deferUpdates true to defer the updates, false to send them immediately
+     */
+    public void setDeferUpdates(boolean deferUpdates) {
+        this.deferUpdates = deferUpdates;
+        if (!deferUpdates) flushModelUpdate();
+    }
+
+    /**
+     * @return the full snapshot of the last update sent to the observers, {@code null} if the game hasn't started yet
+     */
+    public ShortModel getLastModel() {
+        return lastModel;
     }
 
     public int numOfPlayer() {
@@ -314,6 +402,13 @@ public class Game extends Observable {
         return players;
     }
 
+    /**
+     * @return the source of randomness of the match, used by the controller for its random choices too
+     */
+    public RandomGenerator getRandom() {
+        return random;
+    }
+
     /**
      * @return the board of the game
      */
@@ -7,20 +7,30 @@ import it.polimi.ingsw.model.place.Island;
 import it.polimi.ingsw.observer.WinObservable;
 
 import java.util.Random;
-import java.util.stream.IntStream;
+import java.util.random.RandomGenerator;
 
 /**
  * This class represents the Sack from where {@link Pawns} are extracted casually.
  */
 public class Sack extends WinObservable {
+    private static final PawnColor[] COLORS = PawnColor.values();
     private final Pawns sackPawns;
-    private final Random random;
+    private final RandomGenerator random;
 
     /**
      * Constructs a new Sack that has a {@link Pawns} of students, every {@link PawnColor} is initialized at {@code 0}.
      */
     public Sack() {
-        random = new Random();
+        this(new Random());
+    }
+
+    /**
+     * Constructs a new empty Sack that draws the students with the given generator, so that the extractions can be repeated.
+     *
+     * @param random the source of randomness of the extractions
+     */
+    public Sack(RandomGenerator random) {
+        this.random = random;
         this.sackPawns = new Pawns();
     }
 
@@ -56,17 +66,76 @@ public class Sack extends WinObservable {
     }
 
     /**
-     * This method extract casually a group of pawns from Sack.
+     * This method extract casually a group of pawns from Sack. If the Sack has fewer pawns than requested, all the remaining pawns are extracted.
      *
      * @param size number of pawns to extract.
      * @return a group of pawns.
      */
     public Pawns extractListOfPawns(int size) {
+        return extract(size);
+    }
+
+    /**
+     * This method extract casually a group of pawns from Sack in a single pass, and notifies the observers once.
+     * The result has the same distribution of {@code size} extractions of a single pawn: the number of pawns of each
+     * color is drawn from the pawns left after the previous colors (a multivariate hypergeometric sample).
+     *
+     * @param size number of pawns to extract, if the Sack has fewer pawns all of them are extracted.
+     * @return a group of pawns.
+     */
+    public Pawns extract(int size) {
         Pawns extracted = new Pawns();
-        IntStream.range(0, size).mapToObj(i -> extract()).forEach(extracted::addColor);
+        int left = sackPawns.totalElements();
+        int toDraw = Math.min(size, left);
+        for (int i = 0; i < COLORS.length && toDraw > 0; i++) {
+            int ofColor = sackPawns.getFromColor(COLORS[i]);
+            int drawn = i == COLORS.length - 1 ? toDraw : hypergeometric(left, ofColor, toDraw);
+            extracted.addColor(COLORS[i], drawn);
+            left -= ofColor;
+            toDraw -= drawn;
+        }
+        sackPawns.removePawns(extracted);
+        notifyObserver(obs -> obs.updateSackUsage(sackPawns.totalElements()));
         return extracted;
     }
 
+    /**
+     * Count how many pawns of a color are drawn, without replacement, from a population. The count is sampled by
+     * inversion with a single random number.
+     *
+     * @param population the number of pawns
+     * @param ofColor    the number of pawns of the color
+     * @param draws      the number of drawn pawns
+     * @return the number of drawn pawns of the color
+     */
+    private int hypergeometric(int population, int ofColor, int draws) {
+        if (ofColor == 0 || draws == 0) return 0;
+        if (ofColor == population) return draws;
+        if (draws == population) return ofColor;
+        if (2 * draws > population) //the pawns left in the sack are fewer than the drawn ones
+            return ofColor - hypergeometric(population, ofColor, population - draws);
+        if (ofColor > population - draws) //count the pawns of the other colors, so that zero is a possible result
+            return draws - hypergeometric(population, population - ofColor, draws);
+        int others = population - ofColor;
+        double favourable = 1;
+        double possible = 1;
+        for (int i = 0; i < draws; i++) {
+            favourable *= others - i;
+            possible *= population - i;
+        }
+        double probability = favourable / possible; //probability of drawing no pawn of the color
+        double target = random.nextDouble();
+        double cumulative = probability;
+        int drawn = 0;
+        int maxDrawn = Math.min(draws, ofColor);
+        while (target >= cumulative && drawn < maxDrawn) {
+            probability *= (double) (ofColor - drawn) * (draws - drawn) / ((drawn + 1) * (double) (others - draws + drawn + 1));
+            drawn++;
+            cumulative += probability;
+        }
+        return drawn;
+    }
+
     /**
      * This method says how many pawns are in the Sack.
      *
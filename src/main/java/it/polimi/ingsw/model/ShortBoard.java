@@ -21,6 +21,11 @@ public class ShortBoard implements Serializable {
         this.motherNaturePos = board.getMotherNaturePos();
     }
 
+    public ShortBoard(List<ShortIsland> islands, int motherNaturePos) {
+        this.islands = islands;
+        this.motherNaturePos = motherNaturePos;
+    }
+
     public List<ShortIsland> getIslands() {
         return islands;
     }
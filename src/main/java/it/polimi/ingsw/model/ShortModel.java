@@ -1,8 +1,11 @@
 package it.polimi.ingsw.model;
 
+import it.polimi.ingsw.model.character.CharacterCard;
 import it.polimi.ingsw.model.character.ShortCharacter;
+import it.polimi.ingsw.model.clouds.Cloud;
 import it.polimi.ingsw.model.clouds.ShortCloud;
 import it.polimi.ingsw.model.pawns.PawnColor;
+import it.polimi.ingsw.model.place.ShortIsland;
 import it.polimi.ingsw.model.place.ShortSchool;
 import it.polimi.ingsw.model.player.Assistant;
 import it.polimi.ingsw.model.player.ShortPlayer;
@@ -11,13 +14,17 @@ import it.polimi.ingsw.model.player.Wizard;
 
 import java.io.Serial;
 import java.io.Serializable;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 
 /**
  * This class represents a shorted version of the model that can be sent to the clients via network.
+ * <p>
+ * A model is either a full snapshot or a delta. A delta contains only the parts changed since its base version: the
+ * unchanged maps, lists and board are {@code null}, and so are the unchanged elements of the lists that didn't change
+ * size. A delta can be applied only on top of the model with its base version, see {@link #update(ShortModel)}.
+ * <p>
+ * The schools, islands, clouds and characters of a snapshot are immutable and are shared with the previous snapshot
+ * when they didn't change, so building a snapshot only copies the changed parts of the game.
  */
 public class ShortModel implements Serializable {
     @Serial
@@ -34,24 +41,42 @@ public class ShortModel implements Serializable {
     private List<PawnColor> pawnsAvailable;
     private List<ShortCharacter> characters;
     private int studentsInSack;
+    private boolean full;
+    private int baseVersion;
+    private int version;
 
     public ShortModel(Game game, boolean expertMode) {
-        this.clouds = game.getClouds().stream().map(ShortCloud::new).toList();
+        this.full = true;
+        this.clouds = game.getClouds().stream().map(Cloud::toShort).toList();
         this.schoolMap = new HashMap<>();
         this.lastPlayedAssistantMap = game.assistantMap();
 
-        game.getPlayers().forEach(p -> schoolMap.put(new ShortPlayer(p), new ShortSchool(p.getSchool())));
+        game.getPlayers().forEach(p -> schoolMap.put(p.toShort(), p.getSchool().toShort()));
 
-        this.board = new ShortBoard(game.getBoard());
+        this.board = game.getBoard().toShort();
         this.studentsInSack = game.getSack().getNumberOfPawns();
 
         if (expertMode) {
-            this.characters = game.getCharacterInUse().stream().map(ShortCharacter::new).toList();
+            this.characters = game.getCharacterInUse().stream().map(CharacterCard::toShort).toList();
             this.moneyMap = new HashMap<>();
             game.getPlayers().forEach(p -> moneyMap.put(p.getPlayerName(), game.getBank().getCashByPlayer(p)));
         }
     }
 
+    public ShortModel(boolean full, int baseVersion, int version, Map<ShortPlayer, ShortSchool> schoolMap, Map<String, Integer> moneyMap,
+                      Map<String, Assistant> lastPlayedAssistantMap, List<ShortCloud> clouds, ShortBoard board, List<ShortCharacter> characters, int studentsInSack) {
+        this.full = full;
+        this.baseVersion = baseVersion;
+        this.version = version;
+        this.schoolMap = schoolMap;
+        this.moneyMap = moneyMap;
+        this.lastPlayedAssistantMap = lastPlayedAssistantMap;
+        this.clouds = clouds;
+        this.board = board;
+        this.characters = characters;
+        this.studentsInSack = studentsInSack;
+    }
+
     public ShortModel() {
         this.schoolMap = new HashMap<>();
     }
@@ -125,17 +150,145 @@ public class ShortModel implements Serializable {
     }
 
     /**
-     * Update the short model with the given info
+     * @return true if this is a full snapshot, false if it is a delta
+     */
+    public boolean isFull() {
+        return full;
+    }
+
+    /**
+     * @return the version a delta has to be applied on
+     */
+    public int getBaseVersion() {
+        return baseVersion;
+    }
+
+    /**
+     * @return the version of the model
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    void setVersion(int version) {
+        this.version = version;
+    }
+
+    /**
+     * @return a shallow copy of this model, that can be updated without changing this one
+     */
+    public ShortModel copy() {
+        ShortModel copy = new ShortModel(full, baseVersion, version, schoolMap, moneyMap, lastPlayedAssistantMap, clouds, board, characters, studentsInSack);
+        copy.wizardsAvailable = wizardsAvailable;
+        copy.colorsAvailable = colorsAvailable;
+        copy.playableAssistant = playableAssistant;
+        copy.pawnsAvailable = pawnsAvailable;
+        return copy;
+    }
+
+    /**
+     * Build the delta that turns the previous snapshot into this one
      *
-     * @param model the delta shorted model
+     * @param previous the last snapshot sent to the clients
+     * @return the delta from the previous snapshot to this one
      */
-    public void update(ShortModel model) {
-        this.characters = model.characters;
-        this.board = model.board;
-        this.schoolMap = model.schoolMap;
-        this.clouds = model.clouds;
-        this.moneyMap = model.moneyMap;
+    public ShortModel diff(ShortModel previous) {
+        ShortBoard boardDelta = null;
+        if (board != null) {
+            List<ShortIsland> islands = changedElements(previous.board == null ? null : previous.board.getIslands(), board.getIslands());
+            if (islands != null || previous.board.getMotherNaturePos() != board.getMotherNaturePos())
+                boardDelta = new ShortBoard(islands != null ? islands : Collections.nCopies(board.getIslands().size(), null), board.getMotherNaturePos());
+        }
+        ShortModel delta = new ShortModel(false, previous.version, version, changedEntries(previous.schoolMap, schoolMap),
+                changedEntries(previous.moneyMap, moneyMap),
+                Objects.equals(previous.lastPlayedAssistantMap, lastPlayedAssistantMap) ? null : lastPlayedAssistantMap,
+                changedElements(previous.clouds, clouds), boardDelta, changedElements(previous.characters, characters), studentsInSack);
+        return delta;
+    }
+
+    /**
+     * @param previous the snapshot the delta has been built on
+     * @return true if this delta doesn't change anything in the previous snapshot
+     */
+    public boolean isEmptyDelta(ShortModel previous) {
+        return !full && schoolMap == null && moneyMap == null && lastPlayedAssistantMap == null && clouds == null
+                && board == null && characters == null && studentsInSack == previous.studentsInSack;
+    }
+
+    /**
+     * Update the short model with the given info. A full snapshot replaces everything, a delta is merged only if it is
+     * based on the current version of this model. Merging two deltas gives the delta from the base of the first one
+     * to the version of the second one.
+     *
+     * @param model the full or delta shorted model
+     * @return true if the model has been updated, false if the delta is based on a different version
+     */
+    public boolean update(ShortModel model) {
+        if (model.full) {
+            this.characters = model.characters;
+            this.board = model.board;
+            this.schoolMap = model.schoolMap;
+            this.clouds = model.clouds;
+            this.moneyMap = model.moneyMap;
+            this.lastPlayedAssistantMap = model.lastPlayedAssistantMap;
+            this.full = true;
+            this.baseVersion = model.baseVersion;
+        } else {
+            if (model.baseVersion != version) return false;
+            this.characters = mergeElements(characters, model.characters);
+            this.schoolMap = mergeEntries(schoolMap, model.schoolMap);
+            this.clouds = mergeElements(clouds, model.clouds);
+            this.moneyMap = mergeEntries(moneyMap, model.moneyMap);
+            if (model.lastPlayedAssistantMap != null) this.lastPlayedAssistantMap = model.lastPlayedAssistantMap;
+            if (model.board != null)
+                this.board = new ShortBoard(mergeElements(board == null ? null : board.getIslands(), model.board.getIslands()), model.board.getMotherNaturePos());
+        }
         this.studentsInSack = model.studentsInSack;
-        this.lastPlayedAssistantMap = model.lastPlayedAssistantMap;
+        this.version = model.version;
+        return true;
+    }
+
+    /**
+     * @return the entries of current that are not in previous, null if there are none. Removed keys are not tracked.
+     */
+    private static <K, V> Map<K, V> changedEntries(Map<K, V> previous, Map<K, V> current) {
+        if (previous == null || current == null) return current;
+        Map<K, V> changed = new HashMap<>();
+        current.forEach((key, value) -> {
+            if (!value.equals(previous.get(key))) changed.put(key, value);
+        });
+        return changed.isEmpty() ? null : changed;
+    }
+
+    private static <K, V> Map<K, V> mergeEntries(Map<K, V> current, Map<K, V> changed) {
+        if (changed == null) return current;
+        if (current == null) return changed;
+        Map<K, V> merged = new HashMap<>(current);
+        merged.putAll(changed);
+        return merged;
+    }
+
+    /**
+     * @return the elements of current that changed (null where unchanged), the whole list if its size changed or null if nothing changed
+     */
+    private static <T> List<T> changedElements(List<T> previous, List<T> current) {
+        if (previous == null || current == null || previous.size() != current.size()) return current;
+        List<T> changed = new ArrayList<>(current.size());
+        boolean any = false;
+        for (int i = 0; i < current.size(); i++) {
+            boolean same = current.get(i).equals(previous.get(i));
+            changed.add(same ? null : current.get(i));
+            any |= !same;
+        }
+        return any ? changed : null;
+    }
+
+    private static <T> List<T> mergeElements(List<T> current, List<T> changed) {
+        if (changed == null) return current;
+        if (current == null || current.size() != changed.size()) return changed;
+        List<T> merged = new ArrayList<>(current.size());
+        for (int i = 0; i < current.size(); i++)
+            merged.add(changed.get(i) == null ? current.get(i) : changed.get(i));
+        return merged;
     }
 }
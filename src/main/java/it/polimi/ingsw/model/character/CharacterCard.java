@@ -5,6 +5,7 @@ import it.polimi.ingsw.model.Sack;
 import it.polimi.ingsw.model.character.actiondata.ActionData;
 import it.polimi.ingsw.model.pawns.PawnColor;
 import it.polimi.ingsw.model.pawns.Pawns;
+import it.polimi.ingsw.model.pawns.ShortPawns;
 import it.polimi.ingsw.model.place.Island;
 import it.polimi.ingsw.model.place.Place;
 
@@ -31,6 +32,8 @@ public class CharacterCard implements Place {
     private PawnColor chosenColor;
     private Island chosenIsland;
     private List<PawnColor> chosenSwap = new ArrayList<>();
+    @JsonIgnore
+    private ShortCharacter snapshot;
 
     public CharacterCard() {
     }
@@ -138,6 +141,17 @@ public class CharacterCard implements Place {
         return students;
     }
 
+    /**
+     * @return an immutable copy of the character, the same object until the character changes
+     */
+    public ShortCharacter toShort() {
+        ShortPawns shortStudents = students.toShort();
+        if (snapshot == null || snapshot.getStudentsOn() != shortStudents || snapshot.getCost() != cost
+                || snapshot.hasCoinOn() != coinOn || snapshot.getBanTiles() != numberOfBanTiles)
+            snapshot = new ShortCharacter(name, description, cost, shortStudents, coinOn, numberOfBanTiles);
+        return snapshot;
+    }
+
     public int getNumberOfBanTiles() {
         return numberOfBanTiles;
     }
@@ -4,6 +4,7 @@ import it.polimi.ingsw.model.pawns.ShortPawns;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.Objects;
 
 /**
  * This class represents a shorted version of a character that can be sent to the clients via network.
@@ -28,6 +29,15 @@ public class ShortCharacter implements Serializable {
         this.banTiles = character.getNumberOfBanTiles();
     }
 
+    public ShortCharacter(String name, String description, int cost, ShortPawns studentsOn, boolean coinOn, int banTiles) {
+        this.name = name;
+        this.description = description;
+        this.cost = cost;
+        this.studentsOn = studentsOn;
+        this.coinOn = coinOn;
+        this.banTiles = banTiles;
+    }
+
     public String getName() {
         return name;
     }
@@ -51,4 +61,22 @@ public class ShortCharacter implements Serializable {
     public int getBanTiles() {
         return banTiles;
     }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null || obj.getClass() != this.getClass()) return false;
+        var that = (ShortCharacter) obj;
+        return this.cost == that.cost &&
+                this.coinOn == that.coinOn &&
+                this.banTiles == that.banTiles &&
+                Objects.equals(this.name, that.name) &&
+                Objects.equals(this.description, that.description) &&
+                Objects.equals(this.studentsOn, that.studentsOn);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, description, cost, studentsOn, coinOn, banTiles);
+    }
 }
@@ -2,6 +2,7 @@ package it.polimi.ingsw.model.clouds;
 
 import it.polimi.ingsw.model.pawns.PawnColor;
 import it.polimi.ingsw.model.pawns.Pawns;
+import it.polimi.ingsw.model.pawns.ShortPawns;
 import it.polimi.ingsw.model.place.School;
 import it.polimi.ingsw.model.player.Player;
 
@@ -10,6 +11,7 @@ import it.polimi.ingsw.model.player.Player;
  */
 public class Cloud {
     private Pawns students;
+    private ShortCloud snapshot;
 
     /**
      * Constructs a new Cloud that has a {@link Pawns} of students, every {@link PawnColor} is initialized at {@code 0}.
@@ -39,6 +41,16 @@ public class Cloud {
         return extracted;
     }
 
+    /**
+     * @return an immutable copy of the cloud, the same object until the cloud changes
+     */
+    public ShortCloud toShort() {
+        ShortPawns shortStudents = students.toShort();
+        if (snapshot == null || snapshot.getStudents() != shortStudents)
+            snapshot = new ShortCloud(shortStudents);
+        return snapshot;
+    }
+
     public boolean isEmpty() {
         return students.totalElements() == 0;
     }
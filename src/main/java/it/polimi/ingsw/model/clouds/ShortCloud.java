@@ -4,6 +4,7 @@ import it.polimi.ingsw.model.pawns.ShortPawns;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.Objects;
 
 /**
  * This class represents a shorted version of a cloud that can be sent to the clients via network
@@ -18,6 +19,10 @@ public class ShortCloud implements Serializable {
         this.students = new ShortPawns(cloud.getStudents());
     }
 
+    public ShortCloud(ShortPawns students) {
+        this.students = students;
+    }
+
     public ShortPawns getStudents() {
         return students;
     }
@@ -25,4 +30,16 @@ public class ShortCloud implements Serializable {
     public boolean isEmpty() {
         return students.totalElements() == 0;
     }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null || obj.getClass() != this.getClass()) return false;
+        return Objects.equals(this.students, ((ShortCloud) obj).students);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(students);
+    }
 }
@@ -3,6 +3,7 @@ package it.polimi.ingsw.model.influencecalculator;
 import it.polimi.ingsw.model.place.Island;
 import it.polimi.ingsw.model.player.Player;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -12,11 +13,23 @@ import java.util.Map;
 public interface InfluenceStrategy {
 
     /**
-     * This method is called whenever mother nature stops on an island
+     * This method is called for each player whenever mother nature stops on an island, it doesn't allocate
      *
+     * @param island the island to calc influence on
+     * @param player a player of the game
+     * @return the influence of the player on the island calculated with the appropriate strategy
+     */
+    int getScore(Island island, Player player);
+
+    /**
      * @param island  the island to calc influence on
      * @param players the list of players in the game
      * @return the influence of each player on the island calculated with the appropriate strategy
      */
-    Map<Player, Integer> getScores(Island island, List<Player> players);
+    default Map<Player, Integer> getScores(Island island, List<Player> players) {
+        Map<Player, Integer> scores = new HashMap<>();
+        for (Player player : players)
+            scores.put(player, getScore(island, player));
+        return scores;
+    }
 }
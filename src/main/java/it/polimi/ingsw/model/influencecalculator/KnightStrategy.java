@@ -4,9 +4,6 @@ import it.polimi.ingsw.model.place.Island;
 import it.polimi.ingsw.model.player.Player;
 import it.polimi.ingsw.model.player.TowerColor;
 
-import java.util.List;
-import java.util.Map;
-
 /**
  * The knight strategy gives two bonus points to the player who played the Knight {@link it.polimi.ingsw.model.character.CharacterCard}
  */
@@ -18,13 +15,10 @@ public class KnightStrategy extends StandardStrategy {
     }
 
     @Override
-    public Map<Player, Integer> getScores(Island island, List<Player> players) {
-        Map<Player, Integer> scores = super.getScores(island, players);
-        for (Player player : players) {
-            if (player.getColor() == towerPlus) {
-                scores.put(player, 2 + scores.get(player));
-            }
-        }
-        return scores;
+    public int getScore(Island island, Player player) {
+        int score = super.getScore(island, player);
+        if (player.getColor() == towerPlus)
+            score += 2;
+        return score;
     }
 }
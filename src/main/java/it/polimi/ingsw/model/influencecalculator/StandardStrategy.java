@@ -1,33 +1,29 @@
 package it.polimi.ingsw.model.influencecalculator;
 
 import it.polimi.ingsw.model.pawns.PawnColor;
+import it.polimi.ingsw.model.pawns.Pawns;
 import it.polimi.ingsw.model.place.Island;
 import it.polimi.ingsw.model.player.Player;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
 
 /**
- * StandardStrategy is the default strategy used in the calc of the influence on a given island
+ * StandardStrategy is the default strategy used in the calc of the influence on a given island.
+ * The other strategies are modifiers of its score.
  */
 public class StandardStrategy implements InfluenceStrategy {
+    private static final PawnColor[] COLORS = PawnColor.values();
+
     @Override
-    public Map<Player, Integer> getScores(Island island, List<Player> players) {
-        Map<Player, Integer> scores = new HashMap<>();
-        for (Player player : players) {
-            int value = 0;
-            for (PawnColor pawnColor : PawnColor.values()) {
-                if (player.getSchool().getProfessorTable().getFromColor(pawnColor) == 1) {
-                    value = value + island.getStudents().getFromColor(pawnColor);
-                }
-            }
-            if (island.getTower() != null && island.getTower().equals(player.getColor())) {
-                value = value + island.getDimension();
-            }
-            scores.put(player, value);
+    public int getScore(Island island, Player player) {
+        Pawns professors = player.getSchool().getProfessorTable();
+        Pawns students = island.getStudents();
+        int value = 0;
+        for (PawnColor pawnColor : COLORS) {
+            if (professors.getFromColor(pawnColor) == 1)
+                value += students.getFromColor(pawnColor);
         }
-        return scores;
+        if (island.getTower() != null && island.getTower().equals(player.getColor()))
+            value += island.getDimension();
+        return value;
     }
 }
@@ -2,22 +2,27 @@ package it.polimi.ingsw.model.pawns;
 
 import java.util.*;
 
-import static it.polimi.ingsw.model.pawns.PawnColor.values;
-
 /**
- * This class represents students (and professors) that are used in this game. Pawns is a Map between {@link PawnColor} and the number of students (or professor) in every location.
+ * This class represents students (and professors) that are used in this game. Pawns is a relation between {@link PawnColor} and the number of students (or professor) in every location.
+ * The number of pawns of each color is kept in an array indexed by the ordinal of the color, together with the total
+ * number of pawns, so that no operation allocates memory (except {@link #toList()}).
+ * <p>
+ * Every change increments a modification count, so the immutable copy returned by {@link #toShort()} is built again
+ * only when the pawns have changed.
  */
 public class Pawns {
-    private final Map<PawnColor, Integer> state;
+    private static final PawnColor[] COLORS = PawnColor.values();
+    private final int[] state;
+    private int total;
+    private int modCount;
+    private ShortPawns snapshot;
+    private int snapshotModCount;
 
     /**
      * Constructs a new Pawns and initializes every {@link PawnColor} at {@code 0}.
      */
     public Pawns() {
-        state = new EnumMap<>(PawnColor.class);
-        for (PawnColor pawnColor : PawnColor.values()) {
-            state.put(pawnColor, 0);
-        }
+        state = new int[COLORS.length];
     }
 
     /**
@@ -27,7 +32,8 @@ public class Pawns {
      */
     public Pawns(PawnColor pawnColor) {
         this();
-        state.put(pawnColor, 1);
+        state[pawnColor.ordinal()] = 1;
+        total = 1;
     }
 
     /**
@@ -41,11 +47,12 @@ public class Pawns {
      */
     public Pawns(int green, int red, int yellow, int pink, int blue) {
         this();
-        state.put(PawnColor.GREEN, green);
-        state.put(PawnColor.RED, red);
-        state.put(PawnColor.YELLOW, yellow);
-        state.put(PawnColor.PINK, pink);
-        state.put(PawnColor.BLUE, blue);
+        state[PawnColor.GREEN.ordinal()] = green;
+        state[PawnColor.RED.ordinal()] = red;
+        state[PawnColor.YELLOW.ordinal()] = yellow;
+        state[PawnColor.PINK.ordinal()] = pink;
+        state[PawnColor.BLUE.ordinal()] = blue;
+        total = green + red + yellow + pink + blue;
     }
 
     /**
@@ -55,7 +62,7 @@ public class Pawns {
      * @return number of pawns.
      */
     public int getFromColor(PawnColor color) {
-        return state.get(color);
+        return state[color.ordinal()];
     }
 
     /**
@@ -76,7 +83,9 @@ public class Pawns {
      * @return true if the operation work correctly, false otherwise.
      */
     public boolean addColor(PawnColor color, int numberOfPawn) {
-        state.put(color, state.get(color) + numberOfPawn);
+        state[color.ordinal()] += numberOfPawn;
+        total += numberOfPawn;
+        modCount++;
         return true;
     }
 
@@ -98,8 +107,10 @@ public class Pawns {
      * @return true if the operation work correctly, false otherwise.
      */
     public boolean removeColor(PawnColor color, int numberOfPawn) {
-        if (state.get(color) >= numberOfPawn) {
-            state.put(color, state.get(color) - numberOfPawn);
+        if (state[color.ordinal()] >= numberOfPawn) {
+            state[color.ordinal()] -= numberOfPawn;
+            total -= numberOfPawn;
+            modCount++;
             return true;
         }
         return false;
@@ -112,7 +123,10 @@ public class Pawns {
      * @return true if the operation work correctly, false otherwise.
      */
     public boolean addPawns(Pawns pawns) {
-        Arrays.stream(values()).forEach(pawnColor -> state.put(pawnColor, state.get(pawnColor) + pawns.getFromColor(pawnColor)));
+        for (int i = 0; i < state.length; i++)
+            state[i] += pawns.state[i];
+        total += pawns.total;
+        modCount++;
         return true;
     }
 
@@ -124,7 +138,10 @@ public class Pawns {
      */
     public boolean removePawns(Pawns pawns) {
         if (canBeRemoved(pawns)) {
-            Arrays.stream(values()).forEach(pawnColor -> state.put(pawnColor, state.get(pawnColor) - pawns.getFromColor(pawnColor)));
+            for (int i = 0; i < state.length; i++)
+                state[i] -= pawns.state[i];
+            total -= pawns.total;
+            modCount++;
             return true;
         }
         return false;
@@ -137,8 +154,8 @@ public class Pawns {
      * @return false if the operation is invalid, true otherwise.
      */
     public boolean canBeRemoved(Pawns pawns) {
-        for (PawnColor pawnColor : PawnColor.values())
-            if (getFromColor(pawnColor) < pawns.getFromColor(pawnColor)) return false;
+        for (int i = 0; i < state.length; i++)
+            if (state[i] < pawns.state[i]) return false;
         return true;
     }
 
@@ -148,26 +165,41 @@ public class Pawns {
      * @return number of total elements.
      */
     public int totalElements() {
-        return Arrays.stream(values()).mapToInt(state::get).sum();
+        return total;
     }
 
+    /**
+     * Colors are ordered as in {@link PawnColor}, and each color is repeated as many times as its pawns.
+     *
+     * @param index the position of a pawn
+     * @return the color of the pawn at the given position, the last color if the position is out of range
+     */
     public PawnColor getByIndex(int index) {
         int currentSum = 0;
-        PawnColor lastElement = null;
-        for (Map.Entry<PawnColor, Integer> entry : state.entrySet()) {
-            PawnColor pawnColor = entry.getKey();
-            if (index < currentSum + state.get(pawnColor)) {
-                return pawnColor;
-            }
-            currentSum += state.get(pawnColor);
-            lastElement = pawnColor;
+        for (int i = 0; i < state.length; i++) {
+            currentSum += state[i];
+            if (index < currentSum) return COLORS[i];
         }
-        return lastElement;
+        return COLORS[COLORS.length - 1];
+    }
+
+    /**
+     * @return an immutable copy of the pawns, the same object until the pawns change
+     */
+    public ShortPawns toShort() {
+        if (snapshot == null || snapshotModCount != modCount) {
+            snapshot = new ShortPawns(this);
+            snapshotModCount = modCount;
+        }
+        return snapshot;
     }
 
     @Override
     public String toString() {
-        return state.toString();
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        for (PawnColor pawnColor : COLORS)
+            joiner.add(pawnColor + "=" + state[pawnColor.ordinal()]);
+        return joiner.toString();
     }
 
     @Override
@@ -175,23 +207,21 @@ public class Pawns {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Pawns pawns = (Pawns) o;
-        return Objects.equals(state, pawns.state);
+        return Arrays.equals(state, pawns.state);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(state);
+        return Arrays.hashCode(state);
     }
 
     public List<PawnColor> toList() {
-        List<PawnColor> result = new ArrayList<>();
-        for (PawnColor pawnColor : PawnColor.values()) {
-            for (int i = 0; i < state.get(pawnColor); i++) {
-                result.add(pawnColor);
+        List<PawnColor> result = new ArrayList<>(Math.max(0, total));
+        for (int i = 0; i < state.length; i++) {
+            for (int j = 0; j < state[i]; j++) {
+                result.add(COLORS[i]);
             }
         }
         return result;
     }
 }
-
-
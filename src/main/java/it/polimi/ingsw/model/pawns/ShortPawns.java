@@ -24,6 +24,15 @@ public class ShortPawns implements Serializable {
         }
     }
 
+    public ShortPawns(int green, int red, int yellow, int pink, int blue) {
+        state = new EnumMap<>(PawnColor.class);
+        state.put(PawnColor.GREEN, green);
+        state.put(PawnColor.RED, red);
+        state.put(PawnColor.YELLOW, yellow);
+        state.put(PawnColor.PINK, pink);
+        state.put(PawnColor.BLUE, blue);
+    }
+
     public int getFromColor(PawnColor pawnColor) {
         return state.get(pawnColor);
     }
@@ -38,4 +47,16 @@ public class ShortPawns implements Serializable {
             IntStream.range(0, state.get(pawnColor)).mapToObj(i -> pawnColor).forEach(pawnColorList::add);
         return pawnColorList;
     }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null || obj.getClass() != this.getClass()) return false;
+        return state.equals(((ShortPawns) obj).state);
+    }
+
+    @Override
+    public int hashCode() {
+        return state.hashCode();
+    }
 }
@@ -2,6 +2,7 @@ package it.polimi.ingsw.model.place;
 
 import it.polimi.ingsw.model.pawns.PawnColor;
 import it.polimi.ingsw.model.pawns.Pawns;
+import it.polimi.ingsw.model.pawns.ShortPawns;
 import it.polimi.ingsw.model.player.Player;
 import it.polimi.ingsw.model.player.TowerColor;
 
@@ -15,6 +16,7 @@ public class Island implements Place {
     private int dimension;
     private TowerColor tower;
     private int numOfBanTile;
+    private ShortIsland snapshot;
 
     /**
      * Construct the basic island
@@ -89,15 +91,26 @@ public class Island implements Place {
      */
     public TowerColor conquerIsland(List<Player> winners, List<Player> players) {
         if (winners.size() != 1) return null;
+        return conquerIsland(winners.get(0), players);
+    }
+
+    /**
+     * To conquer the island with the player that has the maximum score during a movement of mother nature
+     *
+     * @param winner  the only player with the maximum score on the island
+     * @param players of the game
+     * @return the towerColor added if island is conquered, otherwise null if nothing changes
+     */
+    public TowerColor conquerIsland(Player winner, List<Player> players) {
         if (this.tower == null) {
-            this.tower = winners.get(0).addTowerToIsland(this.dimension);
+            this.tower = winner.addTowerToIsland(this.dimension);
             return this.tower;
         } else {
-            if (this.tower != (winners.get(0).getColor())) {
+            if (this.tower != (winner.getColor())) {
                 for (Player player : players) {
                     if (this.tower == (player.getColor())) {
                         player.backTowerToPlayer(this.dimension);
-                        this.tower = winners.get(0).addTowerToIsland(this.dimension);
+                        this.tower = winner.addTowerToIsland(this.dimension);
                         return this.tower;
                     }
                 }
@@ -106,6 +119,17 @@ public class Island implements Place {
         return null;
     }
 
+    /**
+     * @return an immutable copy of the island, the same object until the island changes
+     */
+    public ShortIsland toShort() {
+        ShortPawns shortStudents = students.toShort();
+        if (snapshot == null || snapshot.getStudents() != shortStudents || snapshot.getTower() != tower
+                || snapshot.getDimension() != dimension || snapshot.getBanTiles() != numOfBanTile)
+            snapshot = new ShortIsland(shortStudents, tower, dimension, numOfBanTile);
+        return snapshot;
+    }
+
     /**
      * @return dimension of the island
      */
@@ -2,6 +2,7 @@ package it.polimi.ingsw.model.place;
 
 import it.polimi.ingsw.model.pawns.PawnColor;
 import it.polimi.ingsw.model.pawns.Pawns;
+import it.polimi.ingsw.model.pawns.ShortPawns;
 import it.polimi.ingsw.model.player.TowerColor;
 import it.polimi.ingsw.utility.gamelimit.GameLimitData;
 
@@ -14,6 +15,7 @@ public class School {
     private final SchoolPlace profTable;
     private final TowerColor towerColor;
     private int towerNum;
+    private ShortSchool snapshot;
 
     public School(TowerColor towerColor, GameLimitData gameLimitData, HallManager obs) {
         this.entrance = new Entrance(gameLimitData.getMaxEntrance());
@@ -127,6 +129,19 @@ public class School {
         return entrance.remove(pawns);
     }
 
+    /**
+     * @return an immutable copy of the school, the same object until the school changes
+     */
+    public ShortSchool toShort() {
+        ShortPawns shortEntrance = getEntrance().toShort();
+        ShortPawns shortProfTable = getProfessorTable().toShort();
+        ShortPawns shortHall = getHall().toShort();
+        if (snapshot == null || snapshot.getEntrance() != shortEntrance || snapshot.getProfTable() != shortProfTable
+                || snapshot.getHall() != shortHall || snapshot.getNumTower() != towerNum)
+            snapshot = new ShortSchool(shortEntrance, shortProfTable, shortHall, towerNum);
+        return snapshot;
+    }
+
     /**
      * @return towerNum present in this {@link School}
      */
@@ -5,6 +5,7 @@ import it.polimi.ingsw.model.player.TowerColor;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.Objects;
 
 /**
  * This class represents a shorted version of the {@link Island} that can be sent to the clients via network.
@@ -25,6 +26,13 @@ public class ShortIsland implements Serializable {
         banTiles = island.getBanTiles();
     }
 
+    public ShortIsland(ShortPawns students, TowerColor tower, int dimension, int banTiles) {
+        this.students = students;
+        this.tower = tower;
+        this.dimension = dimension;
+        this.banTiles = banTiles;
+    }
+
     public ShortPawns getStudents() {
         return students;
     }
@@ -40,4 +48,20 @@ public class ShortIsland implements Serializable {
     public int getBanTiles() {
         return banTiles;
     }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null || obj.getClass() != this.getClass()) return false;
+        var that = (ShortIsland) obj;
+        return this.dimension == that.dimension &&
+                this.banTiles == that.banTiles &&
+                this.tower == that.tower &&
+                Objects.equals(this.students, that.students);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(students, tower, dimension, banTiles);
+    }
 }
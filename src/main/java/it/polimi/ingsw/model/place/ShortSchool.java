@@ -4,6 +4,7 @@ import it.polimi.ingsw.model.pawns.ShortPawns;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.Objects;
 
 /**
  * This class represents a shorted version of the {@link School} of a player that can be sent to the clients via network
@@ -24,6 +25,13 @@ public class ShortSchool implements Serializable {
         this.numTower = school.getTowerNum();
     }
 
+    public ShortSchool(ShortPawns entrance, ShortPawns profTable, ShortPawns hall, int numTower) {
+        this.entrance = entrance;
+        this.profTable = profTable;
+        this.hall = hall;
+        this.numTower = numTower;
+    }
+
     public ShortPawns getEntrance() {
         return entrance;
     }
@@ -39,4 +47,20 @@ public class ShortSchool implements Serializable {
     public int getNumTower() {
         return numTower;
     }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null || obj.getClass() != this.getClass()) return false;
+        var that = (ShortSchool) obj;
+        return this.numTower == that.numTower &&
+                Objects.equals(this.entrance, that.entrance) &&
+                Objects.equals(this.profTable, that.profTable) &&
+                Objects.equals(this.hall, that.hall);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(entrance, profTable, hall, numTower);
+    }
 }
@@ -24,6 +24,7 @@ public class Player {
     private final Wizard wizard;
     private final School school;
     private Assistant lastPlayedAssistant;
+    private ShortPlayer shortPlayer;
 
     public Player(String name, Wizard wizard, TowerColor towerColor, GameLimitData gameLimitData, HallManager hallManager) {
         this.playerName = name;
@@ -64,6 +65,15 @@ public class Player {
         return school.getTowerColor();
     }
 
+    /**
+     * @return the immutable representation of the player, it never changes
+     */
+    public ShortPlayer toShort() {
+        if (shortPlayer == null)
+            shortPlayer = new ShortPlayer(this);
+        return shortPlayer;
+    }
+
     /**
      * This method return player's Tower number.
      *
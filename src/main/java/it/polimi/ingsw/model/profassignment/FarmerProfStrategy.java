@@ -3,7 +3,6 @@ package it.polimi.ingsw.model.profassignment;
 import it.polimi.ingsw.model.pawns.PawnColor;
 import it.polimi.ingsw.model.player.Player;
 
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -18,10 +17,9 @@ public class FarmerProfStrategy extends StandardProfStrategy {
     }
 
     @Override
-    public List<Player> colorProfessorCheck(List<Player> players, PawnColor pawnColor) {
-        List<Player> winners = super.colorProfessorCheck(players, pawnColor);
-        if (winners.contains(playerTie))
-            return List.of(playerTie);
-        return Collections.emptyList();
+    public Player colorProfessorWinner(List<Player> players, PawnColor pawnColor) {
+        if (players.contains(playerTie) && playerTie.getSchool().getHall().getFromColor(pawnColor) == maxStudents(players, pawnColor))
+            return playerTie;
+        return null;
     }
 }
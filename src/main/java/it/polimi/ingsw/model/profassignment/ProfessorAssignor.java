@@ -30,20 +30,18 @@ public class ProfessorAssignor {
      * @return the player who win the professor
      */
     public Player colorProfessorChecker(PawnColor pawnColor, List<Player> players) {
-        List<Player> winners = professorStrategy.colorProfessorCheck(players, pawnColor);
-        if (winners.size() == 1) {
-            if (profsNotYetAssigned.getFromColor(pawnColor) == 1) {
-                profsNotYetAssigned.removeColor(pawnColor);
-                winners.get(0).getSchool().getProfessorTable().addColor(pawnColor);
-                return winners.get(0);
-            } else {
-                for (Player player : players) {
-                    if (player.getSchool().getProfessorTable().getFromColor(pawnColor) == 1 && !player.equals(winners.get(0))) {
-                        player.getSchool().removeProfessor(pawnColor);
-                        winners.get(0).getSchool().getProfessorTable().addColor(pawnColor);
-                        return winners.get(0);
-                    }
-                }
+        Player winner = professorStrategy.colorProfessorWinner(players, pawnColor);
+        if (winner == null) return null;
+        if (profsNotYetAssigned.getFromColor(pawnColor) == 1) {
+            profsNotYetAssigned.removeColor(pawnColor);
+            winner.getSchool().getProfessorTable().addColor(pawnColor);
+            return winner;
+        }
+        for (Player player : players) {
+            if (player != winner && player.getSchool().getProfessorTable().getFromColor(pawnColor) == 1) {
+                player.getSchool().removeProfessor(pawnColor);
+                winner.getSchool().getProfessorTable().addColor(pawnColor);
+                return winner;
             }
         }
         return null;
@@ -9,5 +9,12 @@ import java.util.List;
  * This interface is used to implement strategy pattern in the assignment of professor
  */
 public interface ProfessorStrategy {
-    List<Player> colorProfessorCheck(List<Player> players, PawnColor pawnColor);
+    /**
+     * This method is called whenever a student is placed in a hall, it doesn't allocate
+     *
+     * @param players   the list of players in game
+     * @param pawnColor the color of the professor
+     * @return the only player that deserves the professor, null in case of a tie
+     */
+    Player colorProfessorWinner(List<Player> players, PawnColor pawnColor);
 }
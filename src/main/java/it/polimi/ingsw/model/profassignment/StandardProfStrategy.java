@@ -3,26 +3,38 @@ package it.polimi.ingsw.model.profassignment;
 import it.polimi.ingsw.model.pawns.PawnColor;
 import it.polimi.ingsw.model.player.Player;
 
-import java.util.*;
+import java.util.List;
 
 /**
- * The Standard Professor Assignment strategy
+ * The Standard Professor Assignment strategy: the player with the most students of the color in the hall
  */
 public class StandardProfStrategy implements ProfessorStrategy {
     @Override
-    public List<Player> colorProfessorCheck(List<Player> players, PawnColor pawnColor) {
-        Map<Player, Integer> scores = new HashMap<>();
+    public Player colorProfessorWinner(List<Player> players, PawnColor pawnColor) {
+        Player winner = null;
+        int winnerValue = Integer.MIN_VALUE;
+        boolean tie = false;
         for (Player player : players) {
             int playerStudents = player.getSchool().getHall().getFromColor(pawnColor);
-            scores.put(player, playerStudents);
+            if (playerStudents > winnerValue) {
+                winner = player;
+                winnerValue = playerStudents;
+                tie = false;
+            } else if (playerStudents == winnerValue)
+                tie = true;
         }
-        int winnerValue = (Collections.max(scores.values()));
-        List<Player> winners = new ArrayList<>();
-        for (Map.Entry<Player, Integer> entry : scores.entrySet()) {
-            if (entry.getValue().equals(winnerValue))
-                winners.add(entry.getKey());
-        }
-        return winners;
+        return tie ? null : winner;
     }
 
+    /**
+     * @param players   the list of players in game
+     * @param pawnColor the color of the professor
+     * @return the maximum number of students of the color in a hall
+     */
+    protected int maxStudents(List<Player> players, PawnColor pawnColor) {
+        int max = Integer.MIN_VALUE;
+        for (Player player : players)
+            max = Math.max(max, player.getSchool().getHall().getFromColor(pawnColor));
+        return max;
+    }
 }
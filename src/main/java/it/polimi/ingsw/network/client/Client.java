@@ -1,13 +1,11 @@
 package it.polimi.ingsw.network.client;
 
 import it.polimi.ingsw.controller.client.ClientController;
+import it.polimi.ingsw.network.communication.codec.FrameCodec;
 import it.polimi.ingsw.network.communication.notification.ErrorMessageNotification;
 import it.polimi.ingsw.network.communication.notification.Notification;
-import it.polimi.ingsw.network.communication.notification.PingNotification;
 
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.*;
 import java.net.Socket;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -23,17 +21,17 @@ import java.util.logging.Logger;
 public class Client extends Thread {
     private static final Logger logger = Logger.getLogger(Client.class.getSimpleName());
     private final ClientController clientController;
-    private final ScheduledExecutorService ping;
+    private final ScheduledExecutorService heartbeat;
     private final Object outLock = new Object();
     private boolean running = true;
     private Socket socket;
-    private ObjectOutputStream out;
-    private ObjectInputStream in;
+    private OutputStream out;
+    private DataInputStream in;
 
     public Client(ClientController clientController) {
         this.clientController = clientController;
         logger.setLevel(Level.SEVERE);
-        ping = new ScheduledThreadPoolExecutor(1);
+        heartbeat = new ScheduledThreadPoolExecutor(1);
     }
 
     /**
@@ -47,9 +45,9 @@ public class Client extends Thread {
         try {
             socket = new Socket(address, port);
             socket.setSoTimeout(6000);
-            out = new ObjectOutputStream(socket.getOutputStream());
-            in = new ObjectInputStream(socket.getInputStream());
-            runPing();
+            out = new BufferedOutputStream(socket.getOutputStream());
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            runHeartbeat();
             return true;
         } catch (IOException e) {
             return false;
@@ -63,10 +61,11 @@ public class Client extends Thread {
     public void run() {
         try {
             while (running) {
-                Notification msg = (Notification) in.readObject();
+                Notification msg = FrameCodec.read(in);
+                if (msg == FrameCodec.HEARTBEAT) continue;
                 clientController.receiveMessage(msg);
             }
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException e) {
             disconnect();
             clientController.onDisconnection();
         }
@@ -80,8 +79,7 @@ public class Client extends Thread {
     public void sendMessage(Notification msg) {
         synchronized (outLock) {
             try {
-                out.writeObject(msg);
-                out.flush();
+                FrameCodec.write(out, msg);
             } catch (IOException e) {
                 logger.severe("Server not reachable!");
                 disconnect();
@@ -95,9 +93,9 @@ public class Client extends Thread {
      */
     public void disconnect() {
         try {
-            if (!socket.isClosed()) {
+            if (socket != null && !socket.isClosed()) {
                 running = false;
-                ping.shutdown();
+                heartbeat.shutdown();
                 socket.close();
             }
         } catch (IOException e) {
@@ -106,9 +104,10 @@ public class Client extends Thread {
     }
 
     /**
-     * Send a ping notification to the server each second so that the server knows it's still alive
+     * Send a heartbeat frame to the server each second so that the server knows it's still alive.
+     * The server sends its heartbeats too, so the read timeout of the socket expires only if the server is gone.
      */
-    public void runPing() {
-        ping.scheduleAtFixedRate(() -> sendMessage(new PingNotification()), 0, 1, TimeUnit.SECONDS);
+    public void runHeartbeat() {
+        heartbeat.scheduleAtFixedRate(() -> sendMessage(FrameCodec.HEARTBEAT), 0, 1, TimeUnit.SECONDS);
     }
 }
@@ -13,15 +13,30 @@ import it.polimi.ingsw.view.View;
 public class ClientSideVisitor implements NotificationVisitor {
     private final ShortModel shortModel;
     private final View view;
+    private final Runnable resync;
 
     public ClientSideVisitor(View view, ShortModel shortModel) {
+        this(view, shortModel, () -> {
+        });
+    }
+
+    /**
+     * @param view       the view to update
+     * @param shortModel the local copy of the model
+     * @param resync     called when a model delta can't be applied, it has to ask the server for a full snapshot
+     */
+    public ClientSideVisitor(View view, ShortModel shortModel, Runnable resync) {
         this.shortModel = shortModel;
         this.view = view;
+        this.resync = resync;
     }
 
     @Override
     public void visit(ModelUpdateNotification msg) {
-        shortModel.update(msg.getModel());
+        if (!shortModel.update(msg.getModel())) {
+            resync.run();
+            return;
+        }
         view.updateScreen();
     }
 
@@ -98,6 +113,11 @@ public class ClientSideVisitor implements NotificationVisitor {
         view.askSwapList(msg.getSwap());
     }
 
+    @Override
+    public void visit(ResyncNotification msg) {
+        //do nothing
+    }
+
     @Override
     public void visit(GenericMessageNotification msg) {
         view.showMessage(msg.getMessage());
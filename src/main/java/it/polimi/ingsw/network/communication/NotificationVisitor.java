@@ -39,4 +39,6 @@ public interface NotificationVisitor {
     void visit(ModelUpdateNotification msg);
 
     void visit(SwapNotification msg);
+
+    void visit(ResyncNotification msg);
 }
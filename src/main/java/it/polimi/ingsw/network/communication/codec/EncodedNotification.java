@@ -0,0 +1,74 @@
+package it.polimi.ingsw.network.communication.codec;
+
+import it.polimi.ingsw.network.communication.NotificationVisitor;
+import it.polimi.ingsw.network.communication.notification.Notification;
+
+import java.io.IOException;
+import java.io.Serial;
+
+/**
+ * A notification sent to many clients at once. It wraps the original notification and keeps its frame, so that the
+ * notification is encoded only once, by the first connection that sends it: the other connections write the same bytes.
+ * The frame must never be modified.
+ */
+public class EncodedNotification extends Notification {
+    @Serial
+    private static final long serialVersionUID = -1458927616092398163L;
+
+    private final Notification notification;
+    private transient volatile byte[] frame;
+
+    private EncodedNotification(Notification notification) {
+        this.notification = notification;
+    }
+
+    /**
+     * @param msg the notification to share between many connections
+     * @return a notification that is encoded at most once
+     */
+    public static EncodedNotification of(Notification msg) {
+        if (msg instanceof EncodedNotification encoded) return encoded;
+        return new EncodedNotification(msg);
+    }
+
+    /**
+     * @param msg a notification, possibly shared
+     * @return the original notification
+     */
+    public static Notification unwrap(Notification msg) {
+        return msg instanceof EncodedNotification encoded ? encoded.notification : msg;
+    }
+
+    /**
+     * @return the complete frame of the notification, shared by all the callers
+     * @throws IOException if the notification cannot be encoded
+     */
+    public byte[] getFrame() throws IOException {
+        byte[] result = frame;
+        if (result == null) {
+            result = FrameCodec.encodeFrame(notification);
+            frame = result;
+        }
+        return result;
+    }
+
+    public Notification getNotification() {
+        return notification;
+    }
+
+    @Override
+    public void accept(NotificationVisitor visitor) {
+        notification.accept(visitor);
+    }
+
+    @Override
+    public void setClientId(String clientId) {
+        notification.setClientId(clientId);
+        frame = null;
+    }
+
+    @Override
+    public String getSenderID() {
+        return notification.getSenderID();
+    }
+}
@@ -0,0 +1,149 @@
+package it.polimi.ingsw.network.communication.codec;
+
+import it.polimi.ingsw.network.communication.NotificationVisitor;
+import it.polimi.ingsw.network.communication.notification.Notification;
+import it.polimi.ingsw.utility.events.MessageDecodeEvent;
+import it.polimi.ingsw.utility.events.MessageEncodeEvent;
+
+import java.io.*;
+
+/**
+ * This class defines how a {@link Notification} travels on the wire. Each notification is sent as a frame made of a
+ * 4 bytes length header followed by the payload, so that the receiver always knows where a message ends even when it
+ * reads from a non-blocking channel. The payload is written by the {@link NotificationCodec}.
+ * <p>
+ * A frame with an empty payload is a heartbeat: it only tells the other side that the connection is alive, so it is
+ * never decoded nor allocated, both {@link #encode(Notification)} and {@link #decode(byte[], int, int)} use the shared
+ * {@link #HEARTBEAT} instance.
+ */
+public class FrameCodec {
+    /**
+     * Size of the length header that precedes each payload
+     */
+    public static final int HEADER_SIZE = Integer.BYTES;
+    /**
+     * Maximum accepted payload size, bigger frames are considered corrupted
+     */
+    public static final int MAX_FRAME_SIZE = 1 << 20;
+    /**
+     * Initial size of the buffer used to encode a frame, enough for every notification but the model updates
+     */
+    private static final int INITIAL_FRAME_SIZE = 64;
+    /**
+     * The notification read when a heartbeat frame arrives, and to be sent to write one
+     */
+    public static final Notification HEARTBEAT = new Heartbeat();
+    private static final byte[] HEARTBEAT_FRAME = new byte[HEADER_SIZE];
+
+    private FrameCodec() {
+        //cannot be instantiated
+    }
+
+    /**
+     * Encode a notification in a complete frame (header and payload). An {@link EncodedNotification} is encoded only
+     * the first time, then its frame is returned: the caller must not modify it.
+     *
+     * @param msg the notification to encode
+     * @return the frame ready to be written on the wire
+     * @throws IOException if the notification cannot be encoded
+     */
+    public static byte[] encode(Notification msg) throws IOException {
+        if (msg == HEARTBEAT) return HEARTBEAT_FRAME;
+        if (msg instanceof EncodedNotification encoded) return encoded.getFrame();
+        return encodeFrame(msg);
+    }
+
+    static byte[] encodeFrame(Notification msg) throws IOException {
+        MessageEncodeEvent event = new MessageEncodeEvent();
+        event.begin();
+        WireWriter frame = new WireWriter(INITIAL_FRAME_SIZE);
+        frame.skip(HEADER_SIZE);
+        NotificationCodec.encode(frame, msg);
+        int size = frame.size() - HEADER_SIZE;
+        if (size > MAX_FRAME_SIZE) throw new IOException("Frame too big: " + size + " bytes");
+        frame.putInt(0, size);
+        byte[] encoded = frame.toByteArray();
+        event.end();
+        if (event.shouldCommit()) {
+            event.type = EncodedNotification.unwrap(msg).getClass();
+            event.size = encoded.length;
+            event.commit();
+        }
+        return encoded;
+    }
+
+    /**
+     * Decode the payload of a frame
+     *
+     * @param payload the buffer containing the payload
+     * @param offset  the position of the payload in the buffer
+     * @param length  the length of the payload
+     * @return the decoded notification, {@link #HEARTBEAT} if the payload is empty
+     * @throws IOException if the payload is not a valid notification
+     */
+    public static Notification decode(byte[] payload, int offset, int length) throws IOException {
+        if (length == 0) return HEARTBEAT;
+        MessageDecodeEvent event = new MessageDecodeEvent();
+        event.begin();
+        Notification msg = NotificationCodec.decode(payload, offset, length);
+        event.end();
+        if (event.shouldCommit()) {
+            event.type = msg.getClass();
+            event.size = length;
+            event.commit();
+        }
+        return msg;
+    }
+
+    /**
+     * Read the length of the next payload and check that it is acceptable
+     *
+     * @param length the value read from the header
+     * @return the same length
+     * @throws IOException if the length is not valid
+     */
+    public static int checkLength(int length) throws IOException {
+        if (length < 0 || length > MAX_FRAME_SIZE) throw new StreamCorruptedException("Invalid frame length: " + length);
+        return length;
+    }
+
+    /**
+     * Write a notification on a blocking stream
+     *
+     * @param out the stream to write to
+     * @param msg the notification to write
+     * @throws IOException if the stream is closed or the notification cannot be encoded
+     */
+    public static void write(OutputStream out, Notification msg) throws IOException {
+        out.write(encode(msg));
+        out.flush();
+    }
+
+    /**
+     * Read a notification from a blocking stream
+     *
+     * @param in the stream to read from
+     * @return the next notification, {@link #HEARTBEAT} if it is a heartbeat frame
+     * @throws IOException if the stream is closed or the frame is corrupted
+     */
+    public static Notification read(DataInputStream in) throws IOException {
+        int length = checkLength(in.readInt());
+        if (length == 0) return HEARTBEAT;
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return decode(payload, 0, payload.length);
+    }
+
+    /**
+     * The heartbeat control frame, it has no payload and it is not handled by any visitor
+     */
+    private static final class Heartbeat extends Notification {
+        @Serial
+        private static final long serialVersionUID = -3468094474153407822L;
+
+        @Override
+        public void accept(NotificationVisitor visitor) {
+            //a heartbeat is consumed by the transport
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package it.polimi.ingsw.network.communication.codec;
+
+import it.polimi.ingsw.model.ShortBoard;
+import it.polimi.ingsw.model.ShortModel;
+import it.polimi.ingsw.model.character.ShortCharacter;
+import it.polimi.ingsw.model.clouds.ShortCloud;
+import it.polimi.ingsw.model.pawns.PawnColor;
+import it.polimi.ingsw.model.pawns.ShortPawns;
+import it.polimi.ingsw.model.place.ShortIsland;
+import it.polimi.ingsw.model.place.ShortSchool;
+import it.polimi.ingsw.model.player.Assistant;
+import it.polimi.ingsw.model.player.ShortPlayer;
+import it.polimi.ingsw.model.player.TowerColor;
+import it.polimi.ingsw.model.player.Wizard;
+import it.polimi.ingsw.network.communication.Target;
+import it.polimi.ingsw.network.communication.notification.*;
+
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.InvalidObjectException;
+import java.io.StreamCorruptedException;
+import java.util.*;
+
+/**
+ * This class defines the binary representation of every {@link Notification}, used as payload of the frames written by
+ * the {@link FrameCodec}. A payload starts with the protocol version and a tag byte identifying the notification,
+ * followed by the sender id and the fields of the notification in a fixed order. No class metadata travels on the wire,
+ * so a payload is a fraction of the size of the Java serialization of the same notification. The unchanged parts of a
+ * model delta are written as a single absence marker.
+ * <p>
+ * When a field is added or its order changes {@link #VERSION} must be incremented: client and server refuse payloads
+ * written with a different version.
+ */
+public class NotificationCodec {
+    /**
+     * Version of the wire protocol
+     */
+    public static final int VERSION = 3;
+
+    public static final int LOGIN = 1;
+    //tag 2 was the ping notification, replaced by the heartbeat frames of the FrameCodec
+    public static final int CHOOSE_GAME_MODE = 3;
+    public static final int NICKNAME_ERROR = 4;
+    public static final int GENERIC_MESSAGE = 5;
+    public static final int ERROR_MESSAGE = 6;
+    public static final int CHOOSE_WIZ_AND_TOWER_COLOR = 7;
+    public static final int CHOOSE_ASSISTANT = 8;
+    public static final int MOVE_STUDENT = 9;
+    public static final int MOVE_MN = 10;
+    public static final int CHOOSE_CLOUD = 11;
+    public static final int CHARACTER = 12;
+    public static final int COLOR = 13;
+    public static final int ISLAND = 14;
+    public static final int SWAP = 15;
+    public static final int WIN = 16;
+    public static final int MODEL_UPDATE = 17;
+    public static final int RESYNC = 18;
+    /**
+     * Number of tags, every tag is lower than this value
+     */
+    public static final int TAG_COUNT = 19;
+
+    private static final PawnColor[] PAWN_COLORS = PawnColor.values();
+    private static final TowerColor[] TOWER_COLORS = TowerColor.values();
+    private static final Wizard[] WIZARDS = Wizard.values();
+    private static final Assistant[] ASSISTANTS = Assistant.values();
+    private static final Target[] TARGETS = Target.values();
+
+    private NotificationCodec() {
+        //cannot be instantiated
+    }
+
+    /**
+     * @param msg a notification
+     * @return the tag that identifies the type of the notification on the wire
+     * @throws InvalidClassException if the notification has no binary representation
+     */
+    public static int tagOf(Notification msg) throws InvalidClassException {
+        msg = EncodedNotification.unwrap(msg);
+        if (msg instanceof LoginNotification) return LOGIN;
+        if (msg instanceof ChooseGameModeNotification) return CHOOSE_GAME_MODE;
+        if (msg instanceof NicknameErrorNotification) return NICKNAME_ERROR;
+        if (msg instanceof GenericMessageNotification) return GENERIC_MESSAGE;
+        if (msg instanceof ErrorMessageNotification) return ERROR_MESSAGE;
+        if (msg instanceof ChooseWizAndTowerColorNotification) return CHOOSE_WIZ_AND_TOWER_COLOR;
+        if (msg instanceof ChooseAssistantNotification) return CHOOSE_ASSISTANT;
+        if (msg instanceof MoveStudentNotification) return MOVE_STUDENT;
+        if (msg instanceof MoveMNNotification) return MOVE_MN;
+        if (msg instanceof ChooseCloudNotification) return CHOOSE_CLOUD;
+        if (msg instanceof CharacterNotification) return CHARACTER;
+        if (msg instanceof ColorNotification) return COLOR;
+        if (msg instanceof IslandNotification) return ISLAND;
+        if (msg instanceof SwapNotification) return SWAP;
+        if (msg instanceof WinNotification) return WIN;
+        if (msg instanceof ModelUpdateNotification) return MODEL_UPDATE;
+        if (msg instanceof ResyncNotification) return RESYNC;
+        throw new InvalidClassException(msg.getClass().getName(), "No binary representation");
+    }
+
+    /**
+     * Write the binary representation of a notification
+     *
+     * @param out the buffer to write to
+     * @param msg the notification to write
+     * @throws IOException if the notification has no binary representation
+     */
+    public static void encode(WireWriter out, Notification msg) throws IOException {
+        msg = EncodedNotification.unwrap(msg);
+        int tag = tagOf(msg);
+        out.writeByte(VERSION);
+        out.writeByte(tag);
+        out.writeString(msg.getSenderID());
+        switch (tag) {
+            case LOGIN -> out.writeString(((LoginNotification) msg).getNickname());
+            case CHOOSE_GAME_MODE -> {
+                ChooseGameModeNotification n = (ChooseGameModeNotification) msg;
+                out.writeInt(n.getNPlayers());
+                out.writeBoolean(n.isExpertGame());
+            }
+            case GENERIC_MESSAGE -> out.writeString(((GenericMessageNotification) msg).getMessage());
+            case ERROR_MESSAGE -> out.writeString(((ErrorMessageNotification) msg).getErrorMessage());
+            case CHOOSE_WIZ_AND_TOWER_COLOR -> {
+                ChooseWizAndTowerColorNotification n = (ChooseWizAndTowerColorNotification) msg;
+                out.writeEnumSet(n.getAvailableWizards());
+                out.writeEnumSet(n.getAvailableColors());
+                out.writeEnum(n.getWizard());
+                out.writeEnum(n.getTowerColor());
+            }
+            case CHOOSE_ASSISTANT -> {
+                ChooseAssistantNotification n = (ChooseAssistantNotification) msg;
+                out.writeEnumSet(n.getPlayableAssistant());
+                out.writeEnum(n.getChosenAssistant());
+            }
+            case MOVE_STUDENT -> {
+                MoveStudentNotification n = (MoveStudentNotification) msg;
+                out.writeEnumList(n.getMovableColor());
+                out.writeEnum(n.getColor());
+                out.writeEnum(n.getTarget());
+                out.writeInt(n.getIsland());
+            }
+            case MOVE_MN -> out.writeInt(((MoveMNNotification) msg).getSteps());
+            case CHOOSE_CLOUD -> {
+                ChooseCloudNotification n = (ChooseCloudNotification) msg;
+                writeClouds(out, n.getAvailableClouds());
+                out.writeInt(n.getChosenCloud());
+            }
+            case CHARACTER -> out.writeInt(((CharacterNotification) msg).getCharacter());
+            case COLOR -> out.writeEnum(((ColorNotification) msg).getChosen());
+            case ISLAND -> out.writeInt(((IslandNotification) msg).getIsland());
+            case SWAP -> {
+                SwapNotification n = (SwapNotification) msg;
+                out.writeEnumList(n.getSwapList());
+                out.writeInt(n.getSwap());
+            }
+            case WIN -> {
+                WinNotification n = (WinNotification) msg;
+                out.writeString(n.getName());
+                out.writeBoolean(n.isWin());
+            }
+            case MODEL_UPDATE -> writeModel(out, ((ModelUpdateNotification) msg).getModel());
+            default -> {
+                //nickname error and resync have no fields
+            }
+        }
+    }
+
+    /**
+     * Read a notification from its binary representation
+     *
+     * @param payload the buffer containing the payload
+     * @param offset  the position of the payload in the buffer
+     * @param length  the length of the payload
+     * @return the decoded notification
+     * @throws IOException if the payload is truncated, corrupted or written with another protocol version
+     */
+    public static Notification decode(byte[] payload, int offset, int length) throws IOException {
+        WireReader in = new WireReader(payload, offset, length);
+        int version = in.readByte();
+        if (version != VERSION) throw new InvalidClassException("Unsupported protocol version " + version);
+        int tag = in.readByte();
+        String senderID = in.readString();
+        Notification msg = switch (tag) {
+            case LOGIN -> new LoginNotification(in.readString());
+            case CHOOSE_GAME_MODE -> new ChooseGameModeNotification(in.readInt(), in.readBoolean());
+            case NICKNAME_ERROR -> new NicknameErrorNotification();
+            case GENERIC_MESSAGE -> new GenericMessageNotification(in.readString());
+            case ERROR_MESSAGE -> new ErrorMessageNotification(in.readString());
+            case CHOOSE_WIZ_AND_TOWER_COLOR -> readChooseWizAndTowerColor(in);
+            case CHOOSE_ASSISTANT -> readChooseAssistant(in);
+            case MOVE_STUDENT -> readMoveStudent(in);
+            case MOVE_MN -> new MoveMNNotification(in.readInt());
+            case CHOOSE_CLOUD -> readChooseCloud(in);
+            case CHARACTER -> new CharacterNotification(in.readInt());
+            case COLOR -> new ColorNotification(in.readEnum(PAWN_COLORS));
+            case ISLAND -> new IslandNotification(in.readInt());
+            case SWAP -> readSwap(in);
+            case WIN -> new WinNotification(in.readString(), in.readBoolean());
+            case MODEL_UPDATE -> new ModelUpdateNotification(readModel(in));
+            case RESYNC -> new ResyncNotification();
+            default -> throw new StreamCorruptedException("Unknown notification tag " + tag);
+        };
+        if (!in.isFinished()) throw new InvalidObjectException("Unexpected bytes after notification " + tag);
+        msg.setClientId(senderID);
+        return msg;
+    }
+
+    private static Notification readChooseWizAndTowerColor(WireReader in) throws IOException {
+        Set<Wizard> availableWizards = in.readEnumSet(Wizard.class);
+        Set<TowerColor> availableColors = in.readEnumSet(TowerColor.class);
+        Wizard wizard = in.readEnum(WIZARDS);
+        TowerColor towerColor = in.readEnum(TOWER_COLORS);
+        if (availableWizards != null || availableColors != null)
+            return new ChooseWizAndTowerColorNotification(availableWizards, availableColors);
+        return new ChooseWizAndTowerColorNotification(wizard, towerColor);
+    }
+
+    private static Notification readChooseAssistant(WireReader in) throws IOException {
+        Set<Assistant> playableAssistant = in.readEnumSet(Assistant.class);
+        Assistant chosenAssistant = in.readEnum(ASSISTANTS);
+        if (playableAssistant != null) return new ChooseAssistantNotification(playableAssistant);
+        return new ChooseAssistantNotification(chosenAssistant);
+    }
+
+    private static Notification readMoveStudent(WireReader in) throws IOException {
+        List<PawnColor> movableColor = in.readEnumList(PAWN_COLORS);
+        PawnColor color = in.readEnum(PAWN_COLORS);
+        Target target = in.readEnum(TARGETS);
+        int island = in.readInt();
+        if (movableColor != null) return new MoveStudentNotification(movableColor);
+        return new MoveStudentNotification(color, target, island);
+    }
+
+    private static Notification readChooseCloud(WireReader in) throws IOException {
+        List<ShortCloud> availableClouds = readClouds(in);
+        int chosenCloud = in.readInt();
+        if (availableClouds != null) return new ChooseCloudNotification(availableClouds);
+        return new ChooseCloudNotification(chosenCloud);
+    }
+
+    private static Notification readSwap(WireReader in) throws IOException {
+        List<PawnColor> swapList = in.readEnumList(PAWN_COLORS);
+        int swap = in.readInt();
+        if (swapList != null) return new SwapNotification(swapList);
+        return new SwapNotification(swap);
+    }
+
+    private static void writeModel(WireWriter out, ShortModel model) {
+        out.writeBoolean(model != null);
+        if (model == null) return;
+        out.writeBoolean(model.isFull());
+        out.writeVarInt(model.getBaseVersion());
+        out.writeVarInt(model.getVersion());
+
+        Map<ShortPlayer, ShortSchool> schoolMap = model.getSchoolMap();
+        out.writeVarInt(schoolMap == null ? 0 : schoolMap.size() + 1);
+        if (schoolMap != null)
+            for (Map.Entry<ShortPlayer, ShortSchool> entry : schoolMap.entrySet()) {
+                ShortPlayer player = entry.getKey();
+                out.writeString(player.name());
+                out.writeEnum(player.wizard());
+                out.writeEnum(player.color());
+                ShortSchool school = entry.getValue();
+                writePawns(out, school.getEntrance());
+                writePawns(out, school.getProfTable());
+                writePawns(out, school.getHall());
+                out.writeInt(school.getNumTower());
+            }
+
+        Map<String, Integer> moneyMap = model.getMoneyMap();
+        out.writeVarInt(moneyMap == null ? 0 : moneyMap.size() + 1);
+        if (moneyMap != null)
+            for (Map.Entry<String, Integer> entry : moneyMap.entrySet()) {
+                out.writeString(entry.getKey());
+                out.writeInt(entry.getValue());
+            }
+
+        Map<String, Assistant> assistantMap = model.getAssistantMap();
+        out.writeVarInt(assistantMap == null ? 0 : assistantMap.size() + 1);
+        if (assistantMap != null)
+            for (Map.Entry<String, Assistant> entry : assistantMap.entrySet()) {
+                out.writeString(entry.getKey());
+                out.writeEnum(entry.getValue());
+            }
+
+        writeClouds(out, model.getClouds());
+
+        ShortBoard board = model.getBoard();
+        out.writeBoolean(board != null);
+        if (board != null) {
+            out.writeVarInt(board.getIslands().size() + 1);
+            for (ShortIsland island : board.getIslands()) {
+                out.writeBoolean(island != null);
+                if (island == null) continue;
+                writePawns(out, island.getStudents());
+                out.writeEnum(island.getTower());
+                out.writeInt(island.getDimension());
+                out.writeInt(island.getBanTiles());
+            }
+            out.writeInt(board.getMotherNaturePos());
+        }
+
+        List<ShortCharacter> characters = model.getCharacters();
+        out.writeVarInt(characters == null ? 0 : characters.size() + 1);
+        if (characters != null)
+            for (ShortCharacter character : characters) {
+                out.writeBoolean(character != null);
+                if (character == null) continue;
+                out.writeString(character.getName());
+                out.writeString(character.getDescription());
+                out.writeInt(character.getCost());
+                writePawns(out, character.getStudentsOn());
+                out.writeBoolean(character.hasCoinOn());
+                out.writeInt(character.getBanTiles());
+            }
+
+        out.writeInt(model.getStudentsInSack());
+        out.writeEnumSet(model.getWizardsAvailable());
+        out.writeEnumSet(model.getColorsAvailable());
+        out.writeEnumSet(model.getPlayableAssistant());
+        out.writeEnumList(model.getPawnsAvailable());
+    }
+
+    private static ShortModel readModel(WireReader in) throws IOException {
+        if (!in.readBoolean()) return null;
+        boolean full = in.readBoolean();
+        int baseVersion = in.readVarInt();
+        int version = in.readVarInt();
+
+        Map<ShortPlayer, ShortSchool> schoolMap = null;
+        int size = in.readSize();
+        if (size >= 0) {
+            schoolMap = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                ShortPlayer player = new ShortPlayer(in.readString(), in.readEnum(WIZARDS), in.readEnum(TOWER_COLORS));
+                schoolMap.put(player, new ShortSchool(readPawns(in), readPawns(in), readPawns(in), in.readInt()));
+            }
+        }
+
+        Map<String, Integer> moneyMap = null;
+        size = in.readSize();
+        if (size >= 0) {
+            moneyMap = new HashMap<>();
+            for (int i = 0; i < size; i++)
+                moneyMap.put(in.readString(), in.readInt());
+        }
+
+        Map<String, Assistant> assistantMap = null;
+        size = in.readSize();
+        if (size >= 0) {
+            assistantMap = new HashMap<>();
+            for (int i = 0; i < size; i++)
+                assistantMap.put(in.readString(), in.readEnum(ASSISTANTS));
+        }
+
+        List<ShortCloud> clouds = readClouds(in);
+
+        ShortBoard board = null;
+        if (in.readBoolean()) {
+            size = in.readSize();
+            if (size < 0) throw new StreamCorruptedException("Board without islands");
+            List<ShortIsland> islands = new ArrayList<>(size);
+            for (int i = 0; i < size; i++)
+                islands.add(in.readBoolean() ? new ShortIsland(readPawns(in), in.readEnum(TOWER_COLORS), in.readInt(), in.readInt()) : null);
+            board = new ShortBoard(islands, in.readInt());
+        }
+
+        List<ShortCharacter> characters = null;
+        size = in.readSize();
+        if (size >= 0) {
+            characters = new ArrayList<>(size);
+            for (int i = 0; i < size; i++)
+                characters.add(in.readBoolean() ? new ShortCharacter(in.readString(), in.readString(), in.readInt(), readPawns(in), in.readBoolean(), in.readInt()) : null);
+        }
+
+        ShortModel model = new ShortModel(full, baseVersion, version, schoolMap, moneyMap, assistantMap, clouds, board, characters, in.readInt());
+        model.setWizardsAvailable(in.readEnumSet(Wizard.class));
+        model.setColorsAvailable(in.readEnumSet(TowerColor.class));
+        model.setPlayableAssistant(in.readEnumSet(Assistant.class));
+        model.setPawnsAvailable(in.readEnumList(PAWN_COLORS));
+        return model;
+    }
+
+    private static void writeClouds(WireWriter out, List<ShortCloud> clouds) {
+        out.writeVarInt(clouds == null ? 0 : clouds.size() + 1);
+        if (clouds != null)
+            for (ShortCloud cloud : clouds) {
+                out.writeBoolean(cloud != null);
+                if (cloud != null) writePawns(out, cloud.getStudents());
+            }
+    }
+
+    private static List<ShortCloud> readClouds(WireReader in) throws IOException {
+        int size = in.readSize();
+        if (size < 0) return null;
+        List<ShortCloud> clouds = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            clouds.add(in.readBoolean() ? new ShortCloud(readPawns(in)) : null);
+        return clouds;
+    }
+
+    private static void writePawns(WireWriter out, ShortPawns pawns) {
+        for (PawnColor color : PAWN_COLORS)
+            out.writeVarInt(pawns.getFromColor(color));
+    }
+
+    private static ShortPawns readPawns(WireReader in) throws IOException {
+        return new ShortPawns(in.readVarInt(), in.readVarInt(), in.readVarInt(), in.readVarInt(), in.readVarInt());
+    }
+}
@@ -0,0 +1,116 @@
+package it.polimi.ingsw.network.communication.codec;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads the values written by a {@link WireWriter}. Every read is bound-checked: a truncated or corrupted payload
+ * raises an {@link IOException} instead of producing an inconsistent object.
+ */
+public class WireReader {
+    private final byte[] buffer;
+    private final int limit;
+    private int position;
+
+    /**
+     * @param buffer the buffer to read from
+     * @param offset the position of the first byte to read
+     * @param length the number of readable bytes
+     */
+    public WireReader(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public int readByte() throws IOException {
+        if (position >= limit) throw new EOFException("Unexpected end of payload");
+        return buffer[position++] & 0xFF;
+    }
+
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    public int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new StreamCorruptedException("Malformed varint");
+    }
+
+    public int readInt() throws IOException {
+        int raw = readVarInt();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public long readLong() throws IOException {
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++)
+            value = (value << Byte.SIZE) | readByte();
+        return value;
+    }
+
+    public String readString() throws IOException {
+        int length = readVarInt() - 1;
+        if (length < 0) return null;
+        if (length > limit - position) throw new EOFException("Unexpected end of payload");
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public <E extends Enum<E>> E readEnum(E[] values) throws IOException {
+        int ordinal = readVarInt() - 1;
+        if (ordinal < 0) return null;
+        if (ordinal >= values.length) throw new StreamCorruptedException("Unknown constant " + ordinal);
+        return values[ordinal];
+    }
+
+    public <E extends Enum<E>> Set<E> readEnumSet(Class<E> type) throws IOException {
+        int raw = readVarInt();
+        if (raw == 0) return null;
+        int mask = raw >>> 1;
+        Set<E> set = EnumSet.noneOf(type);
+        for (E value : type.getEnumConstants())
+            if ((mask & (1 << value.ordinal())) != 0) set.add(value);
+        return set;
+    }
+
+    public <E extends Enum<E>> List<E> readEnumList(E[] values) throws IOException {
+        int size = readSize();
+        if (size < 0) return null;
+        List<E> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            list.add(readEnum(values));
+        return list;
+    }
+
+    /**
+     * Read the size of a nullable collection, checking that it can fit in the remaining bytes
+     *
+     * @return the size of the collection or {@code -1} if it is null
+     * @throws IOException if the size is not plausible
+     */
+    public int readSize() throws IOException {
+        int size = readVarInt() - 1;
+        if (size > limit - position) throw new StreamCorruptedException("Invalid collection size " + size);
+        return size;
+    }
+
+    /**
+     * @return true if all the bytes have been read
+     */
+    public boolean isFinished() {
+        return position == limit;
+    }
+}
@@ -0,0 +1,151 @@
+package it.polimi.ingsw.network.communication.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A growable buffer used by the {@link NotificationCodec} to write the binary representation of a notification.
+ * Integers are written as varints, so that small values (the most common ones) take a single byte.
+ * Nullable values are written with an offset of one, so that {@code 0} always means {@code null}.
+ */
+public class WireWriter {
+    private byte[] buffer;
+    private int size;
+
+    /**
+     * @param capacity the initial capacity of the buffer
+     */
+    public WireWriter(int capacity) {
+        this.buffer = new byte[Math.max(16, capacity)];
+        this.size = 0;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length)
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+    }
+
+    /**
+     * Reserve space that will be filled later (e.g. a length header)
+     *
+     * @param bytes the number of bytes to skip
+     */
+    public void skip(int bytes) {
+        ensureCapacity(bytes);
+        size += bytes;
+    }
+
+    /**
+     * Overwrite a big-endian int at the given position, the position must have already been written or skipped
+     *
+     * @param position the position of the first byte
+     * @param value    the value to write
+     */
+    public void putInt(int position, int value) {
+        buffer[position] = (byte) (value >>> 24);
+        buffer[position + 1] = (byte) (value >>> 16);
+        buffer[position + 2] = (byte) (value >>> 8);
+        buffer[position + 3] = (byte) value;
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    public void writeBoolean(boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+
+    /**
+     * Write a non-negative int using 7 bits per byte
+     *
+     * @param value the value to write, it is treated as unsigned
+     */
+    public void writeVarInt(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    /**
+     * Write a signed int, negative numbers are zigzag encoded so that small absolute values stay small
+     *
+     * @param value the value to write
+     */
+    public void writeInt(int value) {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Write a long as 8 big-endian bytes, used for values that are rarely small (e.g. seeds)
+     *
+     * @param value the value to write
+     */
+    public void writeLong(long value) {
+        ensureCapacity(Long.BYTES);
+        for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE)
+            buffer[size++] = (byte) (value >>> shift);
+    }
+
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length + 1);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    public void writeEnum(Enum<?> value) {
+        writeVarInt(value == null ? 0 : value.ordinal() + 1);
+    }
+
+    /**
+     * Write a set of enum constants as a bit mask
+     *
+     * @param values the set to write, it can be null
+     */
+    public void writeEnumSet(Set<? extends Enum<?>> values) {
+        if (values == null) {
+            writeVarInt(0);
+            return;
+        }
+        int mask = 0;
+        for (Enum<?> value : values)
+            mask |= 1 << value.ordinal();
+        writeVarInt((mask << 1) | 1);
+    }
+
+    public void writeEnumList(List<? extends Enum<?>> values) {
+        if (values == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeVarInt(values.size() + 1);
+        for (Enum<?> value : values)
+            writeEnum(value);
+    }
+
+    /**
+     * @return the number of bytes written so far
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return a copy of the written bytes
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+}
@@ -0,0 +1,18 @@
+package it.polimi.ingsw.network.communication.notification;
+
+import it.polimi.ingsw.network.communication.NotificationVisitor;
+
+import java.io.Serial;
+
+/**
+ * A message used by the client to ask for a full model snapshot, when it receives a delta it can't apply.
+ */
+public class ResyncNotification extends Notification {
+    @Serial
+    private static final long serialVersionUID = -3190517283417950233L;
+
+    @Override
+    public void accept(NotificationVisitor visitor) {
+        visitor.visit(this);
+    }
+}
@@ -1,5 +1,6 @@
 package it.polimi.ingsw.network.server;
 
+import it.polimi.ingsw.network.communication.codec.FrameCodec;
 import it.polimi.ingsw.network.communication.notification.Notification;
 
 /**
@@ -14,6 +15,13 @@ public interface Connection extends Runnable {
      */
     void sendMessage(Notification msg);
 
+    /**
+     * Send a heartbeat to the client, so that it knows the server is still alive
+     */
+    default void sendHeartbeat() {
+        sendMessage(FrameCodec.HEARTBEAT);
+    }
+
     /**
      * Close the connection with the client
      */
@@ -0,0 +1,101 @@
+package it.polimi.ingsw.network.server;
+
+import it.polimi.ingsw.utility.TimerWheel;
+
+/**
+ * Keeps the connections of the server alive and closes the silent ones, on the {@link TimerWheel} of the server.
+ * <p>
+ * Every connection has a check in the wheel, repeated each interval: a connection that hasn't sent anything for the
+ * timeout is disconnected, the others are sent a heartbeat and wait for their next check. Each connection owns a single
+ * timeout, that its check puts back in the wheel: cancelling, marking a connection as alive and rescheduling its check
+ * cost O(1) and never allocate. Receiving a frame only writes the current tick of the wheel in the entry of the
+ * connection.
+ */
+public class HeartbeatWheel {
+    public static final long DEFAULT_TICK_MILLIS = 100;
+    public static final long DEFAULT_INTERVAL_MILLIS = 1000;
+    /**
+     * A connection that doesn't send anything (not even a heartbeat) for this time is considered offline
+     */
+    public static final long DEFAULT_TIMEOUT_MILLIS = 6000;
+    private final TimerWheel timers;
+    private final long intervalMillis;
+    private final long timeoutTicks;
+
+    /**
+     * @param timers the wheel that runs the checks, its tick is the precision of the timeout
+     */
+    public HeartbeatWheel(TimerWheel timers) {
+        this(timers, DEFAULT_INTERVAL_MILLIS, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param timers         the wheel that runs the checks, its tick is the precision of the timeout
+     * @param intervalMillis the time between two heartbeats sent to a connection
+     * @param timeoutMillis  the time without frames after which a connection is closed
+     */
+    public HeartbeatWheel(TimerWheel timers, long intervalMillis, long timeoutMillis) {
+        this.timers = timers;
+        this.intervalMillis = intervalMillis;
+        this.timeoutTicks = Math.max(1, timeoutMillis / timers.getTickMillis());
+    }
+
+    /**
+     * Watch a connection, its first check is one interval later. It can be called by any thread.
+     *
+     * @param connection the connection to keep alive
+     * @return the entry of the connection, to mark it as alive and to cancel it
+     */
+    public Entry register(Connection connection) {
+        Entry entry = new Entry(this, connection);
+        entry.touch();
+        timers.reschedule(entry.timeout, intervalMillis);
+        return entry;
+    }
+
+    /**
+     * Close the connection if it has been silent for the timeout, otherwise send it a heartbeat and check it again
+     * after an interval. It runs on the thread of the wheel.
+     *
+     * @param entry the entry of the connection
+     */
+    private void check(Entry entry) {
+        if (timers.getCurrentTick() - entry.lastSeen >= timeoutTicks) {
+            Server.LOGGER.info(() -> "Client is offline.");
+            entry.connection.disconnect();
+            return;
+        }
+        entry.connection.sendHeartbeat();
+        timers.reschedule(entry.timeout, intervalMillis);
+    }
+
+    /**
+     * A connection in the wheel
+     */
+    public static class Entry {
+        private final HeartbeatWheel heartbeats;
+        private final Connection connection;
+        private final TimerWheel.Timeout timeout;
+        private volatile long lastSeen;
+
+        private Entry(HeartbeatWheel heartbeats, Connection connection) {
+            this.heartbeats = heartbeats;
+            this.connection = connection;
+            this.timeout = new TimerWheel.Timeout(() -> heartbeats.check(this));
+        }
+
+        /**
+         * Mark the connection as alive, it is called when a frame is received
+         */
+        public void touch() {
+            lastSeen = heartbeats.timers.getCurrentTick();
+        }
+
+        /**
+         * Stop watching the connection, it is dropped from the wheel at its next check
+         */
+        public void cancel() {
+            timeout.cancel();
+        }
+    }
+}
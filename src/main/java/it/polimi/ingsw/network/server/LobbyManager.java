@@ -1,139 +1,295 @@
 package it.polimi.ingsw.network.server;
 
 import it.polimi.ingsw.controller.server.GameController;
+import it.polimi.ingsw.network.communication.codec.EncodedNotification;
 import it.polimi.ingsw.network.communication.notification.ChooseGameModeNotification;
+import it.polimi.ingsw.network.communication.notification.ErrorMessageNotification;
 import it.polimi.ingsw.network.communication.notification.GenericMessageNotification;
+import it.polimi.ingsw.network.communication.notification.Notification;
+import it.polimi.ingsw.utility.gamelimit.GameLimit;
+import it.polimi.ingsw.utility.metrics.LatencyHistogram;
+import it.polimi.ingsw.utility.metrics.MetricsRegistry;
 import it.polimi.ingsw.view.View;
 
 import java.util.*;
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * This class handle the lobby. When client joins it is queued. If it's the first in line,
- * he is asked to provide number of player and game mode. When there's enough player a match is created.
+ * This class handle the lobby. When a client joins it is asked to provide the number of players and the game mode it
+ * wants to play, then it waits in the queue of the matches with those preferences. Each kind of match has its own
+ * queue, so matches of different kinds are formed in parallel and nobody waits behind a player that wants another kind
+ * of match. When a queue has enough players a match is created.
+ * <p>
+ * The queues are lock-free: each player has a state that moves from choosing to waiting, and then to matched or left.
+ * Only one thread at a time forms the matches of a queue, and it claims the players it picks, so a player can't
+ * be put in two matches nor in a match after it has left. A player who leaves while claimed is only marked: the thread
+ * forming the match handles the disconnection once the match is started, or puts the player out of the queue if the
+ * match can't be formed, so nobody waits for it.
  */
 public class LobbyManager {
-    private final Queue<String> players;
-    private final Map<String, SocketConnection> connectionMap;
-    private final Map<String, View> vvMap;
     private final Server server;
-    private boolean ready = false;
-    private int nPlayers;
-    private boolean isExpertMode;
-    private String firstInLine;
+    private final Map<String, Entry> entries;
+    private final Map<Preference, Bucket> buckets;
+    /**
+     * Time spent by the players in a queue before the start of their match
+     */
+    private final LatencyHistogram timeToMatch;
 
     public LobbyManager(Server server) {
         this.server = server;
-        this.connectionMap = Collections.synchronizedMap(new HashMap<>());
-        this.vvMap = Collections.synchronizedMap(new HashMap<>());
-        this.players = new PriorityBlockingQueue<>();
+        this.entries = new ConcurrentHashMap<>();
+        this.buckets = new ConcurrentHashMap<>();
+        this.timeToMatch = new LatencyHistogram();
+        MetricsRegistry.GLOBAL.register("lobby.wait", timeToMatch);
     }
 
     /**
-     * Add a client to the queue in the lobby, and broadcast to the other that this client has been added.
-     * If the new client in lobby is the first in line, it's asked about the desired game mode and number of player.
-     * When a client is added it is checked if the desires of the first client in line are satisfied.
+     * Add a client to the lobby and ask it the desired game mode and number of players.
      *
-     * @param nickname         the nickname of the new client in line.
+     * @param nickname         the nickname of the new client.
      * @param socketConnection the entity that represents the connection.
      */
-    public synchronized void addClient(String nickname, SocketConnection socketConnection) {
-        broadcast(nickname + " joined the lobby!", nickname);
-        View vv = new VirtualView(socketConnection);
-        players.add(nickname);
-        connectionMap.put(nickname, socketConnection);
-        vvMap.put(nickname, vv);
-        if (!ready && players.size() == 1) {
-            firstInLine = nickname;
-            vv.chooseGameMode();
-        }
-        checkReadyToStart();
+    public void addClient(String nickname, Connection socketConnection) {
+        Entry entry = new Entry(nickname, socketConnection);
+        entries.put(nickname, entry);
+        entry.view.chooseGameMode();
     }
 
     /**
-     * Check if the desires of the first player are satisfied, in this case a game begin and if there's still players in the queue the first is asked the game mode and number of players.
+     * Receive the chosen game mode and number of player of a client, and put the client in the queue of those matches.
+     * If the queue has enough players a match begins.
+     *
+     * @param chooseGameModeMsg the notification with the chosen game mode and number of player
      */
-    public void checkReadyToStart() {
-        if (ready && players.size() >= nPlayers) {
-            startMatch();
-            if (!players.isEmpty()) {
-                vvMap.get(players.peek()).chooseGameMode();
-            }
+    public void onUpdateGameMode(ChooseGameModeNotification chooseGameModeMsg) {
+        Entry entry = entries.get(chooseGameModeMsg.getSenderID());
+        if (entry == null || entry.state.get() != State.CHOOSING) return;
+        if (GameLimit.getLimit(chooseGameModeMsg.getNPlayers()) == null) {
+            entry.connection.sendMessage(new ErrorMessageNotification("Matches of " + chooseGameModeMsg.getNPlayers() + " players are not available."));
+            entry.view.chooseGameMode();
+            return;
         }
-    }
-
-    public void removePlayerFromLobby(String name) {
-        players.remove(name);
-        connectionMap.remove(name);
-        vvMap.remove(name);
+        Preference preference = new Preference(chooseGameModeMsg.getNPlayers(), chooseGameModeMsg.isExpertGame());
+        Bucket bucket = buckets.computeIfAbsent(preference, Bucket::new);
+        entry.bucket = bucket;
+        entry.enqueuedAt = System.nanoTime();
+        if (!entry.state.compareAndSet(State.CHOOSING, State.WAITING)) return; //the client has just left
+        bucket.join(entry);
     }
 
     /**
-     * Receive an update with the chosen game mode and number of player, now the game can start if the desires are satisfied.
+     * Handle the case of a disconnection when a player is in the lobby: the player is removed from its queue.
      *
-     * @param chooseGameModeMsg the notification with the chosen game mode and number of player
+     * @param nickname   the nickname of the disconnected client
+     * @param connection the closed connection
+     * @return true if the client was in the lobby, false if it has already been moved in a match or it is being moved
+     * in one: then the match is ended by the thread that forms it, if the server doesn't find it first
      */
-    public void onUpdateGameMode(ChooseGameModeNotification chooseGameModeMsg) {
-        this.isExpertMode = chooseGameModeMsg.isExpertGame();
-        this.nPlayers = chooseGameModeMsg.getNPlayers();
-        ready = true;
-        checkReadyToStart();
+    public boolean handleDisconnection(String nickname, Connection connection) {
+        Entry entry = entries.get(nickname);
+        if (entry == null || entry.connection != connection) return false;
+        while (true) {
+            State state = entry.state.get();
+            switch (state) {
+                case CHOOSING, WAITING -> {
+                    if (entry.state.compareAndSet(state, State.LEFT)) {
+                        entries.remove(nickname, entry);
+                        Bucket bucket = entry.bucket;
+                        if (bucket != null && state == State.WAITING) bucket.leave(entry);
+                        return true;
+                    }
+                }
+                case CLAIMED -> {
+                    if (entry.state.compareAndSet(state, State.ABANDONED)) return false;
+                }
+                default -> {
+                    return false;
+                }
+            }
+        }
     }
 
     /**
-     * Handle the case of a disconnection when a player is in the lobby. The disconnected player is removed from the lobby. If it is
-     * the first in line, and it was asked about the game mode, a new player (the new first in line) is asked to provide them.
-     *
-     * @param nickname the nickname of the disconnected client
+     * @return the time spent by the players in a queue before the start of their match
      */
-    public synchronized void handleDisconnection(String nickname) {
-        if (!players.contains(nickname)) return;
-        removePlayerFromLobby(nickname);
-        if (firstInLine.equals(nickname) && !players.isEmpty()) { //the first in line was not the only player in the lobby
-            vvMap.get(players.peek()).chooseGameMode();
-        } else if (firstInLine.equals(nickname)) { //the first in line was the only player in the lobby
-            ready = false;
-        }
-        broadcast(nickname + " left the lobby.");
+    public LatencyHistogram getTimeToMatch() {
+        return timeToMatch;
     }
 
     /**
-     * Start a match when the desires of the first player in line are satisfied. A new {@link GameController} is created and the player in game are removed from the lobby.
-     * After this the lobby is capable of creating a new match.
+     * Start a match with the players picked from a queue. A new {@link GameController} is created and the players
+     * are removed from the lobby. The match is initialized by its own actor.
+     *
+     * @param players    the players of the match
+     * @param preference the kind of match
      */
-    private void startMatch() {
-        GameController controller = new GameController();
+    private void startMatch(List<Entry> players, Preference preference) {
+        GameController controller = new GameController(server.getMatchWorkers());
+        server.recordMatch(controller);
+        controller.setTurnDeadlines(server.getTurnDeadlines());
         List<String> names = new ArrayList<>();
-        for (int i = 0; i < nPlayers; i++) {
-            String name = players.peek();
-            names.add(name);
-            controller.addClient(name, connectionMap.get(name));
-            removePlayerFromLobby(name);
+        for (Entry entry : players) {
+            names.add(entry.nickname);
+            controller.addClient(entry.nickname, entry.connection);
+        }
+        server.addMatch(names, controller); //the match is reachable before a disconnection can find the players out of the lobby
+        long now = System.nanoTime();
+        List<String> left = new ArrayList<>();
+        for (Entry entry : players) {
+            timeToMatch.record(now - entry.enqueuedAt);
+            if (entry.state.getAndSet(State.MATCHED) == State.ABANDONED) left.add(entry.nickname);
+            entries.remove(entry.nickname, entry);
         }
-        controller.init(isExpertMode);
-        server.addMatch(names, controller);
-        ready = false;
+        controller.execute(() -> controller.init(preference.expertMode()));
+        for (String nickname : left)
+            server.removeMatchOf(nickname); //disconnected while the match was being formed
+        Server.LOGGER.info(() -> "Time to match: " + timeToMatch.summary(TimeUnit.MILLISECONDS));
     }
 
     /**
-     * Broadcast a message to all clients in lobby
+     * The kind of match a player wants to play
      *
-     * @param message the notification to broadcast
+     * @param nPlayers   the number of players
+     * @param expertMode whether the match is in expert mode
      */
-    private void broadcast(String message) {
-        connectionMap.values().forEach(connection -> connection.sendMessage(new GenericMessageNotification(message)));
+    private record Preference(int nPlayers, boolean expertMode) {
+    }
+
+    private enum State {
+        /**
+         * The client has been asked the game mode
+         */
+        CHOOSING,
+        /**
+         * The client is in a queue
+         */
+        WAITING,
+        /**
+         * The client has been picked for a match that is being created
+         */
+        CLAIMED,
+        /**
+         * The client has left while it was claimed, the thread that claimed it handles the disconnection
+         */
+        ABANDONED,
+        MATCHED,
+        LEFT
     }
 
     /**
-     * Broadcast a message to all clients in lobby except the exclusion provided.
-     *
-     * @param message   the notification to broadcast
-     * @param exclusion the nick of the client to not sent the notification to
+     * A client in the lobby
+     */
+    private static class Entry {
+        private final String nickname;
+        private final Connection connection;
+        private final View view;
+        private final AtomicReference<State> state;
+        private volatile Bucket bucket;
+        private volatile long enqueuedAt;
+
+        private Entry(String nickname, Connection connection) {
+            this.nickname = nickname;
+            this.connection = connection;
+            this.view = new VirtualView(connection);
+            this.state = new AtomicReference<>(State.CHOOSING);
+        }
+    }
+
+    /**
+     * The queue of the players that want the same kind of match
      */
-    private void broadcast(String message, String exclusion) {
-        connectionMap.keySet().stream()
-                .filter(name -> !name.equals(exclusion))
-                .map(connectionMap::get)
-                .forEach(connection -> connection.sendMessage(new GenericMessageNotification(message)));
+    private class Bucket {
+        private final Preference preference;
+        private final Queue<Entry> waiting;
+        private final AtomicBoolean forming;
+
+        private Bucket(Preference preference) {
+            this.preference = preference;
+            this.waiting = new ConcurrentLinkedQueue<>();
+            this.forming = new AtomicBoolean(false);
+        }
+
+        private void join(Entry entry) {
+            broadcast(entry.nickname + " joined the lobby!");
+            waiting.add(entry);
+            formMatches();
+        }
+
+        private void leave(Entry entry) {
+            waiting.remove(entry);
+            broadcast(entry.nickname + " left the lobby.");
+        }
+
+        /**
+         * Form matches while the queue has enough players. If another thread is already forming the matches of this
+         * queue it will also see the players added in the meantime.
+         */
+        private void formMatches() {
+            do {
+                if (!forming.compareAndSet(false, true)) return;
+                try {
+                    while (formMatch()) ;
+                } finally {
+                    forming.set(false);
+                }
+            } while (waitingCount() >= preference.nPlayers());
+        }
+
+        /**
+         * Claim the first players in the queue and start a match with them
+         *
+         * @return true if a match has been started, false if there are not enough players
+         */
+        private boolean formMatch() {
+            List<Entry> chosen = new ArrayList<>(preference.nPlayers());
+            for (Iterator<Entry> iterator = waiting.iterator(); iterator.hasNext() && chosen.size() < preference.nPlayers(); ) {
+                Entry entry = iterator.next();
+                if (entry.state.compareAndSet(State.WAITING, State.CLAIMED))
+                    chosen.add(entry);
+                else if (entry.state.get() == State.LEFT)
+                    iterator.remove();
+            }
+            if (chosen.size() < preference.nPlayers()) {
+                for (Entry entry : chosen)
+                    if (!entry.state.compareAndSet(State.CLAIMED, State.WAITING)) abandon(entry);
+                return false;
+            }
+            waiting.removeAll(chosen);
+            startMatch(chosen, preference);
+            return true;
+        }
+
+        /**
+         * Remove a player who has left while claimed by a match that couldn't be formed
+         *
+         * @param entry the player
+         */
+        private void abandon(Entry entry) {
+            entry.state.set(State.LEFT);
+            entries.remove(entry.nickname, entry);
+            leave(entry);
+        }
+
+        private int waitingCount() {
+            int count = 0;
+            for (Entry entry : waiting)
+                if (entry.state.get() == State.WAITING) count++;
+            return count;
+        }
+
+        /**
+         * Broadcast a message to all clients in this queue
+         *
+         * @param message the message to broadcast
+         */
+        private void broadcast(String message) {
+            Notification msg = EncodedNotification.of(new GenericMessageNotification(message));
+            for (Entry entry : waiting)
+                if (entry.state.get() == State.WAITING) entry.connection.sendMessage(msg);
+        }
     }
 }
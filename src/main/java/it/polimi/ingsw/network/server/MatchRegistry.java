@@ -0,0 +1,117 @@
+package it.polimi.ingsw.network.server;
+
+import it.polimi.ingsw.controller.server.GameController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class keeps track of the nicknames in use, of the connection of each player and of the match each player is part of.
+ * <p>
+ * The maps are {@link ConcurrentHashMap}s, which are sharded internally: logins and disconnections of different
+ * players don't contend on a common lock. Each match has an id and knows its players, so all the players of a match
+ * are removed without scanning the other matches.
+ */
+public class MatchRegistry {
+    private final Map<String, Connection> connectionByNickname;
+    private final Map<Connection, String> nicknameByConnection;
+    private final Map<Long, Match> matchById;
+    private final Map<String, Match> matchByNickname;
+    private final AtomicLong nextMatchId;
+
+    public MatchRegistry() {
+        this.connectionByNickname = new ConcurrentHashMap<>();
+        this.nicknameByConnection = new ConcurrentHashMap<>();
+        this.matchById = new ConcurrentHashMap<>();
+        this.matchByNickname = new ConcurrentHashMap<>();
+        this.nextMatchId = new AtomicLong();
+    }
+
+    /**
+     * Reserve a nickname for a connection. Only one of the connections that ask for the same nickname at the same time succeeds.
+     *
+     * @param nickname   the chosen nickname
+     * @param connection the connection of the client
+     * @return true if the nickname was free, false if it is already taken
+     */
+    public boolean claimNickname(String nickname, Connection connection) {
+        if (connectionByNickname.putIfAbsent(nickname, connection) != null) return false;
+        nicknameByConnection.put(connection, nickname);
+        return true;
+    }
+
+    /**
+     * Free the nickname of a closed connection
+     *
+     * @param connection the closed connection
+     * @return the nickname of the connection, null if the client hadn't chosen a nickname
+     */
+    public String releaseNickname(Connection connection) {
+        String nickname = nicknameByConnection.remove(connection);
+        if (nickname != null) connectionByNickname.remove(nickname, connection);
+        return nickname;
+    }
+
+    /**
+     * Register a new match, so that the messages of its players can be routed to its controller
+     *
+     * @param names      the players of the match
+     * @param controller the controller of the match
+     * @return the registered match
+     */
+    public Match addMatch(List<String> names, GameController controller) {
+        Match match = new Match(nextMatchId.incrementAndGet(), controller, List.copyOf(names));
+        matchById.put(match.id(), match);
+        names.forEach(name -> matchByNickname.put(name, match));
+        return match;
+    }
+
+    /**
+     * @param nickname the nickname of a player
+     * @return the controller of the match of the player, null if the player is not in a match
+     */
+    public GameController getController(String nickname) {
+        Match match = matchByNickname.get(nickname);
+        return match == null ? null : match.controller();
+    }
+
+    /**
+     * Remove the match of a player, together with all its players. If many players of the same match leave at the same
+     * time only one of them gets the match.
+     *
+     * @param nickname the nickname of a player
+     * @return the removed match, null if the player is not in a match or the match has been already removed
+     */
+    public Match removeMatchOf(String nickname) {
+        Match match = matchByNickname.get(nickname);
+        if (match == null || !matchById.remove(match.id(), match)) return null;
+        match.players().forEach(name -> matchByNickname.remove(name, match));
+        return match;
+    }
+
+    /**
+     * @return the number of matches in progress
+     */
+    public int matchCount() {
+        return matchById.size();
+    }
+
+    /**
+     * @return the number of nicknames in use
+     */
+    public int nicknameCount() {
+        return connectionByNickname.size();
+    }
+
+    /**
+     * A match in progress
+     *
+     * @param id         the unique id of the match
+     * @param controller the controller of the match
+     * @param players    the nicknames of the players
+     */
+    public record Match(long id, GameController controller, List<String> players) {
+    }
+}
@@ -0,0 +1,187 @@
+package it.polimi.ingsw.network.server;
+
+import it.polimi.ingsw.network.communication.codec.EncodedNotification;
+import it.polimi.ingsw.network.communication.codec.FrameCodec;
+import it.polimi.ingsw.network.communication.notification.LoginNotification;
+import it.polimi.ingsw.network.communication.notification.Notification;
+
+import it.polimi.ingsw.utility.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class represents a non-blocking connection between the server and a client.
+ * It doesn't own a thread: its {@link NioEventLoop} reads the incoming frames and writes the outgoing ones.
+ * When a {@link Notification} arrives it is passed to server, as {@link SocketConnection} does.
+ */
+public class NioConnection implements Connection {
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final MetricsRegistry.CounterFamily RECEIVED = MetricsRegistry.GLOBAL.counters("messages.received");
+    private static final MetricsRegistry.CounterFamily SENT = MetricsRegistry.GLOBAL.counters("messages.sent");
+    private static final LongAdder BYTES_SENT = MetricsRegistry.GLOBAL.counter("bytes.sent");
+    private final NioServerThread server;
+    private final NioEventLoop loop;
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final OutboundQueue outbound;
+    private final AtomicBoolean running;
+    private final HeartbeatWheel.Entry heartbeat;
+    private ByteBuffer readBuffer;
+    private ByteBuffer pendingFrame;
+
+    public NioConnection(NioServerThread server, NioEventLoop loop, SocketChannel channel, SelectionKey key) {
+        this.server = server;
+        this.loop = loop;
+        this.channel = channel;
+        this.key = key;
+        this.outbound = new OutboundQueue(server.getOutboundPolicy());
+        this.running = new AtomicBoolean(true);
+        this.readBuffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        this.heartbeat = server.watch(this);
+    }
+
+    /**
+     * Called by the event loop when the channel has data to read. Every complete frame is decoded and handled:
+     * if it is a login notification the client is added to the server list of clients, a heartbeat only marks the
+     * connection as alive, otherwise the server has to handle it.
+     */
+    public void onReadable() {
+        try {
+            if (channel.read(readBuffer) < 0) {
+                Server.LOGGER.info(() -> "Client is offline.");
+                disconnect();
+                return;
+            }
+            heartbeat.touch();
+            readBuffer.flip();
+            while (running.get() && readBuffer.remaining() >= FrameCodec.HEADER_SIZE) {
+                int length = FrameCodec.checkLength(readBuffer.getInt(readBuffer.position()));
+                if (readBuffer.remaining() < FrameCodec.HEADER_SIZE + length) break;
+                readBuffer.position(readBuffer.position() + FrameCodec.HEADER_SIZE);
+                Notification notification = FrameCodec.decode(readBuffer.array(), readBuffer.position(), length);
+                readBuffer.position(readBuffer.position() + length);
+                handle(notification);
+            }
+            readBuffer.compact();
+            ensureCapacity();
+        } catch (IOException e) {
+            Server.LOGGER.info(() -> "Client is offline.");
+            disconnect();
+        }
+    }
+
+    private void handle(Notification notification) {
+        RECEIVED.increment(notification);
+        if (notification == FrameCodec.HEARTBEAT) return;
+        if (notification instanceof LoginNotification loginNotification) {
+            server.addClient(loginNotification.getNickname(), this);
+        } else {
+            ServerLog.received(notification);
+            server.receiveMessage(notification);
+        }
+    }
+
+    /**
+     * Grow the read buffer when it is full, so that the biggest frame fits in it
+     */
+    private void ensureCapacity() {
+        if (readBuffer.hasRemaining()) return;
+        ByteBuffer bigger = ByteBuffer.allocate(Math.min(readBuffer.capacity() * 2, FrameCodec.HEADER_SIZE + FrameCodec.MAX_FRAME_SIZE));
+        readBuffer.flip();
+        bigger.put(readBuffer);
+        readBuffer = bigger;
+    }
+
+    /**
+     * Flush the outbound queue. It is always executed by the event loop: if the socket buffer is full the
+     * remaining frames are written as soon as the channel becomes writable again. Meanwhile, the notifications
+     * stay in the queue, where the model updates can be coalesced.
+     */
+    @Override
+    public void run() {
+        if (!running.get()) return;
+        try {
+            while (true) {
+                if (pendingFrame == null) {
+                    Notification msg = outbound.poll();
+                    if (msg == null) break;
+                    pendingFrame = ByteBuffer.wrap(FrameCodec.encode(msg));
+                    BYTES_SENT.add(pendingFrame.remaining());
+                }
+                channel.write(pendingFrame);
+                if (pendingFrame.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+                pendingFrame = null;
+            }
+            key.interestOps(SelectionKey.OP_READ);
+        } catch (IOException e) {
+            Server.LOGGER.info(() -> "Couldn't send message to a client, closing connection.");
+            disconnect();
+        }
+    }
+
+    /**
+     * Sends a message to the client. It can be called by any thread, the message is queued and written by the event loop.
+     * If the queue is full the client is disconnected, unless the policy allows to drop the message.
+     *
+     * @param msg to be sent
+     */
+    @Override
+    public void sendMessage(Notification msg) {
+        if (!running.get()) return;
+        SENT.increment(EncodedNotification.unwrap(msg));
+        if (!outbound.offer(msg)) {
+            Server.LOGGER.info(() -> "Client is too slow, closing connection.");
+            disconnect();
+            return;
+        }
+        loop.requestFlush(this);
+    }
+
+    /**
+     * Send a heartbeat only if nothing else is waiting to be written: any frame tells the client that the server is alive
+     */
+    @Override
+    public void sendHeartbeat() {
+        if (outbound.isEmpty()) sendMessage(FrameCodec.HEARTBEAT);
+    }
+
+    /**
+     * Close the connection with the client
+     */
+    @Override
+    public void disconnect() {
+        if (running.compareAndSet(true, false)) {
+            heartbeat.cancel();
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                Server.LOGGER.info(() -> "Cannot close connection with client");
+            }
+            outbound.close();
+            if (outbound.getCoalesced() > 0 || outbound.getDropped() > 0)
+                Server.LOGGER.info(() -> "Outbound queue closed: " + outbound.getCoalesced() + " updates coalesced, " + outbound.getDropped() + " messages dropped");
+        }
+        server.handleDisconnection(this);
+    }
+
+    /**
+     * @return the address of the client, or null if it is not available
+     */
+    public SocketAddress getRemoteAddress() {
+        try {
+            return channel.getRemoteAddress();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
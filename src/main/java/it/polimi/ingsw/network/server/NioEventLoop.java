@@ -0,0 +1,104 @@
+package it.polimi.ingsw.network.server;
+
+import java.io.IOException;
+import java.nio.channels.*;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A single thread that serves many {@link NioConnection} through a {@link Selector}. It reads incoming frames,
+ * flushes outgoing ones. The silent connections are closed by the {@link HeartbeatWheel} of the server.
+ */
+public class NioEventLoop implements Runnable {
+    private final NioServerThread server;
+    private final Selector selector;
+    private final Queue<SocketChannel> pendingChannels;
+    private final Queue<NioConnection> pendingFlushes;
+    private Thread thread;
+
+    public NioEventLoop(NioServerThread server) throws IOException {
+        this.server = server;
+        this.selector = Selector.open();
+        this.pendingChannels = new ConcurrentLinkedQueue<>();
+        this.pendingFlushes = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Hand a new accepted channel to this loop. The registration is done by the loop thread itself.
+     *
+     * @param channel the accepted channel, already in non-blocking mode
+     */
+    public void register(SocketChannel channel) {
+        pendingChannels.add(channel);
+        selector.wakeup();
+    }
+
+    /**
+     * Ask the loop to flush the outbound frames of a connection.
+     * If the caller is the loop thread the flush is done immediately.
+     *
+     * @param connection the connection with pending frames
+     */
+    public void requestFlush(NioConnection connection) {
+        if (inLoop()) {
+            connection.run();
+        } else {
+            pendingFlushes.add(connection);
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * @return true if the caller is the thread of this loop
+     */
+    public boolean inLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * During all its lifetime the loop waits for channels to be ready and serve them.
+     */
+    @Override
+    public void run() {
+        thread = Thread.currentThread();
+        while (!thread.isInterrupted()) {
+            try {
+                selector.select();
+            } catch (IOException e) {
+                Server.LOGGER.severe(() -> "Event loop selector failed");
+                return;
+            }
+            registerPending();
+            flushPending();
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                NioConnection connection = (NioConnection) key.attachment();
+                if (key.isValid() && key.isReadable()) connection.onReadable();
+                if (key.isValid() && key.isWritable()) connection.run();
+            }
+        }
+    }
+
+    private void registerPending() {
+        SocketChannel channel;
+        while ((channel = pendingChannels.poll()) != null) {
+            try {
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                NioConnection connection = new NioConnection(server, this, channel, key);
+                key.attach(connection);
+                Server.LOGGER.info(() -> "Client connected from " + connection.getRemoteAddress());
+            } catch (ClosedChannelException e) {
+                Server.LOGGER.info(() -> "Client is offline.");
+            }
+        }
+    }
+
+    private void flushPending() {
+        NioConnection connection;
+        while ((connection = pendingFlushes.poll()) != null)
+            connection.run();
+    }
+}
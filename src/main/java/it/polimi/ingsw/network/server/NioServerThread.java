@@ -0,0 +1,100 @@
+package it.polimi.ingsw.network.server;
+
+import it.polimi.ingsw.network.communication.notification.Notification;
+
+import java.io.IOException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * This class handle all new clients' connection when the server uses the {@link Transport#NIO} transport.
+ * Accepted channels are spread over a small set of {@link NioEventLoop}, each one serving many {@link NioConnection}.
+ */
+public class NioServerThread implements Runnable {
+    private final Server server;
+    private final ServerSocketChannel serverChannel;
+    private final NioEventLoop[] loops;
+    private int nextLoop = 0;
+
+    public NioServerThread(ServerSocketChannel serverChannel, Server server) {
+        this(serverChannel, server, Runtime.getRuntime().availableProcessors());
+    }
+
+    public NioServerThread(ServerSocketChannel serverChannel, Server server, int nLoops) {
+        this.serverChannel = serverChannel;
+        this.server = server;
+        this.loops = new NioEventLoop[Math.max(1, nLoops)];
+    }
+
+    /**
+     * Start the event loops, then during all its lifetime wait for a client to join and hand the new channel to an event loop (round-robin).
+     */
+    @Override
+    public void run() {
+        try {
+            for (int i = 0; i < loops.length; i++) {
+                loops[i] = new NioEventLoop(this);
+                new Thread(loops[i], "nio-loop-" + i).start();
+            }
+        } catch (IOException e) {
+            Server.LOGGER.severe(() -> "Cannot open the event loops");
+            return;
+        }
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                loops[nextLoop].register(channel);
+                nextLoop = (nextLoop + 1) % loops.length;
+            } catch (IOException e) {
+                Server.LOGGER.info(() -> "Problem during connection with a client");
+            }
+        }
+    }
+
+    /**
+     * When a client provide the nickname it is added to the server list of player
+     *
+     * @param nickname   the nickname of the new client
+     * @param connection the connection with the client
+     */
+    public void addClient(String nickname, Connection connection) {
+        server.addClient(nickname, connection);
+    }
+
+    /**
+     * Receive a message from a client. It is passed to the {@link Server}
+     *
+     * @param msg the notification to receive.
+     */
+    public void receiveMessage(Notification msg) {
+        server.receiveMessage(msg);
+    }
+
+    /**
+     * Start watching the liveness of a connection
+     *
+     * @param connection the new connection
+     * @return the entry of the connection in the {@link HeartbeatWheel} of the server
+     */
+    public HeartbeatWheel.Entry watch(Connection connection) {
+        return server.getHeartbeats().register(connection);
+    }
+
+    /**
+     * Handle a disconnection from a client.
+     *
+     * @param connection the disconnected client connection.
+     */
+    public void handleDisconnection(Connection connection) {
+        server.handleDisconnection(connection);
+    }
+
+    /**
+     * @return the policy of the outbound queue of each connection
+     */
+    public OutboundPolicy getOutboundPolicy() {
+        return server.getOutboundPolicy();
+    }
+}
@@ -0,0 +1,35 @@
+package it.polimi.ingsw.network.server;
+
+/**
+ * This record defines how the outbound queue of each {@link Connection} behaves when a client reads slower than the
+ * server writes.
+ *
+ * @param maxDepth             the maximum number of notifications waiting to be written to a client
+ * @param coalesceModelUpdates whether a model update can be merged with the one queued just before it
+ * @param overflow             what to do when a notification arrives and the queue is full
+ */
+public record OutboundPolicy(int maxDepth, boolean coalesceModelUpdates, Overflow overflow) {
+    /**
+     * The policy used when none is specified
+     */
+    public static final OutboundPolicy DEFAULT = new OutboundPolicy(256, true, Overflow.DISCONNECT);
+
+    public OutboundPolicy {
+        if (maxDepth < 1) throw new IllegalArgumentException("The queue must hold at least one notification");
+    }
+
+    /**
+     * The action taken when the queue of a client is full
+     */
+    public enum Overflow {
+        /**
+         * The client is considered too slow and it is disconnected
+         */
+        DISCONNECT,
+        /**
+         * The new notification is dropped. A dropped model update is recovered by the client with a resync,
+         * any other dropped notification is lost.
+         */
+        DROP
+    }
+}
@@ -0,0 +1,162 @@
+package it.polimi.ingsw.network.server;
+
+import it.polimi.ingsw.model.ShortModel;
+import it.polimi.ingsw.network.communication.codec.EncodedNotification;
+import it.polimi.ingsw.network.communication.notification.ModelUpdateNotification;
+import it.polimi.ingsw.network.communication.notification.Notification;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The notifications waiting to be written to a client. Any thread can add a notification without waiting for the
+ * client to read it; the writer of the connection removes them in order.
+ * <p>
+ * When a model update is added right after another one that hasn't been written yet, the two are merged, so the client
+ * receives a single update with all the changes. The depth of the queue and the behaviour when it is full are defined
+ * by an {@link OutboundPolicy}.
+ */
+public class OutboundQueue {
+    private final OutboundPolicy policy;
+    private final Deque<Notification> queue;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private boolean closed;
+    private long coalesced;
+    private long dropped;
+
+    public OutboundQueue(OutboundPolicy policy) {
+        this.policy = policy;
+        this.queue = new ArrayDeque<>();
+    }
+
+    /**
+     * Add a notification at the end of the queue
+     *
+     * @param msg the notification to send
+     * @return false if the queue is full and the policy requires the client to be disconnected, true otherwise
+     */
+    public boolean offer(Notification msg) {
+        lock.lock();
+        try {
+            if (closed) return true;
+            if (policy.coalesceModelUpdates() && coalesce(msg)) {
+                coalesced++;
+                return true;
+            }
+            if (queue.size() >= policy.maxDepth()) {
+                dropped++;
+                return policy.overflow() == OutboundPolicy.Overflow.DROP;
+            }
+            queue.addLast(msg);
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Merge a model update with the last queued one, if it is a model update too
+     *
+     * @param msg the new notification
+     * @return true if the notification has been merged
+     */
+    private boolean coalesce(Notification msg) {
+        if (queue.isEmpty()) return false;
+        if (!(EncodedNotification.unwrap(msg) instanceof ModelUpdateNotification next) || next.getModel() == null)
+            return false;
+        if (!(EncodedNotification.unwrap(queue.peekLast()) instanceof ModelUpdateNotification last) || last.getModel() == null)
+            return false;
+        if (next.getModel().isFull()) {
+            queue.pollLast();
+            queue.addLast(msg); //a full snapshot makes the previous update useless
+            return true;
+        }
+        ShortModel merged = last.getModel().copy();
+        if (!merged.update(next.getModel())) return false;
+        Notification update = new ModelUpdateNotification(merged);
+        update.setClientId(next.getSenderID());
+        queue.pollLast();
+        queue.addLast(update);
+        return true;
+    }
+
+    /**
+     * Wait for a notification to write
+     *
+     * @return the first notification of the queue, or null if the queue has been closed
+     * @throws InterruptedException if the writer is interrupted while waiting
+     */
+    public Notification take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (queue.isEmpty() && !closed)
+                notEmpty.await();
+            return queue.pollFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the first notification of the queue, or null if there is none
+     */
+    public Notification poll() {
+        lock.lock();
+        try {
+            return queue.pollFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return queue.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Discard the queued notifications and wake up the writer. Notifications added later are ignored.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            queue.clear();
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of model updates merged with the previous one
+     */
+    public long getCoalesced() {
+        lock.lock();
+        try {
+            return coalesced;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of notifications refused because the queue was full
+     */
+    public long getDropped() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
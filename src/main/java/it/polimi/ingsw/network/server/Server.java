@@ -1,16 +1,28 @@
 package it.polimi.ingsw.network.server;
 
 import it.polimi.ingsw.controller.server.GameController;
+import it.polimi.ingsw.controller.server.MatchLog;
+import it.polimi.ingsw.controller.server.TurnDeadlines;
 import it.polimi.ingsw.network.communication.notification.ChooseGameModeNotification;
 import it.polimi.ingsw.network.communication.notification.NicknameErrorNotification;
 import it.polimi.ingsw.network.communication.notification.Notification;
+import it.polimi.ingsw.utility.TimerWheel;
 import it.polimi.ingsw.utility.character.CharactersDeck;
 import it.polimi.ingsw.utility.gamelimit.GameLimit;
+import it.polimi.ingsw.utility.metrics.MetricsRegistry;
 
+import javax.management.JMException;
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
-import java.net.Socket;
-import java.util.*;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import static java.lang.System.exit;
@@ -22,22 +34,65 @@ public class Server {
     public static final Logger LOGGER = Logger.getLogger(Server.class.getName());
     public static final String NAME = "server";
     /**
-     * A relation to know which game a player is part of
+     * The name of the MBean of the metrics of the server
      */
-    private final Map<String, GameController> matchesMap;
-    private final Set<String> alreadyChosenNicknames;
+    public static final String METRICS_MBEAN = "it.polimi.ingsw:type=Metrics";
+    /**
+     * The nicknames in use and the game each player is part of
+     */
+    private final MatchRegistry registry;
     private final LobbyManager lobbyManager;
-    private final Map<Socket, String> socketStringMap;
+    private final Transport transport;
+    private final OutboundPolicy outboundPolicy;
+    /**
+     * The threads that run the matches, each match is an actor scheduled on this pool
+     */
+    private final ExecutorService matchWorkers;
+    /**
+     * Runs the timeouts of the server: the heartbeats of the connections and the turn deadlines of the matches
+     */
+    private final TimerWheel timers;
+    /**
+     * Sends the heartbeats to the clients and closes the connections of the silent ones
+     */
+    private final HeartbeatWheel heartbeats;
+    private volatile TurnDeadlines turnDeadlines;
+    /**
+     * The directory where the messages of each match are recorded, null if the matches are not recorded
+     */
+    private volatile Path matchLogDirectory;
     private ServerSocket serverSocket;
+    private ServerSocketChannel serverChannel;
 
     public Server(int port) {
+        this(port, Transport.SOCKET);
+    }
+
+    public Server(int port, Transport transport) {
+        this(port, transport, OutboundPolicy.DEFAULT);
+    }
+
+    public Server(int port, Transport transport, OutboundPolicy outboundPolicy) {
+        this.transport = transport;
+        this.outboundPolicy = outboundPolicy;
         lobbyManager = new LobbyManager(this);
-        matchesMap = Collections.synchronizedMap(new HashMap<>());
-        socketStringMap = Collections.synchronizedMap(new HashMap<>());
-        alreadyChosenNicknames = Collections.synchronizedSet(new HashSet<>());
+        registry = new MatchRegistry();
+        timers = new TimerWheel("server-timers", HeartbeatWheel.DEFAULT_TICK_MILLIS);
+        heartbeats = new HeartbeatWheel(timers);
+        turnDeadlines = new TurnDeadlines(timers, TurnDeadlines.DEFAULT_TIMEOUT_MILLIS);
+        AtomicInteger workerCount = new AtomicInteger();
+        matchWorkers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), task -> {
+            Thread worker = new Thread(task, "match-worker-" + workerCount.getAndIncrement());
+            worker.setDaemon(true);
+            return worker;
+        });
         try {
-            serverSocket = new ServerSocket(port);
-            LOGGER.info(() -> "Server started on port " + port + ".");
+            if (transport == Transport.NIO) {
+                serverChannel = ServerSocketChannel.open();
+                serverChannel.bind(new InetSocketAddress(port));
+            } else
+                serverSocket = new ServerSocket(port);
+            LOGGER.info(() -> "Server started on port " + port + " (" + transport + " transport).");
         } catch (IOException e) {
             LOGGER.severe(() -> "Server couldn't start");
             exit(0);
@@ -49,7 +104,16 @@ public class Server {
      */
     public void start() {
         checkStart();
-        new Thread(new ServerThread(serverSocket, this)).start();
+        timers.start();
+        try {
+            MetricsRegistry.GLOBAL.registerMBean(METRICS_MBEAN);
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, e, () -> "Metrics not published through JMX");
+        }
+        if (transport == Transport.NIO)
+            new Thread(new NioServerThread(serverChannel, this), "nio-acceptor").start();
+        else //the acceptor is always a platform thread: virtual threads are daemon and wouldn't keep the server alive
+            new Thread(new ServerThread(serverSocket, this, transport.threadFactory())).start();
     }
 
     /**
@@ -58,40 +122,62 @@ public class Server {
      * @param nickname         the nickname of the new client
      * @param socketConnection to be added
      */
-    public synchronized void addClient(String nickname, SocketConnection socketConnection) {
-        if (alreadyChosenNicknames.contains(nickname)) {
+    public void addClient(String nickname, Connection socketConnection) {
+        if (!registry.claimNickname(nickname, socketConnection)) {
             Notification msg = new NicknameErrorNotification();
             msg.setClientId(Server.NAME);
             socketConnection.sendMessage(msg);
             return;
         }
         LOGGER.info(() -> nickname + " joined the lobby");
-        alreadyChosenNicknames.add(nickname);
-        socketStringMap.put(socketConnection.getClient(), nickname);
         lobbyManager.addClient(nickname, socketConnection);
     }
 
+    /**
+     * Record the messages of a new match in a {@link MatchLog}, if the match logs are enabled.
+     * The log is named after the seed of the match.
+     *
+     * @param controller the controller of the match, not initialized yet
+     */
+    public void recordMatch(GameController controller) {
+        Path directory = matchLogDirectory;
+        if (directory == null) return;
+        Path file = directory.resolve("match-" + Long.toHexString(controller.getSeed()) + ".log");
+        try {
+            controller.recordTo(MatchLog.create(file));
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, e, () -> "Match log " + file + " not created");
+        }
+    }
+
     /**
      * When a match start it is added to the map so that when a message from a client arrives the server knows who had to handle that packet.
      *
      * @param names      the list of player in the game
      * @param controller the controller of that game
      */
-    public synchronized void addMatch(List<String> names, GameController controller) {
-        LOGGER.info(() -> "A match is started.");
-        names.forEach(name -> matchesMap.put(name, controller));
+    public void addMatch(List<String> names, GameController controller) {
+        MatchRegistry.Match match = registry.addMatch(names, controller);
+        ServerLog.match(Level.INFO, "Match " + match.id() + " is started", controller.getSeed(), null, null);
     }
 
     /**
-     * Receive a notification from a client. If the sender is in the lobby it is sent to the lobby, otherwise the controller has to handle it
+     * Receive a notification from a client. If the sender is in the lobby it is sent to the lobby, otherwise it is
+     * queued in the mailbox of its match: the connection thread never runs the game logic.
      *
      * @param msg the notification to receive
      */
     public void receiveMessage(Notification msg) {
         if (msg instanceof ChooseGameModeNotification chooseGameModeMsg) {
             lobbyManager.onUpdateGameMode(chooseGameModeMsg);
-        } else
-            matchesMap.get(msg.getSenderID()).handleMessage(msg);
+            return;
+        }
+        GameController controller = registry.getController(msg.getSenderID());
+        if (controller == null) {
+            LOGGER.warning(() -> "Ignored a message from " + msg.getSenderID() + ", who is not in a match");
+            return;
+        }
+        controller.handleMessage(msg);
     }
 
     /**
@@ -99,33 +185,27 @@ public class Server {
      * In fact, if the client is in a game, all the players in game are notified and the game ends. Otherwise, if the client is in the lobby the disconnection is handled
      * in a different way.
      *
-     * @param client the socket that close the connection
+     * @param client the connection that has been closed
      */
-    public synchronized void handleDisconnection(Socket client) {
-        String nickname = socketStringMap.get(client);
+    public void handleDisconnection(Connection client) {
+        String nickname = registry.releaseNickname(client);
         if (nickname == null) return; //if the client hasn't chosen nickname he is nor in the lobby nor in a match.
-        alreadyChosenNicknames.remove(nickname);
-        socketStringMap.remove(client);
-        for (Map.Entry<String, GameController> entry : matchesMap.entrySet()) {
-            String name = entry.getKey();
-            if (name.equals(nickname)) {
-                matchesMap.get(name).handleDisconnection(nickname);
-                removeMatch(name);
-                return;
-            }
-        }
-        lobbyManager.handleDisconnection(nickname);
+        if (removeMatchOf(nickname) || lobbyManager.handleDisconnection(nickname, client)) return;
+        removeMatchOf(nickname); //the lobby has just moved the client in a new match
     }
 
     /**
-     * This method is used to clear a match when a client is disconnected.
+     * This method is used to clear a match when a client is disconnected: the other players are notified and the match is removed.
      *
-     * @param name the name of the disconnected client.
+     * @param nickname the name of the disconnected client.
+     * @return true if the client was in a match, false otherwise
      */
-    private void removeMatch(String name) {
-        Map<String, GameController> clone = new HashMap<>(matchesMap);
-        GameController controller = clone.get(name);
-        clone.entrySet().stream().filter(entry -> entry.getValue().equals(controller)).map(Map.Entry::getKey).forEach(matchesMap::remove);
+    boolean removeMatchOf(String nickname) {
+        MatchRegistry.Match match = registry.removeMatchOf(nickname);
+        if (match == null) return false;
+        match.controller().handleDisconnection(nickname);
+        ServerLog.match(Level.INFO, "Match " + match.id() + " is ended", match.controller().getSeed(), nickname, null);
+        return true;
     }
 
     /**
@@ -135,4 +215,59 @@ public class Server {
         CharactersDeck.start();
         GameLimit.start();
     }
+
+    /**
+     * @return the port the server is listening on, useful when the server has been started on port 0
+     */
+    public int getPort() {
+        return transport == Transport.NIO ? serverChannel.socket().getLocalPort() : serverSocket.getLocalPort();
+    }
+
+    /**
+     * @return the pool of threads shared by the matches
+     */
+    public ExecutorService getMatchWorkers() {
+        return matchWorkers;
+    }
+
+    /**
+     * Record the messages of the next matches, so that they can be replayed. The directory is created if needed.
+     *
+     * @param directory the directory of the logs, null to stop recording
+     * @throws IOException if the directory can't be created
+     */
+    public void setMatchLogDirectory(Path directory) throws IOException {
+        if (directory != null) Files.createDirectories(directory);
+        this.matchLogDirectory = directory;
+    }
+
+    /**
+     * Change the time the players have to answer each request, the matches already started keep the old one
+     *
+     * @param timeoutMillis the time to answer, 0 to wait for the players forever
+     */
+    public void setTurnTimeout(long timeoutMillis) {
+        this.turnDeadlines = timeoutMillis > 0 ? new TurnDeadlines(timers, timeoutMillis) : null;
+    }
+
+    /**
+     * @return the deadlines of the requests to the players, null if the server waits for the players forever
+     */
+    public TurnDeadlines getTurnDeadlines() {
+        return turnDeadlines;
+    }
+
+    /**
+     * @return the policy of the outbound queue of each connection
+     */
+    public OutboundPolicy getOutboundPolicy() {
+        return outboundPolicy;
+    }
+
+    /**
+     * @return the wheel that watches the liveness of the connections
+     */
+    public HeartbeatWheel getHeartbeats() {
+        return heartbeats;
+    }
 }
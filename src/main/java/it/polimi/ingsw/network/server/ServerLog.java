@@ -0,0 +1,54 @@
+package it.polimi.ingsw.network.server;
+
+import it.polimi.ingsw.network.communication.notification.Notification;
+import it.polimi.ingsw.utility.logging.LogSampler;
+import it.polimi.ingsw.utility.logging.StructuredRecord;
+
+import java.util.logging.Level;
+
+/**
+ * The structured records of the server, logged by {@link Server#LOGGER}.
+ * <p>
+ * The messages received are {@link Level#FINE} records and only a sample of them is logged, so the level can be
+ * lowered on a busy server. The records of a match carry its seed as the id of the match: it is the name of its
+ * {@link it.polimi.ingsw.controller.server.MatchLog} too.
+ */
+public final class ServerLog {
+    private static volatile LogSampler messages = new LogSampler(1);
+
+    private ServerLog() {
+    }
+
+    /**
+     * @param oneIn one message received in this number is logged
+     */
+    public static void sampleMessages(int oneIn) {
+        messages = new LogSampler(oneIn);
+    }
+
+    /**
+     * Log a message received from a client, if it is sampled
+     *
+     * @param notification the message
+     */
+    public static void received(Notification notification) {
+        if (!Server.LOGGER.isLoggable(Level.FINE) || !messages.sample()) return;
+        Server.LOGGER.log(new StructuredRecord(Level.FINE, "Message received", null, notification.getSenderID(),
+                notification.getClass().getSimpleName(), null));
+    }
+
+    /**
+     * Log an event of a match
+     *
+     * @param level   the level of the record
+     * @param message the message
+     * @param seed    the seed of the match
+     * @param player  the player involved, or null
+     * @param state   the state of the turn, or null
+     */
+    public static void match(Level level, String message, long seed, String player, Enum<?> state) {
+        if (!Server.LOGGER.isLoggable(level)) return;
+        Server.LOGGER.log(new StructuredRecord(level, message, Long.toHexString(seed), player, null,
+                state == null ? null : state.name()));
+    }
+}
@@ -107,6 +107,11 @@ public class ServerSideVisitor implements NotificationVisitor {
         }
     }
 
+    @Override
+    public void visit(ResyncNotification msg) {
+        turn.onResync(msg.getSenderID());
+    }
+
     @Override
     public void visit(NicknameErrorNotification msg) {
         //do nothing
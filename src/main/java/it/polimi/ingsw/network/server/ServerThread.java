@@ -5,6 +5,7 @@ import it.polimi.ingsw.network.communication.notification.Notification;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * This class handle all new clients' connection, foreach clients instantiate a
@@ -13,10 +14,16 @@ import java.net.Socket;
 public class ServerThread implements Runnable {
     private final Server server;
     private final ServerSocket serverSocket;
+    private final ThreadFactory connectionThreads;
 
     public ServerThread(ServerSocket serverSocket, Server server) {
+        this(serverSocket, server, Thread::new);
+    }
+
+    public ServerThread(ServerSocket serverSocket, Server server, ThreadFactory connectionThreads) {
         this.serverSocket = serverSocket;
         this.server = server;
+        this.connectionThreads = connectionThreads;
     }
 
     /**
@@ -27,10 +34,9 @@ public class ServerThread implements Runnable {
         while (!Thread.currentThread().isInterrupted()) {
             try {
                 Socket socket = serverSocket.accept();
-                socket.setSoTimeout(6000);
-
-                SocketConnection socketConnection = new SocketConnection(this, socket);
-                new Thread(socketConnection).start();
+                SocketConnection socketConnection = new SocketConnection(this, socket, server.getOutboundPolicy());
+                connectionThreads.newThread(socketConnection).start();
+                connectionThreads.newThread(socketConnection::writeQueued).start();
 
             } catch (IOException e) {
                 Server.LOGGER.info(() -> "Problem during connection with a client");
@@ -44,7 +50,7 @@ public class ServerThread implements Runnable {
      * @param nickname         the nickname of the new client
      * @param socketConnection the connection with the client
      */
-    public void addClient(String nickname, SocketConnection socketConnection) {
+    public void addClient(String nickname, Connection socketConnection) {
         server.addClient(nickname, socketConnection);
     }
 
@@ -57,12 +63,22 @@ public class ServerThread implements Runnable {
         server.receiveMessage(msg);
     }
 
+    /**
+     * Start watching the liveness of a connection
+     *
+     * @param connection the new connection
+     * @return the entry of the connection in the {@link HeartbeatWheel} of the server
+     */
+    public HeartbeatWheel.Entry watch(Connection connection) {
+        return server.getHeartbeats().register(connection);
+    }
+
     /**
      * Handle a disconnection from a client.
      *
-     * @param client the disconnected client socket.
+     * @param connection the disconnected client connection.
      */
-    public void handleDisconnection(Socket client) {
-        server.handleDisconnection(client);
+    public void handleDisconnection(Connection connection) {
+        server.handleDisconnection(connection);
     }
 }
@@ -1,43 +1,59 @@
 package it.polimi.ingsw.network.server;
 
+import it.polimi.ingsw.network.communication.codec.EncodedNotification;
+import it.polimi.ingsw.network.communication.codec.FrameCodec;
 import it.polimi.ingsw.network.communication.notification.LoginNotification;
 import it.polimi.ingsw.network.communication.notification.Notification;
-import it.polimi.ingsw.network.communication.notification.PingNotification;
 
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import it.polimi.ingsw.utility.events.OutboundWriteEvent;
+import it.polimi.ingsw.utility.metrics.MetricsRegistry;
+
+import java.io.*;
 import java.net.Socket;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * This class represents a connection between the server and a client.
  * Server uses this class to communicate with the client. When a {@link Notification} arrives it is passed to server.
+ * Outgoing notifications are queued in an {@link OutboundQueue} and written by a dedicated writer, so that the thread
+ * that sends a message never waits for a slow client.
  */
 public class SocketConnection implements Connection {
+    private static final MetricsRegistry.CounterFamily RECEIVED = MetricsRegistry.GLOBAL.counters("messages.received");
+    private static final MetricsRegistry.CounterFamily SENT = MetricsRegistry.GLOBAL.counters("messages.sent");
+    private static final LongAdder BYTES_SENT = MetricsRegistry.GLOBAL.counter("bytes.sent");
     private final ServerThread server;
     private final Socket client;
-    private final Object outLock = new Object();
-    private ObjectOutputStream out;
-    private ObjectInputStream in;
-    private boolean running;
+    private final OutboundQueue outbound;
+    private final HeartbeatWheel.Entry heartbeat;
+    private OutputStream out;
+    private DataInputStream in;
+    private final AtomicBoolean running;
 
     public SocketConnection(ServerThread server, Socket client) {
+        this(server, client, OutboundPolicy.DEFAULT);
+    }
+
+    public SocketConnection(ServerThread server, Socket client, OutboundPolicy policy) {
         this.server = server;
         this.client = client;
-        this.running = true;
+        this.outbound = new OutboundQueue(policy);
+        this.running = new AtomicBoolean(true);
+        this.heartbeat = server.watch(this);
         try {
-            this.out = new ObjectOutputStream(client.getOutputStream());
-            this.in = new ObjectInputStream(client.getInputStream());
+            this.out = new BufferedOutputStream(client.getOutputStream());
+            this.in = new DataInputStream(new BufferedInputStream(client.getInputStream()));
         } catch (IOException e) {
             Server.LOGGER.info("Cannot instantiate a connection with client");
-            this.running = false;
+            this.running.set(false);
         }
     }
 
     /**
      * During the lifetime of the connection it waits for the client to send a message. When this happens the message is handled.
      * If it is a login notification (nickname provided by a client) the client is added to the server list of clients.
-     * If it is a {@link PingNotification} a {@link PingNotification} in response is sent.
+     * A heartbeat only marks the connection as alive, as every other frame does.
      * Otherwise, the server has to handle it.
      */
     @Override
@@ -45,17 +61,18 @@ public class SocketConnection implements Connection {
         Server.LOGGER.info(() -> "Client connected from " + client.getInetAddress());
         try {
             while (!Thread.currentThread().isInterrupted()) {
-                Notification notification = (Notification) in.readObject();
+                Notification notification = FrameCodec.read(in);
+                heartbeat.touch();
+                RECEIVED.increment(notification);
+                if (notification == FrameCodec.HEARTBEAT) continue;
                 if (notification instanceof LoginNotification loginNotification) {
                     server.addClient(loginNotification.getNickname(), this);
-                } else if ((notification instanceof PingNotification)) {
-                    sendMessage(new PingNotification()); //pong
                 } else {
-                    Server.LOGGER.info(() -> "Message received from: " + notification.getSenderID() + ". Type: " + notification.getClass().getName());
+                    ServerLog.received(notification);
                     server.receiveMessage(notification);
                 }
             }
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException e) {
             Server.LOGGER.info(() -> "Client is offline.");
         } finally {
             disconnect();
@@ -63,29 +80,73 @@ public class SocketConnection implements Connection {
     }
 
     /**
-     * Sends a message to the client
+     * During the lifetime of the connection it writes the queued notifications to the client.
+     * The stream is flushed only when the queue is empty, so a burst of notifications is sent together.
+     * The time the writer is blocked by the socket is recorded by an {@link OutboundWriteEvent}.
+     */
+    public void writeQueued() {
+        try {
+            Notification msg;
+            while ((msg = outbound.take()) != null) {
+                byte[] frame = FrameCodec.encode(msg);
+                OutboundWriteEvent event = new OutboundWriteEvent();
+                event.begin();
+                out.write(frame);
+                boolean flushed = outbound.isEmpty();
+                if (flushed) out.flush();
+                event.end();
+                BYTES_SENT.add(frame.length);
+                if (event.shouldCommit()) {
+                    event.type = EncodedNotification.unwrap(msg).getClass();
+                    event.size = frame.length;
+                    event.flushed = flushed;
+                    event.commit();
+                }
+            }
+        } catch (IOException e) {
+            Server.LOGGER.info(() -> "Couldn't send message to a client, closing connection.");
+            disconnect();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            disconnect();
+        }
+    }
+
+    /**
+     * Queue a message for the client, it is written by the writer of this connection. If the queue is full the
+     * client is disconnected, unless the policy allows to drop the message.
      *
      * @param msg to be sent
      */
     @Override
     public void sendMessage(Notification msg) {
-        synchronized (outLock) {
-            try {
-                out.writeObject(msg);
-            } catch (IOException e) {
-                Server.LOGGER.info(() -> "Couldn't send message to a client, closing connection.");
-                disconnect();
-            }
+        if (!running.get()) return;
+        SENT.increment(EncodedNotification.unwrap(msg));
+        if (!outbound.offer(msg)) {
+            Server.LOGGER.info(() -> "Client is too slow, closing connection.");
+            disconnect();
         }
     }
 
     /**
-     * Close the connection with the client
+     * Send a heartbeat only if nothing else is waiting to be written: any frame tells the client that the server is alive
+     */
+    @Override
+    public void sendHeartbeat() {
+        if (outbound.isEmpty()) sendMessage(FrameCodec.HEARTBEAT);
+    }
+
+    /**
+     * Close the connection with the client. It is called by the reader, the writer and the heartbeat wheel, even at
+     * the same time: only the first call closes the queue and the socket.
      */
     @Override
     public void disconnect() {
-        if (running) {
-            running = false;
+        if (running.compareAndSet(true, false)) {
+            heartbeat.cancel();
+            outbound.close();
+            if (outbound.getCoalesced() > 0 || outbound.getDropped() > 0)
+                Server.LOGGER.info(() -> "Outbound queue closed: " + outbound.getCoalesced() + " updates coalesced, " + outbound.getDropped() + " messages dropped");
             if (!client.isClosed()) {
                 try {
                     client.close();
@@ -94,10 +155,6 @@ public class SocketConnection implements Connection {
                 }
             }
         }
-        server.handleDisconnection(this.client);
-    }
-
-    protected Socket getClient() {
-        return client;
+        server.handleDisconnection(this);
     }
 }
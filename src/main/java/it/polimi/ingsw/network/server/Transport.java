@@ -0,0 +1,47 @@
+package it.polimi.ingsw.network.server;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The different ways the server can handle the connections with the clients
+ */
+public enum Transport {
+    /**
+     * Each client is served by its own platform thread blocked on the socket ({@link SocketConnection})
+     */
+    SOCKET,
+    /**
+     * Each client is served by its own virtual thread blocked on the socket ({@link SocketConnection}).
+     * Virtual threads are available from Java 21, on older runtimes platform threads are used instead.
+     */
+    VIRTUAL_THREAD,
+    /**
+     * All clients are served by a small set of selector based event loops ({@link NioConnection})
+     */
+    NIO;
+
+    /**
+     * @return the factory of the threads that accept and serve the clients with this transport
+     */
+    public ThreadFactory threadFactory() {
+        if (this == VIRTUAL_THREAD) return virtualThreadFactory();
+        return Thread::new;
+    }
+
+    /**
+     * Virtual threads are looked up reflectively because the project is compiled for Java 17.
+     *
+     * @return a factory of virtual threads if the runtime supports them, a factory of platform threads otherwise
+     */
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "connection-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            Server.LOGGER.warning(() -> "Virtual threads are not supported by this runtime, using platform threads.");
+            return Thread::new;
+        }
+    }
+}
@@ -16,62 +16,81 @@ import java.util.Set;
 /**
  * This class represents a fake view that is used to hide to the server the real views.
  * It allows to use MVC pattern "locally"
+ * <p>
+ * Before any message that isn't a model update, the view runs a hook: the controller uses it to send the pending model
+ * update first, so a player always sees the model before being asked to act on it.
  */
 public class VirtualView implements View, Observer {
     private final Connection connection;
+    private final Runnable beforeSend;
 
     public VirtualView(Connection connection) {
+        this(connection, () -> {
+        });
+    }
+
+    /**
+     * @param connection the connection with the client
+     * @param beforeSend the hook run before sending a message that isn't a model update
+     */
+    public VirtualView(Connection connection, Runnable beforeSend) {
         this.connection = connection;
+        this.beforeSend = beforeSend;
+    }
+
+    private void send(Notification msg) {
+        beforeSend.run();
+        connection.sendMessage(msg);
     }
 
     @Override
     public void setNickname() {
-        connection.sendMessage(new LoginNotification(""));
+        send(new LoginNotification(""));
     }
 
     @Override
     public void chooseGameMode() {
-        connection.sendMessage(new ChooseGameModeNotification(0, false));
+        send(new ChooseGameModeNotification(0, false));
     }
 
     @Override
     public void chooseWizardAndTowerColor(Set<Wizard> wizardsAvailable, Set<TowerColor> colorsAvailable) {
-        connection.sendMessage(new ChooseWizAndTowerColorNotification(wizardsAvailable, colorsAvailable));
+        send(new ChooseWizAndTowerColorNotification(wizardsAvailable, colorsAvailable));
     }
 
     @Override
     public void chooseAssistant(Set<Assistant> playableAssistant) {
-        connection.sendMessage(new ChooseAssistantNotification(playableAssistant));
+        send(new ChooseAssistantNotification(playableAssistant));
     }
 
     @Override
     public void chooseCloud(List<ShortCloud> clouds) {
-        connection.sendMessage(new ChooseCloudNotification(clouds));
+        send(new ChooseCloudNotification(clouds));
     }
 
     @Override
     public void moveStudent(List<PawnColor> movableColor) {
-        connection.sendMessage(new MoveStudentNotification(movableColor));
+        send(new MoveStudentNotification(movableColor));
     }
 
     @Override
     public void moveMNature(int maximumSteps) {
-        connection.sendMessage(new MoveMNNotification(maximumSteps));
+        send(new MoveMNNotification(maximumSteps));
     }
 
     @Override
     public void askColor() {
-        connection.sendMessage(new ColorNotification());
+        send(new ColorNotification());
     }
 
     @Override
     public void askIsland() {
-        connection.sendMessage(new IslandNotification());
+        send(new IslandNotification());
     }
 
     @Override
     public void askSwapList(int swap) {
-        connection.sendMessage(new SwapNotification(swap));
+        send(new SwapNotification(swap));
     }
 
     @Override
@@ -81,17 +100,17 @@ public class VirtualView implements View, Observer {
 
     @Override
     public void showError(String msg) {
-        connection.sendMessage(new ErrorMessageNotification(msg));
+        send(new ErrorMessageNotification(msg));
     }
 
     @Override
     public void win(String winner, boolean win) {
-        connection.sendMessage(new WinNotification(winner, win));
+        send(new WinNotification(winner, win));
     }
 
     @Override
     public void showMessage(String msg) {
-        connection.sendMessage(new GenericMessageNotification(msg));
+        send(new GenericMessageNotification(msg));
     }
 
     @Override
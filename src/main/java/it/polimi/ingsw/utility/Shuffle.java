@@ -0,0 +1,26 @@
+package it.polimi.ingsw.utility;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Shuffling with any {@link RandomGenerator}: {@link Collections#shuffle(List, java.util.Random)} only accepts a
+ * {@link java.util.Random}, so it can't use the seeded generator of a match.
+ */
+public class Shuffle {
+    private Shuffle() {
+        //cannot be instantiated
+    }
+
+    /**
+     * Randomly permute a list (Fisher-Yates), every permutation has the same probability
+     *
+     * @param list   the list to shuffle, it must support {@link List#set}
+     * @param random the source of randomness
+     */
+    public static void shuffle(List<?> list, RandomGenerator random) {
+        for (int i = list.size() - 1; i > 0; i--)
+            Collections.swap(list, i, random.nextInt(i + 1));
+    }
+}
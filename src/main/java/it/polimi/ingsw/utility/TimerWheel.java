@@ -0,0 +1,206 @@
+package it.polimi.ingsw.utility;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A hashed timing wheel that runs the timeouts of many owners with a single thread.
+ * <p>
+ * The wheel is a ring of slots, one for each tick of the clock: a timeout waits in the slot of its deadline and at
+ * each tick only the timeouts of the current slot are visited, so scheduling and cancelling cost O(1) and a wheel with
+ * nothing to run costs one wake-up per tick. A timeout farther than a round of the wheel is visited once per round
+ * until its deadline comes.
+ * <p>
+ * A periodic task doesn't need a new timeout for each run: {@link #reschedule(Timeout, long)} puts the same timeout back
+ * in the wheel. Called by a task, it links the timeout straight into the slot of its new deadline, so a task that
+ * repeats itself costs O(1) and never allocates.
+ * <p>
+ * The tasks run on the thread of the wheel and must be short: a task that has work to do hands it to its owner. The
+ * server has a single wheel for all its timeouts: the turn deadlines of the matches and the heartbeats of the
+ * connections.
+ */
+public class TimerWheel {
+    private static final Logger LOGGER = Logger.getLogger(TimerWheel.class.getName());
+    private static final int SLOTS = 64;
+    private final String name;
+    private final long tickMillis;
+    private final Timeout[] wheel;
+    private final Queue<Timeout> scheduled;
+    private volatile long currentTick;
+    private Thread thread;
+    /**
+     * The thread inside {@link #tick()}, only that thread can see itself here
+     */
+    private Thread ticking;
+
+    /**
+     * @param name       the name of the thread of the wheel
+     * @param tickMillis the duration of a tick, the precision of the timeouts
+     */
+    public TimerWheel(String name, long tickMillis) {
+        this.name = name;
+        this.tickMillis = tickMillis;
+        this.wheel = new Timeout[SLOTS];
+        this.scheduled = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Start the thread of the wheel, it is a daemon thread
+     */
+    public synchronized void start() {
+        if (thread != null) return;
+        thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stop the thread of the wheel, the pending timeouts are not run
+     */
+    public synchronized void stop() {
+        if (thread != null) thread.interrupt();
+        thread = null;
+    }
+
+    private void run() {
+        long next = System.nanoTime();
+        long tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        while (!Thread.currentThread().isInterrupted()) {
+            next += tickNanos;
+            long wait;
+            while ((wait = next - System.nanoTime()) > 0 && !Thread.currentThread().isInterrupted())
+                LockSupport.parkNanos(wait);
+            tick();
+        }
+    }
+
+    /**
+     * Run a task after a delay. It can be called by any thread: the timeout enters the wheel at the next tick.
+     *
+     * @param task        the task to run on the thread of the wheel
+     * @param delayMillis the delay, rounded up to a whole number of ticks
+     * @return the timeout, to cancel it
+     */
+    public Timeout schedule(Runnable task, long delayMillis) {
+        Timeout timeout = new Timeout(task);
+        reschedule(timeout, delayMillis);
+        return timeout;
+    }
+
+    /**
+     * Put a timeout in the wheel again, with a new delay. The timeout must not be waiting in the wheel: it is a new one,
+     * or one that has expired, e.g. the timeout of the task that is running. A cancelled timeout stays cancelled.
+     * <p>
+     * Called by a task of the wheel, the timeout is linked into its slot at once and nothing is allocated; called by
+     * any other thread, it enters the wheel at the next tick.
+     *
+     * @param timeout     the timeout
+     * @param delayMillis the delay, rounded up to a whole number of ticks
+     */
+    public void reschedule(Timeout timeout, long delayMillis) {
+        timeout.delayTicks = Math.max(1, (delayMillis + tickMillis - 1) / tickMillis);
+        if (Thread.currentThread() == ticking) {
+            timeout.deadline = currentTick + timeout.delayTicks;
+            add(timeout);
+        } else {
+            scheduled.add(timeout);
+        }
+    }
+
+    /**
+     * @return the duration of a tick
+     */
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * @return the number of ticks since the wheel was created, it can be read by any thread
+     */
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Advance the clock by one tick and run the expired timeouts of the new slot. It is called by the thread of the
+     * wheel; a wheel that hasn't been started can be advanced by hand, e.g. by a test.
+     */
+    public void tick() {
+        long tick = currentTick + 1;
+        currentTick = tick;
+        ticking = Thread.currentThread();
+        try {
+            Timeout timeout;
+            while ((timeout = scheduled.poll()) != null) {
+                timeout.deadline = tick - 1 + timeout.delayTicks; //scheduled during the previous tick
+                if (timeout.deadline <= tick) expire(timeout);
+                else add(timeout);
+            }
+            int slot = (int) (tick & (SLOTS - 1));
+            timeout = wheel[slot];
+            wheel[slot] = null;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                timeout.next = null;
+                if (timeout.deadline > tick) add(timeout); //the wheel has gone around, not its turn yet
+                else expire(timeout);
+                timeout = next;
+            }
+        } finally {
+            ticking = null;
+        }
+    }
+
+    private void add(Timeout timeout) {
+        int slot = (int) (timeout.deadline & (SLOTS - 1));
+        timeout.next = wheel[slot];
+        wheel[slot] = timeout;
+    }
+
+    private void expire(Timeout timeout) {
+        if (timeout.cancelled) return;
+        try {
+            timeout.task.run();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, e, () -> "Error while running a timeout");
+        }
+    }
+
+    /**
+     * A task waiting in the wheel
+     */
+    public static class Timeout {
+        private final Runnable task;
+        private volatile boolean cancelled;
+        private long delayTicks;
+        private long deadline;
+        private Timeout next;
+
+        /**
+         * Create a timeout that isn't in the wheel yet, it is scheduled by {@link TimerWheel#reschedule(Timeout, long)}
+         *
+         * @param task the task to run on the thread of the wheel
+         */
+        public Timeout(Runnable task) {
+            this.task = task;
+        }
+
+        /**
+         * Don't run the task, it is dropped from the wheel when its slot is visited
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * @return true if the timeout has been cancelled
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
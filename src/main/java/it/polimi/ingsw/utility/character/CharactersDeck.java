@@ -3,10 +3,12 @@ package it.polimi.ingsw.utility.character;
 import it.polimi.ingsw.constants.Constants;
 import it.polimi.ingsw.model.character.CharacterCard;
 import it.polimi.ingsw.network.server.Server;
+import it.polimi.ingsw.utility.Shuffle;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * This class represents the deck of characters.
@@ -24,9 +26,19 @@ public class CharactersDeck {
      * @return a list of 3 character
      */
     public static List<CharacterCard> extractCharacterInUse() {
+        return extractCharacterInUse(new Random());
+    }
+
+    /**
+     * Return a random list of 3 character, chosen with the given generator so that the choice can be repeated
+     *
+     * @param random the source of randomness of the match
+     * @return a list of 3 character
+     */
+    public static List<CharacterCard> extractCharacterInUse(RandomGenerator random) {
         List<CharacterCard> characters = new ArrayList<>();
         characterCards.forEach(character -> characters.add(new CharacterCard(character)));
-        Collections.shuffle(characters);
+        Shuffle.shuffle(characters, random);
         return characters.stream().limit(Constants.CHARACTER_IN_USE).toList();
     }
 
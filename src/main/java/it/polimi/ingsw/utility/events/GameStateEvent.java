@@ -0,0 +1,26 @@
+package it.polimi.ingsw.utility.events;
+
+import jdk.jfr.*;
+
+/**
+ * A transition of the state of the turn of a match
+ */
+@Name("it.polimi.ingsw.GameState")
+@Label("Game State Transition")
+@Category({"Eriantys", "Match"})
+@Enabled(false)
+@StackTrace(false)
+public class GameStateEvent extends Event {
+    @Label("From")
+    public String from;
+
+    @Label("To")
+    public String to;
+
+    @Label("Player")
+    @Description("The player of the turn")
+    public String player;
+
+    @Label("Match Seed")
+    public long seed;
+}
@@ -0,0 +1,20 @@
+package it.polimi.ingsw.utility.events;
+
+import jdk.jfr.*;
+
+/**
+ * The decoding of the payload of a frame received by the server
+ */
+@Name("it.polimi.ingsw.MessageDecode")
+@Label("Message Decode")
+@Category({"Eriantys", "Network"})
+@Enabled(false)
+@StackTrace(false)
+public class MessageDecodeEvent extends Event {
+    @Label("Message Type")
+    public Class<?> type;
+
+    @Label("Payload Size")
+    @DataAmount
+    public int size;
+}
@@ -0,0 +1,27 @@
+package it.polimi.ingsw.utility.events;
+
+import jdk.jfr.*;
+
+/**
+ * The handling of a message by the match of its sender, from the dispatch to the server side visitor to the flush
+ * of the model update
+ */
+@Name("it.polimi.ingsw.MessageDispatch")
+@Label("Message Dispatch")
+@Category({"Eriantys", "Match"})
+@Enabled(false)
+@StackTrace(false)
+public class MessageDispatchEvent extends Event {
+    @Label("Message Type")
+    public Class<?> type;
+
+    @Label("Player")
+    public String player;
+
+    @Label("Match Seed")
+    public long seed;
+
+    @Label("Default Move")
+    @Description("Whether the message is a default move played by the server after a deadline")
+    public boolean defaultMove;
+}
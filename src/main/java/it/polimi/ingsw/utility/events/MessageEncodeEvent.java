@@ -0,0 +1,20 @@
+package it.polimi.ingsw.utility.events;
+
+import jdk.jfr.*;
+
+/**
+ * The encoding of a message in a frame, a message shared by many players is encoded once
+ */
+@Name("it.polimi.ingsw.MessageEncode")
+@Label("Message Encode")
+@Category({"Eriantys", "Network"})
+@Enabled(false)
+@StackTrace(false)
+public class MessageEncodeEvent extends Event {
+    @Label("Message Type")
+    public Class<?> type;
+
+    @Label("Frame Size")
+    @DataAmount
+    public int size;
+}
@@ -0,0 +1,24 @@
+package it.polimi.ingsw.utility.events;
+
+import jdk.jfr.*;
+
+/**
+ * The write of a frame to the socket of a client, its duration is the time the writer was blocked by the socket
+ */
+@Name("it.polimi.ingsw.OutboundWrite")
+@Label("Outbound Write")
+@Category({"Eriantys", "Network"})
+@Enabled(false)
+@StackTrace(false)
+public class OutboundWriteEvent extends Event {
+    @Label("Message Type")
+    public Class<?> type;
+
+    @Label("Frame Size")
+    @DataAmount
+    public int size;
+
+    @Label("Flushed")
+    @Description("Whether the stream was flushed after the frame, because the queue was empty")
+    public boolean flushed;
+}
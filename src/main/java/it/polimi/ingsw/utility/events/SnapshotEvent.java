@@ -0,0 +1,20 @@
+package it.polimi.ingsw.utility.events;
+
+import jdk.jfr.*;
+
+/**
+ * The build of a snapshot of the model and of its delta from the previous one
+ */
+@Name("it.polimi.ingsw.Snapshot")
+@Label("Model Snapshot")
+@Category({"Eriantys", "Match"})
+@Enabled(false)
+@StackTrace(false)
+public class SnapshotEvent extends Event {
+    @Label("Version")
+    public int version;
+
+    @Label("Sent")
+    @Description("Whether the snapshot changed something and an update was sent to the players")
+    public boolean sent;
+}
@@ -0,0 +1,176 @@
+package it.polimi.ingsw.utility.logging;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * A handler that takes the log records off the threads of the server.
+ * <p>
+ * {@link #publish(LogRecord)} only puts the record in a ring buffer: it never formats, never writes and never waits for
+ * a lock. A background thread takes the records in order and hands them to the target handlers (e.g. the console and a
+ * rotating file), so the formatting, the writes and the rotation of the files are all done by that thread. When the
+ * buffer is full the new records are dropped and counted: a slow disk can't slow the matches down.
+ */
+public class AsyncLogHandler extends Handler {
+    /**
+     * The default number of records the buffer can hold
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private final AtomicReferenceArray<LogRecord> ring;
+    private final int mask;
+    private final AtomicLong head;
+    private final LongAdder dropped;
+    private final List<Handler> targets;
+    private final Thread writer;
+    private volatile long tail;
+    private volatile boolean closed;
+
+    /**
+     * @param capacity the number of records the buffer can hold, rounded up to a power of two
+     * @param targets  the handlers the records are given to, by the background thread
+     */
+    public AsyncLogHandler(int capacity, List<Handler> targets) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.head = new AtomicLong();
+        this.dropped = new LongAdder();
+        this.targets = List.copyOf(targets);
+        this.writer = new Thread(this::run, "async-log");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Replace the handlers of a logger with an asynchronous handler that forwards to the given targets. The records
+     * still in the buffer are written when the JVM shuts down.
+     *
+     * @param logger  the logger
+     * @param targets the handlers that write the records
+     * @return the new handler
+     */
+    public static AsyncLogHandler install(Logger logger, List<Handler> targets) {
+        AsyncLogHandler handler = new AsyncLogHandler(DEFAULT_CAPACITY, targets);
+        for (Handler old : logger.getHandlers())
+            logger.removeHandler(old);
+        logger.setUseParentHandlers(false);
+        logger.addHandler(handler);
+        Runtime.getRuntime().addShutdownHook(new Thread(handler::close, "async-log-shutdown"));
+        return handler;
+    }
+
+    /**
+     * Put a record in the buffer, it can be called by any thread
+     *
+     * @param logRecord the record
+     */
+    @Override
+    public void publish(LogRecord logRecord) {
+        if (closed || !isLoggable(logRecord)) return;
+        long sequence;
+        do {
+            sequence = head.get();
+            if (sequence - tail >= ring.length()) {
+                dropped.increment();
+                return;
+            }
+        } while (!head.compareAndSet(sequence, sequence + 1));
+        ring.set((int) sequence & mask, logRecord);
+    }
+
+    private void run() {
+        while (true) {
+            if (drain() > 0) {
+                flushTargets();
+                continue;
+            }
+            reportDropped();
+            if (closed && tail == head.get()) return;
+            LockSupport.parkNanos(IDLE_NANOS);
+        }
+    }
+
+    /**
+     * Give the records in the buffer to the targets, in order. A slot that has been claimed but not filled yet stops
+     * the drain until the next round.
+     *
+     * @return the number of records given
+     */
+    private int drain() {
+        int count = 0;
+        while (true) {
+            int slot = (int) tail & mask;
+            LogRecord logRecord = ring.get(slot);
+            if (logRecord == null) return count;
+            ring.set(slot, null);
+            tail = tail + 1; //only the writer moves the tail
+            deliver(logRecord);
+            count++;
+        }
+    }
+
+    private void deliver(LogRecord logRecord) {
+        for (Handler target : targets) {
+            try {
+                target.publish(logRecord);
+            } catch (RuntimeException e) {
+                reportError("Log record not written", e, ErrorManager.WRITE_FAILURE);
+            }
+        }
+    }
+
+    private void reportDropped() {
+        long count = dropped.sumThenReset();
+        if (count > 0) {
+            deliver(new LogRecord(Level.WARNING, count + " log records dropped, the log buffer is full"));
+            flushTargets();
+        }
+    }
+
+    private void flushTargets() {
+        for (Handler target : targets)
+            target.flush();
+    }
+
+    /**
+     * @return the number of records dropped since the last report
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * The targets are flushed by the background thread after each batch of records
+     */
+    @Override
+    public void flush() {
+        LockSupport.unpark(writer);
+    }
+
+    /**
+     * Write the records still in the buffer, then close the targets. The records published later are ignored.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Handler target : targets)
+            target.close();
+    }
+}
@@ -0,0 +1,34 @@
+package it.polimi.ingsw.utility.logging;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Chooses at random which of many similar events are logged, e.g. one message received in a hundred: the log keeps a
+ * picture of the traffic without a record for each message.
+ */
+public class LogSampler {
+    private final int oneIn;
+
+    /**
+     * @param oneIn one event in this number is logged, 1 logs all of them
+     */
+    public LogSampler(int oneIn) {
+        this.oneIn = Math.max(1, oneIn);
+    }
+
+    /**
+     * It can be called by any thread
+     *
+     * @return true if the event must be logged
+     */
+    public boolean sample() {
+        return oneIn == 1 || ThreadLocalRandom.current().nextInt(oneIn) == 0;
+    }
+
+    /**
+     * @return one event in this number is logged
+     */
+    public int getOneIn() {
+        return oneIn;
+    }
+}
@@ -0,0 +1,40 @@
+package it.polimi.ingsw.utility.logging;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.logging.Formatter;
+import java.util.logging.LogRecord;
+
+/**
+ * Writes a record on one line: the instant, the level, the thread that logged it, the message and then the fields of a
+ * {@link StructuredRecord} as {@code key=value} pairs, e.g.
+ * {@code 2022-06-01T10:00:00Z INFO [thread 21] Default move played match=5deece66d player=alice state=MOVE_STUDENT}.
+ * The stack trace of the thrown exception, if any, follows on the next lines.
+ */
+public class StructuredFormatter extends Formatter {
+    @Override
+    public String format(LogRecord logRecord) {
+        StringBuilder line = new StringBuilder(128)
+                .append(logRecord.getInstant())
+                .append(' ').append(logRecord.getLevel().getName())
+                .append(" [thread ").append(logRecord.getLongThreadID()).append("] ")
+                .append(formatMessage(logRecord));
+        if (logRecord instanceof StructuredRecord structured) {
+            field(line, "match", structured.getMatch());
+            field(line, "player", structured.getPlayer());
+            field(line, "type", structured.getType());
+            field(line, "state", structured.getState());
+        }
+        line.append(System.lineSeparator());
+        if (logRecord.getThrown() != null) {
+            StringWriter trace = new StringWriter();
+            logRecord.getThrown().printStackTrace(new PrintWriter(trace));
+            line.append(trace);
+        }
+        return line.toString();
+    }
+
+    private static void field(StringBuilder line, String key, String value) {
+        if (value != null) line.append(' ').append(key).append('=').append(value);
+    }
+}
@@ -0,0 +1,52 @@
+package it.polimi.ingsw.utility.logging;
+
+import java.io.Serial;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * A log record of the server with the fields that identify what it is about: the match, the player, the type of the
+ * message and the state of the turn. The fields are kept apart from the message, so the message is a constant and a
+ * record costs no string building on the thread that logs it; the {@link StructuredFormatter} writes them as
+ * {@code key=value} pairs, on the thread that writes the log.
+ */
+public class StructuredRecord extends LogRecord {
+    @Serial
+    private static final long serialVersionUID = 4871093254415368610L;
+    private final String match;
+    private final String player;
+    private final String type;
+    private final String state;
+
+    /**
+     * @param level   the level of the record
+     * @param message the message, without the fields
+     * @param match   the id of the match, or null
+     * @param player  the nickname of the player, or null
+     * @param type    the type of the message, or null
+     * @param state   the state of the turn, or null
+     */
+    public StructuredRecord(Level level, String message, String match, String player, String type, String state) {
+        super(level, message);
+        this.match = match;
+        this.player = player;
+        this.type = type;
+        this.state = state;
+    }
+
+    public String getMatch() {
+        return match;
+    }
+
+    public String getPlayer() {
+        return player;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getState() {
+        return state;
+    }
+}
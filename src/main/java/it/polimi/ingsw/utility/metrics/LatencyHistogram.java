@@ -0,0 +1,115 @@
+package it.polimi.ingsw.utility.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations that can be updated by many threads without locks.
+ * <p>
+ * Values are counted in log-linear buckets: each power of two is split in 8 buckets, so a percentile is
+ * reported with a relative error below 12.5%, whatever the magnitude of the values.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private final AtomicLongArray counts;
+    private final LongAdder total;
+    private final LongAdder sum;
+    private final AtomicLong max;
+
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.total = new LongAdder();
+        this.sum = new LongAdder();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * @param value a non-negative value
+     * @return the bucket of the value
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * @param bucket a bucket
+     * @return the highest value counted in the bucket
+     */
+    static long highestOf(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        return lowest + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    /**
+     * Count a duration
+     *
+     * @param nanos the duration in nanoseconds, negative values are counted as zero
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        total.increment();
+        sum.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * @return the number of counted durations
+     */
+    public long getCount() {
+        return total.sum();
+    }
+
+    /**
+     * @return the longest counted duration in nanoseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return the mean of the counted durations in nanoseconds, 0 if nothing was counted
+     */
+    public double getMean() {
+        long count = total.sum();
+        return count == 0 ? 0 : (double) sum.sum() / count;
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100
+     * @return an upper bound of the given percentile in nanoseconds, 0 if nothing was counted
+     */
+    public long getPercentile(double percentile) {
+        long count = total.sum();
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) return Math.min(highestOf(bucket), max.get());
+        }
+        return max.get();
+    }
+
+    /**
+     * @param unit the unit of the reported values
+     * @return a short description with the count, the median, the 90th, the 99th percentile and the maximum
+     */
+    public String summary(TimeUnit unit) {
+        return String.format("count=%d p50=%d p90=%d p99=%d max=%d %s", getCount(),
+                unit.convert(getPercentile(50), TimeUnit.NANOSECONDS),
+                unit.convert(getPercentile(90), TimeUnit.NANOSECONDS),
+                unit.convert(getPercentile(99), TimeUnit.NANOSECONDS),
+                unit.convert(getMax(), TimeUnit.NANOSECONDS),
+                unit.name().toLowerCase());
+    }
+}
@@ -0,0 +1,322 @@
+package it.polimi.ingsw.utility.metrics;
+
+import javax.management.*;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The counters and the histograms of the server, by name.
+ * <p>
+ * Counters are {@link LongAdder}s and histograms are {@link LatencyHistogram}s, so they are updated by many threads
+ * without locks. The lookup by name is done once: the instrumented code keeps the counter, or a family of counters
+ * that finds the one of a class (e.g. of a type of message) with a {@link ClassValue}.
+ * <p>
+ * The metrics can be read through JMX and written periodically to a file, with the rate of each counter since the
+ * previous dump.
+ */
+public class MetricsRegistry {
+    /**
+     * The registry of the server
+     */
+    public static final MetricsRegistry GLOBAL = new MetricsRegistry();
+    private static final Logger LOGGER = Logger.getLogger(MetricsRegistry.class.getName());
+    private final Map<String, LongAdder> counters;
+    private final Map<String, LatencyHistogram> histograms;
+    private ScheduledExecutorService dumper;
+
+    public MetricsRegistry() {
+        this.counters = new ConcurrentSkipListMap<>();
+        this.histograms = new ConcurrentSkipListMap<>();
+    }
+
+    /**
+     * @param name the name of the counter
+     * @return the counter with the given name, created if it doesn't exist
+     */
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * @param name the name of the histogram
+     * @return the histogram with the given name, created if it doesn't exist
+     */
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Publish a histogram owned by another object, it replaces the histogram with the same name
+     *
+     * @param name      the name of the histogram
+     * @param histogram the histogram
+     */
+    public void register(String name, LatencyHistogram histogram) {
+        histograms.put(name, histogram);
+    }
+
+    /**
+     * @param prefix the prefix of the names of the counters
+     * @return a family of counters, one for each class, named after the prefix and the simple name of the class
+     */
+    public CounterFamily counters(String prefix) {
+        return new CounterFamily(this, prefix);
+    }
+
+    /**
+     * @param prefix the prefix of the names of the histograms
+     * @return a family of histograms, one for each class, named after the prefix and the simple name of the class
+     */
+    public HistogramFamily histograms(String prefix) {
+        return new HistogramFamily(this, prefix);
+    }
+
+    /**
+     * @return the current value of each counter, by name
+     */
+    public SortedMap<String, Long> getCounters() {
+        SortedMap<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        return values;
+    }
+
+    /**
+     * @return the histograms, by name
+     */
+    public SortedMap<String, LatencyHistogram> getHistograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    /**
+     * Publish the metrics as the attributes of an MBean of the platform server. Each counter is an attribute, each
+     * histogram is published as its count and its percentiles in microseconds.
+     *
+     * @param name the name of the MBean, e.g. {@code it.polimi.ingsw:type=Metrics}
+     * @throws JMException if the MBean can't be registered
+     */
+    public void registerMBean(String name) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName(name);
+        if (server.isRegistered(objectName)) server.unregisterMBean(objectName);
+        server.registerMBean(new MetricsMBean(), objectName);
+    }
+
+    /**
+     * Write the metrics to a file periodically, on a daemon thread. The file is replaced at each dump.
+     *
+     * @param file         the file of the metrics
+     * @param periodMillis the time between two dumps
+     */
+    public synchronized void startDump(Path file, long periodMillis) {
+        stopDump();
+        dumper = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Dump dump = new Dump(file);
+        dumper.scheduleAtFixedRate(dump, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop writing the metrics to a file
+     */
+    public synchronized void stopDump() {
+        if (dumper != null) dumper.shutdownNow();
+        dumper = null;
+    }
+
+    /**
+     * Write the metrics, one per line: each counter with its rate since the previous values, each histogram with its
+     * count, its percentiles and its maximum in microseconds.
+     *
+     * @param out          where to write
+     * @param previous     the values of the counters at the previous dump
+     * @param elapsedNanos the time since the previous dump
+     * @return the values of the counters, for the next dump
+     * @throws IOException if the metrics can't be written
+     */
+    SortedMap<String, Long> write(Writer out, Map<String, Long> previous, long elapsedNanos) throws IOException {
+        SortedMap<String, Long> values = getCounters();
+        out.write("# metrics at " + Instant.now() + "\n");
+        for (Map.Entry<String, Long> counter : values.entrySet()) {
+            long delta = counter.getValue() - previous.getOrDefault(counter.getKey(), 0L);
+            out.write(String.format(Locale.ROOT, "%s %d %.1f/s%n", counter.getKey(), counter.getValue(),
+                    elapsedNanos > 0 ? delta * 1e9 / elapsedNanos : 0));
+        }
+        for (Map.Entry<String, LatencyHistogram> histogram : getHistograms().entrySet())
+            out.write(histogram.getKey() + " " + histogram.getValue().summary(TimeUnit.MICROSECONDS) + "\n");
+        out.flush();
+        return values;
+    }
+
+    /**
+     * A periodic dump to a file. The metrics are written to a temporary file that replaces the old one, so a reader
+     * never finds a half written file.
+     */
+    private class Dump implements Runnable {
+        private final Path file;
+        private final Path temporary;
+        private Map<String, Long> previous;
+        private long previousNanos;
+
+        private Dump(Path file) {
+            this.file = file;
+            this.temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            this.previous = getCounters();
+            this.previousNanos = System.nanoTime();
+        }
+
+        @Override
+        public void run() {
+            long now = System.nanoTime();
+            try (Writer out = Files.newBufferedWriter(temporary)) {
+                previous = write(out, previous, now - previousNanos);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, e, () -> "Metrics not written to " + file);
+                return;
+            }
+            previousNanos = now;
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, e, () -> "Metrics not written to " + file);
+            }
+        }
+    }
+
+    /**
+     * A family of counters, one for each class
+     */
+    public static class CounterFamily {
+        private final ClassValue<LongAdder> counters;
+
+        private CounterFamily(MetricsRegistry registry, String prefix) {
+            this.counters = new ClassValue<>() {
+                @Override
+                protected LongAdder computeValue(Class<?> type) {
+                    return registry.counter(prefix + "." + type.getSimpleName());
+                }
+            };
+        }
+
+        /**
+         * Increment the counter of the class of an object
+         *
+         * @param instance the object counted
+         */
+        public void increment(Object instance) {
+            counters.get(instance.getClass()).increment();
+        }
+    }
+
+    /**
+     * A family of histograms, one for each class
+     */
+    public static class HistogramFamily {
+        private final ClassValue<LatencyHistogram> histograms;
+
+        private HistogramFamily(MetricsRegistry registry, String prefix) {
+            this.histograms = new ClassValue<>() {
+                @Override
+                protected LatencyHistogram computeValue(Class<?> type) {
+                    return registry.histogram(prefix + "." + type.getSimpleName());
+                }
+            };
+        }
+
+        /**
+         * Count a duration in the histogram of the class of an object
+         *
+         * @param instance the object measured
+         * @param nanos    the duration in nanoseconds
+         */
+        public void record(Object instance, long nanos) {
+            histograms.get(instance.getClass()).record(nanos);
+        }
+    }
+
+    /**
+     * The read-only MBean of the registry. Its attributes change when new metrics are created.
+     */
+    private class MetricsMBean implements DynamicMBean {
+        private static final String[] PERCENTILES = {"p50", "p90", "p99"};
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            LongAdder counter = counters.get(attribute);
+            if (counter != null) return counter.sum();
+            int dot = attribute.lastIndexOf('.');
+            LatencyHistogram histogram = dot < 0 ? null : histograms.get(attribute.substring(0, dot));
+            if (histogram == null) throw new AttributeNotFoundException(attribute);
+            return switch (attribute.substring(dot + 1)) {
+                case "count" -> histogram.getCount();
+                case "p50" -> TimeUnit.NANOSECONDS.toMicros(histogram.getPercentile(50));
+                case "p90" -> TimeUnit.NANOSECONDS.toMicros(histogram.getPercentile(90));
+                case "p99" -> TimeUnit.NANOSECONDS.toMicros(histogram.getPercentile(99));
+                case "max" -> TimeUnit.NANOSECONDS.toMicros(histogram.getMax());
+                default -> throw new AttributeNotFoundException(attribute);
+            };
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                try {
+                    list.add(new Attribute(attribute, getAttribute(attribute)));
+                } catch (AttributeNotFoundException e) {
+                    //the missing attributes are not returned
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException(attribute.getName() + " is read-only");
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            throw new ReflectionException(new NoSuchMethodException(actionName));
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attributes = new ArrayList<>();
+            for (String counter : counters.keySet())
+                attributes.add(attribute(counter, "Counter"));
+            for (String histogram : histograms.keySet()) {
+                attributes.add(attribute(histogram + ".count", "Number of durations"));
+                for (String percentile : PERCENTILES)
+                    attributes.add(attribute(histogram + "." + percentile, "Percentile in microseconds"));
+                attributes.add(attribute(histogram + ".max", "Maximum in microseconds"));
+            }
+            return new MBeanInfo(MetricsRegistry.class.getName(), "Metrics of the server",
+                    attributes.toArray(new MBeanAttributeInfo[0]), null, null, null);
+        }
+
+        private MBeanAttributeInfo attribute(String name, String description) {
+            return new MBeanAttributeInfo(name, Long.class.getName(), description, true, false, false);
+        }
+    }
+}
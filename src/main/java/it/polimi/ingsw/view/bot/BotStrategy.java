@@ -0,0 +1,15 @@
+package it.polimi.ingsw.view.bot;
+
+/**
+ * How a {@link BotView} chooses its moves. Every strategy only plays legal moves.
+ */
+public enum BotStrategy {
+    /**
+     * Every legal move has the same probability
+     */
+    RANDOM,
+    /**
+     * Play the lowest assistant, fill the hall, move mother nature on the most crowded island and pick the fullest cloud
+     */
+    GREEDY
+}
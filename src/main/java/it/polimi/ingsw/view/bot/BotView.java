@@ -0,0 +1,281 @@
+package it.polimi.ingsw.view.bot;
+
+import it.polimi.ingsw.constants.Constants;
+import it.polimi.ingsw.controller.client.ClientController;
+import it.polimi.ingsw.model.ShortModel;
+import it.polimi.ingsw.model.character.ShortCharacter;
+import it.polimi.ingsw.model.clouds.ShortCloud;
+import it.polimi.ingsw.model.pawns.PawnColor;
+import it.polimi.ingsw.model.place.ShortIsland;
+import it.polimi.ingsw.model.place.ShortSchool;
+import it.polimi.ingsw.model.player.Assistant;
+import it.polimi.ingsw.model.player.ShortPlayer;
+import it.polimi.ingsw.model.player.TowerColor;
+import it.polimi.ingsw.model.player.Wizard;
+import it.polimi.ingsw.network.communication.Target;
+import it.polimi.ingsw.observer.ClientObservable;
+import it.polimi.ingsw.view.View;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A view without user interface, used to load the server. It is observed by a {@link ClientController} as the other
+ * views, but it answers every request of the server on its own with a legal move chosen by a {@link BotStrategy}.
+ * In expert mode, before moving a student or mother nature, it sometimes plays a character it can pay for, at most once
+ * per turn.
+ */
+public class BotView extends ClientObservable implements View {
+    private final String address;
+    private final int port;
+    private final String name;
+    private final int nPlayers;
+    private final boolean expertMode;
+    private final BotStrategy strategy;
+    private final Random random;
+    private final LoadStats stats;
+    private final Runnable onFinished;
+    private final AtomicBoolean finished;
+    private ShortModel model;
+    private String nickname;
+    private int attempts;
+    private long lastActionAt;
+    private boolean characterTried;
+
+    /**
+     * @param address    the address of the server
+     * @param port       the port of the server
+     * @param name       the nickname of the bot
+     * @param nPlayers   the number of players of the matches the bot joins
+     * @param expertMode whether the bot joins expert matches
+     * @param strategy   how the bot chooses its moves
+     * @param random     the source of the random choices
+     * @param stats      the counters of the load test
+     * @param onFinished called once, when the match of the bot ends or the bot is disconnected
+     */
+    public BotView(String address, int port, String name, int nPlayers, boolean expertMode, BotStrategy strategy,
+                   Random random, LoadStats stats, Runnable onFinished) {
+        this.address = address;
+        this.port = port;
+        this.name = name;
+        this.nPlayers = nPlayers;
+        this.expertMode = expertMode;
+        this.strategy = strategy;
+        this.random = random;
+        this.stats = stats;
+        this.onFinished = onFinished;
+        this.finished = new AtomicBoolean(false);
+    }
+
+    /**
+     * Record the latency of the last action when the first message after it arrives
+     */
+    private void received() {
+        stats.onReceived();
+        if (lastActionAt != 0) {
+            stats.onResponse(System.nanoTime() - lastActionAt);
+            lastActionAt = 0;
+        }
+    }
+
+    private void act() {
+        stats.onAction();
+        lastActionAt = System.nanoTime();
+    }
+
+    private void finish() {
+        if (finished.compareAndSet(false, true))
+            onFinished.run();
+    }
+
+    /**
+     * @return true if the match of the bot is ended or the bot is disconnected
+     */
+    public boolean isFinished() {
+        return finished.get();
+    }
+
+    private <T> T pick(Collection<T> choices) {
+        List<T> list = new ArrayList<>(choices);
+        return list.get(random.nextInt(list.size()));
+    }
+
+    /**
+     * Play a random character that the bot can pay for, with a probability of 1/4 and at most once per turn
+     *
+     * @return true if a character has been played instead of answering the current request
+     */
+    private boolean useCharacter() {
+        if (!expertMode || characterTried || model.getCharacters() == null || model.getMoneyMap() == null
+                || random.nextInt(4) != 0) return false;
+        characterTried = true;
+        int money = model.getMoneyMap().getOrDefault(nickname, 0);
+        List<Integer> affordable = new ArrayList<>();
+        for (int i = 0; i < model.getCharacters().size(); i++) {
+            ShortCharacter character = model.getCharacters().get(i);
+            if (character.getCost() + (character.hasCoinOn() ? 1 : 0) <= money) affordable.add(i);
+        }
+        if (affordable.isEmpty()) return false;
+        int id = pick(affordable);
+        act();
+        notifyObserver(observer -> observer.updateUseCharacter(id));
+        return true;
+    }
+
+    @Override
+    public void askConnectionInfo() {
+        if (attempts > 0) { //the server is not reachable
+            stats.onError();
+            finish();
+            return;
+        }
+        attempts++;
+        notifyObserver(observer -> observer.updateConnection(address, port));
+    }
+
+    @Override
+    public void setNickname() {
+        nickname = attempts == 1 ? name : name + "-" + attempts;
+        attempts++;
+        notifyObserver(observer -> observer.updateNickname(nickname));
+    }
+
+    @Override
+    public void chooseGameMode() {
+        received();
+        act();
+        notifyObserver(observer -> observer.updateGameModeNumPlayer(expertMode ? "Expert" : "Simple", nPlayers));
+    }
+
+    @Override
+    public void chooseWizardAndTowerColor(Set<Wizard> wizardsAvailable, Set<TowerColor> colorsAvailable) {
+        received();
+        Wizard wizard = strategy == BotStrategy.RANDOM ? pick(wizardsAvailable) : wizardsAvailable.iterator().next();
+        TowerColor towerColor = strategy == BotStrategy.RANDOM ? pick(colorsAvailable) : colorsAvailable.iterator().next();
+        act();
+        notifyObserver(observer -> observer.updateWizardAndColor(wizard, towerColor));
+    }
+
+    @Override
+    public void chooseAssistant(Set<Assistant> playableAssistant) {
+        received();
+        characterTried = false;
+        Assistant assistant = strategy == BotStrategy.RANDOM ? pick(playableAssistant)
+                : playableAssistant.stream().min(Comparator.comparingInt(Assistant::value)).orElseThrow();
+        act();
+        notifyObserver(observer -> observer.updateAssistant(assistant));
+    }
+
+    @Override
+    public void chooseCloud(List<ShortCloud> clouds) {
+        received();
+        List<Integer> available = new ArrayList<>();
+        for (int i = 0; i < clouds.size(); i++)
+            if (!clouds.get(i).isEmpty()) available.add(i);
+        if (available.isEmpty()) //only in the last round, when the sack is empty
+            for (int i = 0; i < clouds.size(); i++) available.add(i);
+        int cloud = strategy == BotStrategy.RANDOM ? pick(available)
+                : available.stream().max(Comparator.comparingInt(i -> clouds.get(i).getStudents().totalElements())).orElseThrow();
+        act();
+        notifyObserver(observer -> observer.updateCloud(cloud));
+    }
+
+    @Override
+    public void moveStudent(List<PawnColor> movableColor) {
+        received();
+        if (useCharacter()) return;
+        ShortSchool school = ownSchool();
+        List<PawnColor> toHall = movableColor.stream()
+                .filter(color -> school == null || school.getHall().getFromColor(color) < Constants.MAX_HALL_PER_COLOR).toList();
+        int islands = model.getBoard().getIslands().size();
+        PawnColor color;
+        Target target;
+        if (strategy == BotStrategy.GREEDY && !toHall.isEmpty()) {
+            color = toHall.get(0);
+            target = Target.HALL;
+        } else {
+            color = pick(movableColor);
+            target = toHall.contains(color) && random.nextBoolean() ? Target.HALL : Target.ISLAND;
+        }
+        int island = target == Target.HALL ? 0 : strategy == BotStrategy.RANDOM ? random.nextInt(islands) : model.getBoard().getMotherNaturePos();
+        act();
+        notifyObserver(observer -> observer.updateMoveStudent(color, target, island));
+    }
+
+    @Override
+    public void moveMNature(int maximumSteps) {
+        received();
+        if (useCharacter()) return;
+        int steps;
+        if (strategy == BotStrategy.RANDOM)
+            steps = 1 + random.nextInt(maximumSteps);
+        else {
+            List<ShortIsland> islands = model.getBoard().getIslands();
+            int position = model.getBoard().getMotherNaturePos();
+            steps = 1;
+            for (int i = 2; i <= maximumSteps; i++)
+                if (islands.get((position + i) % islands.size()).getStudents().totalElements()
+                        > islands.get((position + steps) % islands.size()).getStudents().totalElements())
+                    steps = i;
+        }
+        int chosen = steps;
+        act();
+        notifyObserver(observer -> observer.updateStepsMN(chosen));
+    }
+
+    @Override
+    public void askColor() {
+        received();
+        act();
+        notifyObserver(observer -> observer.updateColorAction(pick(EnumSet.allOf(PawnColor.class))));
+    }
+
+    @Override
+    public void askIsland() {
+        received();
+        act();
+        notifyObserver(observer -> observer.updateIslandAction(random.nextInt(model.getBoard().getIslands().size())));
+    }
+
+    @Override
+    public void askSwapList(int swap) {
+        received();
+        act();
+        notifyObserver(observer -> observer.updateSwapAction(List.of()));
+    }
+
+    @Override
+    public void updateScreen() {
+        received();
+    }
+
+    @Override
+    public void showError(String msg) {
+        received();
+        if (!isFinished()) stats.onError();
+        finish();
+    }
+
+    @Override
+    public void win(String winner, boolean win) {
+        if (win) stats.onMatchCompleted();
+        finish();
+    }
+
+    @Override
+    public void showMessage(String msg) {
+        received();
+    }
+
+    @Override
+    public void injectResource(ShortModel resource) {
+        this.model = resource;
+    }
+
+    private ShortSchool ownSchool() {
+        if (model.getSchoolMap() == null) return null;
+        for (Map.Entry<ShortPlayer, ShortSchool> entry : model.getSchoolMap().entrySet())
+            if (entry.getKey().name().equals(nickname)) return entry.getValue();
+        return null;
+    }
+}
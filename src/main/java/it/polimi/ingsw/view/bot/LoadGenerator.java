@@ -0,0 +1,70 @@
+package it.polimi.ingsw.view.bot;
+
+import it.polimi.ingsw.controller.client.ClientController;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens many connections to a server, each one driven by a {@link BotView}, and waits until all their matches are ended.
+ * The bots use the same {@link ClientController} and network client of the real players.
+ */
+public class LoadGenerator {
+    private final String address;
+    private final int port;
+    private final int clients;
+    private final int nPlayers;
+    private final boolean expertMode;
+    private final BotStrategy strategy;
+    private final long seed;
+
+    /**
+     * @param address    the address of the server
+     * @param port       the port of the server
+     * @param clients    the number of bots, it should be a multiple of the number of players
+     * @param nPlayers   the number of players of each match
+     * @param expertMode whether the matches are in expert mode
+     * @param strategy   how the bots choose their moves
+     * @param seed       the seed of the random choices of the bots
+     */
+    public LoadGenerator(String address, int port, int clients, int nPlayers, boolean expertMode, BotStrategy strategy, long seed) {
+        this.address = address;
+        this.port = port;
+        this.clients = clients;
+        this.nPlayers = nPlayers;
+        this.expertMode = expertMode;
+        this.strategy = strategy;
+        this.seed = seed;
+    }
+
+    /**
+     * Connect all the bots and let them play. When this method returns all the bots are disconnected.
+     *
+     * @param timeout the maximum duration of the test
+     * @param unit    the unit of the timeout
+     * @return the counters of the test
+     * @throws InterruptedException if the thread is interrupted while waiting for the bots
+     */
+    public LoadStats run(long timeout, TimeUnit unit) throws InterruptedException {
+        LoadStats stats = new LoadStats();
+        CountDownLatch finished = new CountDownLatch(clients);
+        List<ClientController> controllers = new ArrayList<>();
+        List<BotView> bots = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            BotView bot = new BotView(address, port, "bot" + i, nPlayers, expertMode, strategy, new Random(seed + i), stats, finished::countDown);
+            ClientController controller = new ClientController(bot);
+            bot.addObserver(controller);
+            bots.add(bot);
+            controllers.add(controller);
+            bot.askConnectionInfo();
+        }
+        finished.await(timeout, unit);
+        controllers.forEach(ClientController::disconnect);
+        for (BotView bot : bots)
+            if (!bot.isFinished()) stats.onError(); //the match of the bot didn't end in time
+        return stats;
+    }
+}
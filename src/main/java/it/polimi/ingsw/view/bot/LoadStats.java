@@ -0,0 +1,80 @@
+package it.polimi.ingsw.view.bot;
+
+import it.polimi.ingsw.utility.metrics.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The counters shared by all the bots of a load test.
+ */
+public class LoadStats {
+    private final LatencyHistogram latency;
+    private final LongAdder actions;
+    private final LongAdder received;
+    private final LongAdder matches;
+    private final LongAdder errors;
+    private final long startedAt;
+
+    public LoadStats() {
+        this.latency = new LatencyHistogram();
+        this.actions = new LongAdder();
+        this.received = new LongAdder();
+        this.matches = new LongAdder();
+        this.errors = new LongAdder();
+        this.startedAt = System.nanoTime();
+    }
+
+    void onAction() {
+        actions.increment();
+    }
+
+    void onReceived() {
+        received.increment();
+    }
+
+    void onResponse(long nanos) {
+        latency.record(nanos);
+    }
+
+    void onMatchCompleted() {
+        matches.increment();
+    }
+
+    void onError() {
+        errors.increment();
+    }
+
+    /**
+     * @return the time between an action of a bot and the first message received after it
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public long getActions() {
+        return actions.sum();
+    }
+
+    public long getMatches() {
+        return matches.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * @return a report with the throughput, the latency and the error rate since the creation of the counters
+     */
+    public String report() {
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        long sent = actions.sum();
+        return String.format("%.1f s, %d matches (%.2f matches/s), %d actions (%.0f actions/s), %d messages received (%.0f msg/s)%n" +
+                        "action latency: %s%n" +
+                        "errors: %d (%.3f%% of the actions)",
+                seconds, matches.sum(), matches.sum() / seconds, sent, sent / seconds, received.sum(), received.sum() / seconds,
+                latency.summary(TimeUnit.MICROSECONDS),
+                errors.sum(), sent == 0 ? 0 : 100.0 * errors.sum() / sent);
+    }
+}
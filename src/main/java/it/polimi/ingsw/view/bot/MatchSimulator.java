@@ -0,0 +1,197 @@
+package it.polimi.ingsw.view.bot;
+
+import it.polimi.ingsw.controller.server.GameController;
+import it.polimi.ingsw.model.ShortModel;
+import it.polimi.ingsw.model.pawns.PawnColor;
+import it.polimi.ingsw.model.player.Assistant;
+import it.polimi.ingsw.model.player.TowerColor;
+import it.polimi.ingsw.model.player.Wizard;
+import it.polimi.ingsw.network.client.ClientSideVisitor;
+import it.polimi.ingsw.network.communication.Target;
+import it.polimi.ingsw.network.communication.codec.EncodedNotification;
+import it.polimi.ingsw.network.communication.notification.*;
+import it.polimi.ingsw.network.server.Connection;
+import it.polimi.ingsw.observer.ClientObserver;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Plays complete matches between {@link BotView}s without a network. The bots are connected to a {@link GameController}
+ * by in-memory connections: a message of the server is handled by the bot as soon as it is sent, and the answer of the
+ * bot is given to the controller, which handles it after the current one. The whole match is played on the caller
+ * thread, so the engine of the match is measured without any network or thread handoff.
+ * <p>
+ * The messages are not copied between the server and the bots: the bots only read them, as the client model does.
+ */
+public class MatchSimulator {
+    private final int nPlayers;
+    private final boolean expertMode;
+    private final BotStrategy strategy;
+    private final LoadStats stats;
+
+    /**
+     * @param nPlayers   the number of players of each match
+     * @param expertMode whether the matches are in expert mode
+     * @param strategy   how the bots choose their moves
+     */
+    public MatchSimulator(int nPlayers, boolean expertMode, BotStrategy strategy) {
+        this.nPlayers = nPlayers;
+        this.expertMode = expertMode;
+        this.strategy = strategy;
+        this.stats = new LoadStats();
+    }
+
+    /**
+     * Play a match until it ends or nobody has to answer
+     *
+     * @param seed the seed of the match and of the bots
+     * @return the outcome of the match
+     */
+    public Simulation play(long seed) {
+        GameController controller = new GameController(Runnable::run, seed);
+        SimulatedClient[] clients = new SimulatedClient[nPlayers];
+        for (int i = 0; i < nPlayers; i++) {
+            clients[i] = new SimulatedClient(controller);
+            BotView bot = new BotView(null, 0, "bot" + i, nPlayers, expertMode, strategy, new Random(seed * 31 + i), stats, () -> {
+            });
+            clients[i].connect(bot);
+            controller.addClient(clients[i].nickname, clients[i]);
+        }
+        controller.execute(() -> controller.init(expertMode));
+        int received = 0;
+        int sent = 0;
+        String winner = null;
+        for (SimulatedClient client : clients) {
+            received += client.received;
+            sent += client.sent;
+            if (client.winner != null) winner = client.winner;
+        }
+        return new Simulation(seed, winner, received, sent);
+    }
+
+    /**
+     * The outcome of a simulated match
+     *
+     * @param seed     the seed of the match
+     * @param winner   the winner, null if the match didn't end
+     * @param received the number of messages received by the bots
+     * @param sent     the number of messages sent by the bots
+     */
+    public record Simulation(long seed, String winner, int received, int sent) {
+        public boolean completed() {
+            return winner != null;
+        }
+    }
+
+    /**
+     * The connection between the controller and a bot. It plays the role of both the network and the
+     * {@link it.polimi.ingsw.controller.client.ClientController} of the bot.
+     */
+    private static class SimulatedClient implements Connection, ClientObserver {
+        private final GameController controller;
+        private BotView bot;
+        private ClientSideVisitor visitor;
+        private String nickname;
+        private String winner;
+        private int received;
+        private int sent;
+
+        private SimulatedClient(GameController controller) {
+            this.controller = controller;
+        }
+
+        private void connect(BotView bot) {
+            this.bot = bot;
+            ShortModel model = new ShortModel();
+            this.visitor = new ClientSideVisitor(bot, model, () -> send(new ResyncNotification()));
+            bot.injectResource(model);
+            bot.addObserver(this);
+            bot.askConnectionInfo();
+        }
+
+        private void send(Notification msg) {
+            sent++;
+            msg.setClientId(nickname);
+            controller.handleMessage(msg);
+        }
+
+        @Override
+        public void sendMessage(Notification msg) {
+            received++;
+            if (EncodedNotification.unwrap(msg) instanceof WinNotification win && win.isWin())
+                winner = win.getName();
+            msg.accept(visitor);
+        }
+
+        @Override
+        public void disconnect() {
+            //nothing to close
+        }
+
+        @Override
+        public void run() {
+            //nothing to read
+        }
+
+        @Override
+        public void updateConnection(String ip, int port) {
+            bot.setNickname();
+        }
+
+        @Override
+        public void updateNickname(String nickname) {
+            this.nickname = nickname;
+        }
+
+        @Override
+        public void updateGameModeNumPlayer(String mode, int numOfPlayer) {
+            //the game mode is chosen by the simulator
+        }
+
+        @Override
+        public void updateWizardAndColor(Wizard wizard, TowerColor towerColor) {
+            send(new ChooseWizAndTowerColorNotification(wizard, towerColor));
+        }
+
+        @Override
+        public void updateAssistant(Assistant assistant) {
+            send(new ChooseAssistantNotification(assistant));
+        }
+
+        @Override
+        public void updateCloud(int cloud) {
+            send(new ChooseCloudNotification(cloud));
+        }
+
+        @Override
+        public void updateStepsMN(int steps) {
+            send(new MoveMNNotification(steps));
+        }
+
+        @Override
+        public void updateMoveStudent(PawnColor color, Target target, int island) {
+            send(new MoveStudentNotification(color, target, island));
+        }
+
+        @Override
+        public void updateUseCharacter(int id) {
+            send(new CharacterNotification(id));
+        }
+
+        @Override
+        public void updateColorAction(PawnColor chosen) {
+            send(new ColorNotification(chosen));
+        }
+
+        @Override
+        public void updateIslandAction(int island) {
+            send(new IslandNotification(island));
+        }
+
+        @Override
+        public void updateSwapAction(List<PawnColor> swapColor) {
+            send(new SwapNotification(swapColor));
+        }
+    }
+}
@@ -1,9 +1,26 @@
 package it.polimi.ingsw.controller.client;
 
+import it.polimi.ingsw.model.ShortModel;
+import it.polimi.ingsw.network.communication.codec.FrameCodec;
+import it.polimi.ingsw.network.communication.notification.ModelUpdateNotification;
+import it.polimi.ingsw.network.communication.notification.Notification;
+import it.polimi.ingsw.network.communication.notification.ResyncNotification;
+import it.polimi.ingsw.view.bot.BotStrategy;
+import it.polimi.ingsw.view.bot.BotView;
+import it.polimi.ingsw.view.bot.LoadStats;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 class ClientControllerTest {
     /**
@@ -28,4 +45,42 @@ class ClientControllerTest {
         assertFalse(ClientController.isValidPort(65536));
         assertTrue(ClientController.isValidPort(65535));
     }
+
+    /**
+     * The deltas refused while a resync is pending don't ask for another full model, the next refused delta after the
+     * full model does
+     */
+    @Test
+    void resyncOnceTest() throws IOException {
+        try (ServerSocket server = new ServerSocket(0)) {
+            BotView bot = new BotView("localhost", server.getLocalPort(), "Luca", 2, false, BotStrategy.RANDOM,
+                    new Random(1), new LoadStats(), () -> {
+            });
+            ClientController controller = new ClientController(bot);
+            controller.updateConnection("localhost", server.getLocalPort());
+            try (Socket socket = server.accept()) {
+                for (int i = 0; i < 3; i++)
+                    controller.receiveMessage(new ModelUpdateNotification(model(false, 5 + i)));
+                controller.receiveMessage(new ModelUpdateNotification(model(true, 0)));
+                controller.receiveMessage(new ModelUpdateNotification(model(false, 9)));
+                controller.disconnect();
+
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                List<Class<?>> received = new ArrayList<>();
+                try {
+                    while (true) {
+                        Notification msg = FrameCodec.read(in);
+                        if (msg != FrameCodec.HEARTBEAT) received.add(msg.getClass());
+                    }
+                } catch (EOFException e) {
+                    //the client has closed the connection
+                }
+                assertEquals(List.of(ResyncNotification.class, ResyncNotification.class), received);
+            }
+        }
+    }
+
+    private static ShortModel model(boolean full, int baseVersion) {
+        return new ShortModel(full, baseVersion, baseVersion + 1, null, null, null, null, null, null, 0);
+    }
 }
@@ -0,0 +1,99 @@
+package it.polimi.ingsw.controller.server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests that the tasks of a {@link MatchActor} are executed one at a time and in order.
+ */
+class MatchActorTest {
+    private ExecutorService workers;
+
+    @BeforeEach
+    void setUp() {
+        workers = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * The tasks sent by many threads are never executed concurrently, and the tasks of a thread keep their order
+     */
+    @Test
+    void serialExecutionTest() throws InterruptedException {
+        MatchActor actor = new MatchActor(workers);
+        int senders = 4;
+        int tasks = 1000;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        List<List<Integer>> received = new ArrayList<>();
+        for (int i = 0; i < senders; i++)
+            received.add(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(senders * tasks);
+
+        for (int i = 0; i < senders; i++) {
+            int sender = i;
+            new Thread(() -> {
+                for (int j = 0; j < tasks; j++) {
+                    int value = j;
+                    actor.execute(() -> {
+                        if (running.incrementAndGet() != 1) overlaps.incrementAndGet();
+                        received.get(sender).add(value);
+                        running.decrementAndGet();
+                        done.countDown();
+                    });
+                }
+            }).start();
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(0, overlaps.get());
+        for (List<Integer> values : received) {
+            assertEquals(tasks, values.size());
+            for (int j = 0; j < tasks; j++)
+                assertEquals(j, values.get(j));
+        }
+    }
+
+    /**
+     * A task submitted by the actor itself runs after the current one, and an error doesn't stop the actor
+     */
+    @Test
+    void reentrantAndErrorTest() throws InterruptedException {
+        MatchActor actor = new MatchActor(Runnable::run);
+        List<String> events = new ArrayList<>();
+        actor.execute(() -> {
+            actor.execute(() -> events.add("second"));
+            events.add("first");
+        });
+        assertEquals(List.of("first", "second"), events);
+
+        actor.execute(() -> {
+            throw new IllegalStateException();
+        });
+        actor.execute(() -> events.add("after error"));
+        assertEquals("after error", events.get(2));
+
+        MatchActor pooled = new MatchActor(workers);
+        CountDownLatch done = new CountDownLatch(1);
+        pooled.execute(() -> {
+            throw new IllegalStateException();
+        });
+        pooled.execute(done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+}
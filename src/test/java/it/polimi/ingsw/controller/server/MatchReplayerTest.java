@@ -0,0 +1,112 @@
+package it.polimi.ingsw.controller.server;
+
+import it.polimi.ingsw.network.communication.notification.MoveMNNotification;
+import it.polimi.ingsw.network.communication.notification.Notification;
+import it.polimi.ingsw.network.server.Connection;
+import it.polimi.ingsw.network.server.Server;
+import it.polimi.ingsw.network.server.Transport;
+import it.polimi.ingsw.view.bot.BotStrategy;
+import it.polimi.ingsw.view.bot.LoadGenerator;
+import it.polimi.ingsw.view.bot.LoadStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class records matches played by bots and plays them again from their logs.
+ */
+class MatchReplayerTest {
+    @TempDir
+    Path directory;
+
+    private static List<Path> logs(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    /**
+     * Every recorded match is replayed until the end, and two replays of the same log are identical
+     */
+    @Test
+    void replayTest() throws IOException, InterruptedException {
+        Server server = new Server(0, Transport.SOCKET);
+        server.setMatchLogDirectory(directory);
+        server.start();
+        LoadStats stats = new LoadGenerator("localhost", server.getPort(), 6, 3, true, BotStrategy.RANDOM, 3).run(60, TimeUnit.SECONDS);
+        assertEquals(2, stats.getMatches());
+
+        List<Path> logs = logs(directory);
+        assertEquals(2, logs.size());
+        for (Path log : logs) {
+            MatchReplayer.Replay first;
+            MatchReplayer.Replay second;
+            try (InputStream in = Files.newInputStream(log)) {
+                first = MatchReplayer.replay(in);
+            }
+            try (InputStream in = Files.newInputStream(log)) {
+                second = MatchReplayer.replay(in);
+            }
+            assertNotNull(first.winner()); //a recorded match that ended ends again
+            assertTrue(first.received() > 0);
+            assertEquals(first.winner(), second.winner());
+            assertEquals(first.received(), second.received());
+            assertEquals(first.sent(), second.sent());
+        }
+    }
+
+    /**
+     * The header and the messages are read back, an incomplete last frame is ignored
+     */
+    @Test
+    void truncatedLogTest() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GameController controller = new GameController(Runnable::run, 7);
+        controller.recordTo(new MatchLog(out));
+        controller.addClient("Luca", new NullConnection());
+        controller.addClient("Marco", new NullConnection());
+        controller.init(false);
+        for (String name : List.of("Luca", "Marco", "Luca")) {
+            Notification msg = new MoveMNNotification(1);
+            msg.setClientId(name);
+            controller.handleMessage(msg);
+        }
+        byte[] bytes = out.toByteArray();
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - 1));
+        MatchLog.Header header = MatchLog.readHeader(in);
+        assertEquals(new MatchLog.Header(7, false, List.of("Luca", "Marco")), header);
+        List<Notification> messages = new ArrayList<>();
+        for (Notification msg = MatchLog.readMessage(in); msg != null; msg = MatchLog.readMessage(in))
+            messages.add(msg);
+        assertEquals(2, messages.size());
+        assertEquals("Luca", messages.get(0).getSenderID());
+        assertEquals("Marco", messages.get(1).getSenderID());
+    }
+
+    private static class NullConnection implements Connection {
+        @Override
+        public void sendMessage(Notification msg) {
+
+        }
+
+        @Override
+        public void disconnect() {
+
+        }
+
+        @Override
+        public void run() {
+
+        }
+    }
+}
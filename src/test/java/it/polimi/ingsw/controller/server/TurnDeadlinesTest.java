@@ -0,0 +1,104 @@
+package it.polimi.ingsw.controller.server;
+
+import it.polimi.ingsw.network.communication.codec.EncodedNotification;
+import it.polimi.ingsw.network.communication.notification.Notification;
+import it.polimi.ingsw.network.communication.notification.WinNotification;
+import it.polimi.ingsw.network.server.Connection;
+import it.polimi.ingsw.utility.TimerWheel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests the matches whose players never answer: every move is a default move played when a deadline expires.
+ */
+class TurnDeadlinesTest {
+    private TimerWheel timers;
+    private ExecutorService worker;
+
+    @BeforeEach
+    void setUp() {
+        timers = new TimerWheel("test-timers", 1);
+        timers.start();
+        worker = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        timers.stop();
+        worker.shutdownNow();
+    }
+
+    /**
+     * A match of silent players ends, and its log, made of default moves only, is replayed with the same winner
+     */
+    @Test
+    void silentMatchTest() throws Exception {
+        for (boolean expertMode : new boolean[]{false, true}) {
+            CompletableFuture<String> winner = new CompletableFuture<>();
+            ByteArrayOutputStream log = new ByteArrayOutputStream();
+            GameController controller = new GameController(worker, 42);
+            controller.recordTo(new MatchLog(log));
+            controller.setTurnDeadlines(new TurnDeadlines(timers, 1).withTimeout(TurnManager.Prompt.CLOUD, 2));
+            for (String name : new String[]{"Luca", "Marco", "Paolo"})
+                controller.addClient(name, new SilentConnection(winner));
+            controller.execute(() -> controller.init(expertMode));
+
+            String name = winner.get(60, TimeUnit.SECONDS);
+            MatchReplayer.Replay replay = MatchReplayer.replay(new ByteArrayInputStream(log.toByteArray()));
+            assertEquals(name, replay.winner());
+            assertTrue(replay.received() > 0);
+        }
+    }
+
+    /**
+     * Test that the default move is given only for the last prompt, and only once
+     */
+    @Test
+    void stalePromptTest() throws IOException {
+        GameController controller = new GameController();
+        controller.addClient("Luca", new SilentConnection(new CompletableFuture<>()));
+        controller.addClient("Marco", new SilentConnection(new CompletableFuture<>()));
+        controller.init(false);
+        TurnManager turnManager = controller.getTurnManager();
+
+        Notification move = turnManager.defaultMove(1);
+        assertNotNull(move);
+        move.setClientId(turnManager.getRequestName());
+        move.accept(controller.getVisitor());
+        assertNull(turnManager.defaultMove(1));
+        assertNotNull(turnManager.defaultMove(2));
+        assertNull(turnManager.defaultMove(3));
+    }
+
+    /**
+     * A player that never answers, it only waits for the end of the match
+     */
+    private record SilentConnection(CompletableFuture<String> winner) implements Connection {
+        @Override
+        public void sendMessage(Notification msg) {
+            if (EncodedNotification.unwrap(msg) instanceof WinNotification win && win.isWin())
+                winner.complete(win.getName());
+        }
+
+        @Override
+        public void disconnect() {
+            //nothing to close
+        }
+
+        @Override
+        public void run() {
+            //nothing to read
+        }
+    }
+}
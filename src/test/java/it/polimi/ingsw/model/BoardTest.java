@@ -10,11 +10,14 @@ import it.polimi.ingsw.model.player.TowerColor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static it.polimi.ingsw.model.pawns.PawnColor.*;
 import static it.polimi.ingsw.model.player.TowerColor.*;
 import static it.polimi.ingsw.model.player.Wizard.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class BoardTest {
     Player player1;
@@ -146,6 +149,20 @@ class BoardTest {
         assertEquals(1, game.getBoard().getMotherNaturePos());
     }
 
+    /**
+     * Mother nature can do more steps than the islands left, e.g. with the postman character at the end of the game
+     */
+    @Test
+    void motherNatureMovementMoreStepsThanIslands() {
+        List<Island> islands = game.getBoard().getIslands();
+        while (islands.size() > 4)
+            islands.remove(islands.size() - 1);
+        game.getBoard().setMotherNaturePos(3);
+        game.getBoard().moveMotherNature(7);
+
+        assertEquals(2, game.getBoard().getMotherNaturePos());
+    }
+
     /**
      * Test MushroomSeller Strategy (a color is not considered during the calc of influence)
      */
@@ -287,5 +304,42 @@ class BoardTest {
 
     }
 
+    /**
+     * Mother nature stays on her island when two islands before it are merged
+     */
+    @Test
+    void motherNatureFollowsHerIsland() {
+        Board board2 = new Board();
+        board2.setMotherNaturePos(7);
+        Island motherNatureIsland = board2.getMotherNatureIsland();
+        board2.getIslands().get(2).addTower(BLACK);
+        board2.getIslands().get(3).addTower(BLACK);
+
+        board2.adjacencyUpdate(board2.getIslands().get(3));
+
+        assertEquals(11, board2.getIslands().size());
+        assertSame(motherNatureIsland, board2.getMotherNatureIsland());
+        assertEquals(6, board2.getMotherNaturePos());
+    }
+
+    /**
+     * A conquered island at the end of the ring is merged with both its neighbours, the first island absorbs it
+     */
+    @Test
+    void neighboursMergeAcrossTheEnd() {
+        Board board2 = new Board();
+        Island first = board2.getIslands().get(0);
+        board2.setMotherNaturePos(11);
+        board2.getIslands().get(10).addTower(WHITE);
+        board2.getIslands().get(11).addTower(WHITE);
+        board2.getIslands().get(0).addTower(WHITE);
+        board2.getIslands().get(1).addTower(BLACK);
 
+        board2.adjacencyUpdate(board2.getIslands().get(11));
+
+        assertEquals(10, board2.getIslands().size());
+        assertSame(first, board2.getIslands().get(0));
+        assertEquals(3, first.getDimension());
+        assertEquals(0, board2.getMotherNaturePos());
+    }
 }
@@ -2,10 +2,18 @@ package it.polimi.ingsw.model;
 
 import it.polimi.ingsw.constants.Constants;
 import it.polimi.ingsw.model.pawns.PawnColor;
+import it.polimi.ingsw.model.pawns.Pawns;
+import it.polimi.ingsw.model.player.TowerColor;
+import it.polimi.ingsw.observer.WinObserver;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * This class tests the {@link Sack} methods.
@@ -58,4 +66,71 @@ class SackTest {
         sack2.extractListOfPawns((Constants.STUDENTS_OF_EACH_COLOR - Constants.INIT_SACK_STUDENTS_PER_COLOR) * PawnColor.values().length);
         assertEquals(0, sack2.getNumberOfPawns());
     }
-}
\ No newline at end of file
+
+    /**
+     * This method tests that extractListOfPawns extracts only the remaining pawns when the sack has fewer than requested.
+     */
+    @Test
+    void extractListOfPawnsTest_notEnoughPawns() {
+        int total = sack2.getNumberOfPawns();
+        sack2.extractListOfPawns(total - 3);
+        assertEquals(3, sack2.extractListOfPawns(12).totalElements());
+        assertTrue(sack2.isEmpty());
+    }
+
+    /**
+     * This method tests that two sacks with the same seed extract the same pawns.
+     */
+    @Test
+    void seededExtractionTest() {
+        Sack first = new Sack(new SplittableRandom(7));
+        Sack second = new Sack(new SplittableRandom(7));
+        first.fill();
+        second.fill();
+        for (int i = 0; i < 20; i++) {
+            assertEquals(first.extract(), second.extract());
+            assertEquals(first.extract(4), second.extract(4));
+        }
+    }
+
+    /**
+     * This method tests that a bulk extraction notifies the observers once and that, on average, each color is
+     * extracted in proportion to its pawns in the sack.
+     */
+    @Test
+    void bulkExtractionTest() {
+        Sack sack = new Sack(new SplittableRandom(11));
+        sack.returnTo(new Pawns(60, 30, 15, 10, 5));
+        List<Integer> notified = new ArrayList<>();
+        sack.addObserver(new WinObserver() {
+            @Override
+            public void updateBoardUsage(int size) {
+            }
+
+            @Override
+            public void updateSackUsage(int totalElements) {
+                notified.add(totalElements);
+            }
+
+            @Override
+            public void updateTowerPlaced(TowerColor winner) {
+            }
+        });
+        Pawns extracted = sack.extract(12);
+        assertEquals(12, extracted.totalElements());
+        assertEquals(List.of(108), notified);
+        sack.returnTo(extracted);
+
+        int samples = 5000;
+        Pawns total = new Pawns();
+        for (int i = 0; i < samples; i++) {
+            Pawns sample = sack.extract(12);
+            total.addPawns(sample);
+            sack.returnTo(sample);
+        }
+        double[] expected = {6, 3, 1.5, 1, 0.5};
+        for (PawnColor color : PawnColor.values())
+            assertEquals(expected[color.ordinal()], (double) total.getFromColor(color) / samples, 0.1);
+        assertEquals(120, sack.getNumberOfPawns());
+    }
+}
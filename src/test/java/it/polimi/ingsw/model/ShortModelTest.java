@@ -0,0 +1,171 @@
+package it.polimi.ingsw.model;
+
+import it.polimi.ingsw.model.pawns.PawnColor;
+import it.polimi.ingsw.model.player.Assistant;
+import it.polimi.ingsw.model.player.ShortPlayer;
+import it.polimi.ingsw.model.player.TowerColor;
+import it.polimi.ingsw.model.player.Wizard;
+import it.polimi.ingsw.network.communication.notification.ModelUpdateNotification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests the deltas sent by the {@link Game} and their application on the client {@link ShortModel}.
+ */
+class ShortModelTest {
+    private Game game;
+    private List<ShortModel> updates;
+
+    @BeforeEach
+    void setUp() {
+        game = new Game();
+        updates = new ArrayList<>();
+        game.addObserver(msg -> updates.add(((ModelUpdateNotification) msg).getModel()));
+        game.addPlayer("Luca", Wizard.KING, TowerColor.BLACK);
+        game.addPlayer("Marco", Wizard.SORCERER, TowerColor.WHITE);
+        game.startGame(true);
+        game.setCurrentPlayer("Luca");
+    }
+
+    private static void assertSameModel(ShortModel expected, ShortModel actual) {
+        assertEquals(expected.getSchoolMap(), actual.getSchoolMap());
+        assertEquals(expected.getMoneyMap(), actual.getMoneyMap());
+        assertEquals(expected.getAssistantMap(), actual.getAssistantMap());
+        assertEquals(expected.getClouds(), actual.getClouds());
+        assertEquals(expected.getBoard().getIslands(), actual.getBoard().getIslands());
+        assertEquals(expected.getBoard().getMotherNaturePos(), actual.getBoard().getMotherNaturePos());
+        assertEquals(expected.getCharacters(), actual.getCharacters());
+        assertEquals(expected.getStudentsInSack(), actual.getStudentsInSack());
+        assertEquals(expected.getVersion(), actual.getVersion());
+    }
+
+    /**
+     * The first update is a full snapshot, the following ones are deltas with only the changed parts
+     */
+    @Test
+    void deltaContainsOnlyChangesTest() {
+        assertEquals(1, updates.size());
+        assertTrue(updates.get(0).isFull());
+
+        game.playAssistant(Assistant.LION);
+        ShortModel delta = updates.get(1);
+        assertFalse(delta.isFull());
+        assertEquals(1, delta.getBaseVersion());
+        assertEquals(2, delta.getVersion());
+        assertNotNull(delta.getAssistantMap());
+        assertNull(delta.getSchoolMap());
+        assertNull(delta.getClouds());
+        assertNull(delta.getBoard());
+        assertNull(delta.getCharacters());
+
+        PawnColor color = game.getCurrentPlayer().getSchool().getEntrance().toList().get(0);
+        game.moveFromEntranceToIsland(color, 3);
+        delta = updates.get(2);
+        assertEquals(1, delta.getSchoolMap().size());
+        assertNull(delta.getBoard().getIslands().get(0));
+        assertNotNull(delta.getBoard().getIslands().get(3));
+    }
+
+    /**
+     * Applying the full snapshot and then every delta gives the same model as a new full snapshot
+     */
+    @Test
+    void applyDeltasTest() {
+        game.fillClouds();
+        game.playAssistant(Assistant.CAT);
+        game.moveFromEntranceToHall(game.getCurrentPlayer().getSchool().getEntrance().toList().get(0));
+        game.moveMotherNature(1, game.getCurrentPlayer());
+        game.pickFromCloud(0);
+
+        ShortModel client = new ShortModel();
+        for (ShortModel update : updates)
+            assertTrue(client.update(update));
+        assertSameModel(game.getLastModel(), client);
+    }
+
+    /**
+     * A delta based on another version is refused, a full snapshot resyncs the model
+     */
+    @Test
+    void outOfSyncTest() {
+        game.playAssistant(Assistant.CAT);
+        game.fillClouds();
+
+        ShortModel client = new ShortModel();
+        assertFalse(client.update(updates.get(2)));
+        assertTrue(client.update(game.getLastModel()));
+        assertSameModel(game.getLastModel(), client);
+    }
+
+    /**
+     * Two consecutive deltas merged together give the same result as applying them one by one
+     */
+    @Test
+    void mergeDeltasTest() {
+        game.playAssistant(Assistant.CAT);
+        game.fillClouds();
+        game.moveFromEntranceToIsland(game.getCurrentPlayer().getSchool().getEntrance().toList().get(0), 5);
+
+        ShortModel merged = updates.get(1).copy();
+        assertTrue(merged.update(updates.get(2)));
+        assertTrue(merged.update(updates.get(3)));
+        assertFalse(merged.isFull());
+        assertEquals(1, merged.getBaseVersion());
+
+        ShortModel client = new ShortModel();
+        client.update(updates.get(0));
+        assertTrue(client.update(merged));
+        assertSameModel(game.getLastModel(), client);
+    }
+
+    /**
+     * Consecutive snapshots share the parts of the game that didn't change
+     */
+    @Test
+    void unchangedPartsAreSharedTest() {
+        ShortModel before = game.getLastModel();
+        PawnColor color = game.getCurrentPlayer().getSchool().getEntrance().toList().get(0);
+        game.moveFromEntranceToIsland(color, 3);
+        ShortModel after = game.getLastModel();
+
+        ShortPlayer luca = game.getPlayerByName("Luca").toShort();
+        ShortPlayer marco = game.getPlayerByName("Marco").toShort();
+        assertNotSame(before.getSchoolMap().get(luca), after.getSchoolMap().get(luca));
+        assertSame(before.getSchoolMap().get(luca).getHall(), after.getSchoolMap().get(luca).getHall());
+        assertSame(before.getSchoolMap().get(marco), after.getSchoolMap().get(marco));
+        assertNotSame(before.getBoard().getIslands().get(3), after.getBoard().getIslands().get(3));
+        assertSame(before.getBoard().getIslands().get(4), after.getBoard().getIslands().get(4));
+        assertSame(before.getCharacters().get(0), after.getCharacters().get(0));
+        for (int i = 0; i < after.getClouds().size(); i++)
+            assertSame(before.getClouds().get(i), after.getClouds().get(i));
+        assertEquals(new ShortModel(game, true).getSchoolMap(), after.getSchoolMap());
+    }
+
+    /**
+     * Deferred changes are sent in a single update when they are flushed
+     */
+    @Test
+    void deferredUpdatesTest() {
+        game.setDeferUpdates(true);
+        game.fillClouds();
+        game.playAssistant(Assistant.CAT);
+        game.moveFromEntranceToHall(game.getCurrentPlayer().getSchool().getEntrance().toList().get(0));
+        assertEquals(1, updates.size());
+
+        game.flushModelUpdate();
+        assertEquals(2, updates.size());
+        game.flushModelUpdate();
+        assertEquals(2, updates.size());
+
+        ShortModel client = new ShortModel();
+        for (ShortModel update : updates)
+            assertTrue(client.update(update));
+        assertSameModel(game.getLastModel(), client);
+        assertEquals(new ShortModel(game, true).getSchoolMap(), client.getSchoolMap());
+    }
+}
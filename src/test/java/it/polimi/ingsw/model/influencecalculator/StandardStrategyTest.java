@@ -68,4 +68,23 @@ class StandardStrategyTest {
         assertEquals(score, new StandardStrategy().getScores(island, players));
     }
 
+    /**
+     * Test that the modifiers change only the score of the interested player
+     * On the island there are 1 green, 1 yellow, 3 blue and a black tower (player 1) of dimension 2
+     */
+    @Test
+    void modifiersTest() {
+        Island island = new Island();
+        island.add(new Pawns(1, 0, 1, 0, 3));
+        island.addTower(BLACK);
+        island.upgradeDimension(1);
+        assertEquals(4, new StandardStrategy().getScore(island, player1));
+        assertEquals(3, new StandardStrategy().getScore(island, player2));
+        assertEquals(2, new CentaurStrategy().getScore(island, player1));
+        assertEquals(3, new CentaurStrategy().getScore(island, player2));
+        assertEquals(4, new KnightStrategy(WHITE).getScore(island, player1));
+        assertEquals(5, new KnightStrategy(WHITE).getScore(island, player2));
+        assertEquals(4, new MushroomSellerStrategy(BLUE).getScore(island, player1));
+        assertEquals(0, new MushroomSellerStrategy(BLUE).getScore(island, player2));
+    }
 }
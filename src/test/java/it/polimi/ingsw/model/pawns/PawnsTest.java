@@ -3,7 +3,9 @@ package it.polimi.ingsw.model.pawns;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * This class tests the {@link Pawns} methods.
@@ -71,4 +73,36 @@ class PawnsTest {
     void getLastElement() {
         assertEquals(PawnColor.BLUE, pawns.getByIndex(23));
     }
-}
\ No newline at end of file
+
+    /**
+     * Check that the total is kept up to date by every operation, also by the failed ones
+     */
+    @Test
+    void cachedTotalTest() {
+        assertEquals(23, pawns.totalElements());
+        assertFalse(pawns.removePawns(new Pawns(4, 0, 0, 0, 0)));
+        assertFalse(pawns.removeColor(PawnColor.PINK, 3));
+        assertEquals(23, pawns.totalElements());
+        assertTrue(pawns.removePawns(new Pawns(3, 1, 0, 0, 1)));
+        pawns.addColor(PawnColor.GREEN);
+        assertEquals(19, pawns.totalElements());
+        assertEquals(pawns.toList().size(), pawns.totalElements());
+        assertEquals(PawnColor.GREEN, pawns.getByIndex(0));
+        assertEquals(PawnColor.RED, pawns.getByIndex(1));
+    }
+
+    /**
+     * Check equality, hash code and text representation
+     */
+    @Test
+    void equalsAndToStringTest() {
+        Pawns other = new Pawns();
+        other.addPawns(pawns);
+        assertEquals(pawns, other);
+        assertEquals(pawns.hashCode(), other.hashCode());
+        other.removeColor(PawnColor.BLUE);
+        assertNotEquals(pawns, other);
+        assertEquals("{GREEN=3, RED=7, YELLOW=6, PINK=2, BLUE=5}", pawns.toString());
+        assertEquals(List.of(PawnColor.YELLOW, PawnColor.YELLOW), new Pawns(0, 0, 2, 0, 0).toList());
+    }
+}
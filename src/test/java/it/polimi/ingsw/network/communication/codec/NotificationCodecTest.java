@@ -0,0 +1,228 @@
+package it.polimi.ingsw.network.communication.codec;
+
+import it.polimi.ingsw.model.Game;
+import it.polimi.ingsw.model.ShortModel;
+import it.polimi.ingsw.model.character.ShortCharacter;
+import it.polimi.ingsw.model.clouds.ShortCloud;
+import it.polimi.ingsw.model.pawns.PawnColor;
+import it.polimi.ingsw.model.pawns.ShortPawns;
+import it.polimi.ingsw.model.place.ShortIsland;
+import it.polimi.ingsw.model.place.ShortSchool;
+import it.polimi.ingsw.model.player.Assistant;
+import it.polimi.ingsw.model.player.ShortPlayer;
+import it.polimi.ingsw.model.player.TowerColor;
+import it.polimi.ingsw.model.player.Wizard;
+import it.polimi.ingsw.network.communication.Target;
+import it.polimi.ingsw.network.communication.notification.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests that every {@link Notification} survives the trip through the {@link FrameCodec}.
+ */
+class NotificationCodecTest {
+
+    private static <T extends Notification> T roundTrip(T msg) throws IOException {
+        byte[] frame = FrameCodec.encode(msg);
+        @SuppressWarnings("unchecked")
+        T decoded = (T) FrameCodec.read(new DataInputStream(new ByteArrayInputStream(frame)));
+        assertEquals(msg.getClass(), decoded.getClass());
+        assertEquals(msg.getSenderID(), decoded.getSenderID());
+        return decoded;
+    }
+
+    private static void assertPawnsEquals(ShortPawns expected, ShortPawns actual) {
+        for (PawnColor color : PawnColor.values())
+            assertEquals(expected.getFromColor(color), actual.getFromColor(color));
+    }
+
+    /**
+     * Test the notifications made only of simple fields
+     */
+    @Test
+    void simpleNotificationsTest() throws IOException {
+        LoginNotification login = new LoginNotification("Luca");
+        assertEquals("Luca", roundTrip(login).getNickname());
+
+        ChooseGameModeNotification gameMode = new ChooseGameModeNotification(3, true);
+        gameMode.setClientId("Marco");
+        ChooseGameModeNotification decodedGameMode = roundTrip(gameMode);
+        assertEquals(3, decodedGameMode.getNPlayers());
+        assertTrue(decodedGameMode.isExpertGame());
+
+        assertNotNull(roundTrip(new NicknameErrorNotification()));
+        assertEquals("hello è", roundTrip(new GenericMessageNotification("hello è")).getMessage());
+        assertNull(roundTrip(new ErrorMessageNotification(null)).getErrorMessage());
+        assertEquals(4, roundTrip(new MoveMNNotification(4)).getSteps());
+        assertEquals(2, roundTrip(new CharacterNotification(2)).getCharacter());
+        assertEquals(PawnColor.PINK, roundTrip(new ColorNotification(PawnColor.PINK)).getChosen());
+        assertNull(roundTrip(new ColorNotification()).getChosen());
+        assertEquals(11, roundTrip(new IslandNotification(11)).getIsland());
+        assertEquals(-1, roundTrip(new IslandNotification(-1)).getIsland());
+
+        WinNotification win = roundTrip(new WinNotification("Luca", true));
+        assertEquals("Luca", win.getName());
+        assertTrue(win.isWin());
+    }
+
+    /**
+     * Test the notifications that can be built in two different ways: the decoded notification must be of the same kind
+     */
+    @Test
+    void requestAndAnswerTest() throws IOException {
+        ChooseWizAndTowerColorNotification request = roundTrip(new ChooseWizAndTowerColorNotification(EnumSet.of(Wizard.KING, Wizard.SAGE), EnumSet.of(TowerColor.WHITE)));
+        assertEquals(EnumSet.of(Wizard.KING, Wizard.SAGE), request.getAvailableWizards());
+        assertEquals(EnumSet.of(TowerColor.WHITE), request.getAvailableColors());
+        ChooseWizAndTowerColorNotification answer = roundTrip(new ChooseWizAndTowerColorNotification(Wizard.WITCH, TowerColor.BLACK));
+        assertNull(answer.getAvailableWizards());
+        assertEquals(Wizard.WITCH, answer.getWizard());
+        assertEquals(TowerColor.BLACK, answer.getTowerColor());
+
+        assertEquals(EnumSet.allOf(Assistant.class), roundTrip(new ChooseAssistantNotification(EnumSet.allOf(Assistant.class))).getPlayableAssistant());
+        assertEquals(Assistant.LION, roundTrip(new ChooseAssistantNotification(Assistant.LION)).getChosenAssistant());
+
+        List<PawnColor> colors = Arrays.asList(PawnColor.RED, PawnColor.RED, PawnColor.BLUE);
+        assertEquals(colors, roundTrip(new MoveStudentNotification(colors)).getMovableColor());
+        MoveStudentNotification move = roundTrip(new MoveStudentNotification(PawnColor.GREEN, Target.ISLAND, 7));
+        assertNull(move.getMovableColor());
+        assertEquals(PawnColor.GREEN, move.getColor());
+        assertEquals(Target.ISLAND, move.getTarget());
+        assertEquals(7, move.getIsland());
+
+        assertEquals(colors, roundTrip(new SwapNotification(colors)).getSwapList());
+        assertEquals(3, roundTrip(new SwapNotification(3)).getSwap());
+
+        ChooseCloudNotification clouds = roundTrip(new ChooseCloudNotification(List.of(new ShortCloud(new ShortPawns(1, 0, 2, 0, 0)))));
+        assertPawnsEquals(new ShortPawns(1, 0, 2, 0, 0), clouds.getAvailableClouds().get(0).getStudents());
+        assertEquals(1, roundTrip(new ChooseCloudNotification(1)).getChosenCloud());
+    }
+
+    /**
+     * Test the model update of a real expert game
+     */
+    @Test
+    void modelUpdateTest() throws IOException {
+        Game game = new Game();
+        game.addPlayer("Luca", Wizard.KING, TowerColor.BLACK);
+        game.addPlayer("Marco", Wizard.SORCERER, TowerColor.WHITE);
+        game.init();
+        game.startGame(true);
+        ShortModel model = new ShortModel(game, true);
+
+        ShortModel decoded = roundTrip(new ModelUpdateNotification(model)).getModel();
+
+        assertEquals(model.getSchoolMap().keySet(), decoded.getSchoolMap().keySet());
+        for (ShortPlayer player : model.getSchoolMap().keySet()) {
+            ShortSchool expected = model.getSchoolMap().get(player);
+            ShortSchool actual = decoded.getSchoolMap().get(player);
+            assertPawnsEquals(expected.getEntrance(), actual.getEntrance());
+            assertPawnsEquals(expected.getProfTable(), actual.getProfTable());
+            assertPawnsEquals(expected.getHall(), actual.getHall());
+            assertEquals(expected.getNumTower(), actual.getNumTower());
+        }
+        assertEquals(model.getMoneyMap(), decoded.getMoneyMap());
+        assertEquals(model.getAssistantMap(), decoded.getAssistantMap());
+        assertEquals(model.getClouds().size(), decoded.getClouds().size());
+        for (int i = 0; i < model.getClouds().size(); i++)
+            assertPawnsEquals(model.getClouds().get(i).getStudents(), decoded.getClouds().get(i).getStudents());
+        assertEquals(model.getBoard().getMotherNaturePos(), decoded.getBoard().getMotherNaturePos());
+        assertEquals(model.getBoard().getIslands().size(), decoded.getBoard().getIslands().size());
+        for (int i = 0; i < model.getBoard().getIslands().size(); i++) {
+            ShortIsland expected = model.getBoard().getIslands().get(i);
+            ShortIsland actual = decoded.getBoard().getIslands().get(i);
+            assertPawnsEquals(expected.getStudents(), actual.getStudents());
+            assertEquals(expected.getTower(), actual.getTower());
+            assertEquals(expected.getDimension(), actual.getDimension());
+            assertEquals(expected.getBanTiles(), actual.getBanTiles());
+        }
+        assertEquals(model.getCharacters().size(), decoded.getCharacters().size());
+        for (int i = 0; i < model.getCharacters().size(); i++) {
+            ShortCharacter expected = model.getCharacters().get(i);
+            ShortCharacter actual = decoded.getCharacters().get(i);
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getDescription(), actual.getDescription());
+            assertEquals(expected.getCost(), actual.getCost());
+            assertPawnsEquals(expected.getStudentsOn(), actual.getStudentsOn());
+            assertEquals(expected.hasCoinOn(), actual.hasCoinOn());
+            assertEquals(expected.getBanTiles(), actual.getBanTiles());
+        }
+        assertEquals(model.getStudentsInSack(), decoded.getStudentsInSack());
+    }
+
+    /**
+     * Test a model delta: the unchanged parts must still be missing after the decoding
+     */
+    @Test
+    void modelDeltaTest() throws IOException {
+        Game game = new Game();
+        game.addPlayer("Luca", Wizard.KING, TowerColor.BLACK);
+        game.addPlayer("Marco", Wizard.SORCERER, TowerColor.WHITE);
+        game.startGame(false);
+        game.setCurrentPlayer("Luca");
+        ShortModel full = game.getLastModel();
+        game.moveFromEntranceToIsland(game.getCurrentPlayer().getSchool().getEntrance().toList().get(0), 2);
+        ShortModel delta = game.getLastModel().diff(full);
+
+        ShortModel decoded = roundTrip(new ModelUpdateNotification(delta)).getModel();
+        assertFalse(decoded.isFull());
+        assertEquals(delta.getBaseVersion(), decoded.getBaseVersion());
+        assertEquals(delta.getVersion(), decoded.getVersion());
+        assertNull(decoded.getClouds());
+        assertNull(decoded.getMoneyMap());
+        assertEquals(delta.getBoard().getIslands(), decoded.getBoard().getIslands());
+        assertEquals(delta.getSchoolMap(), decoded.getSchoolMap());
+    }
+
+    /**
+     * Test that a shared notification is encoded once and decoded as the original one
+     */
+    @Test
+    void encodedNotificationTest() throws IOException {
+        GenericMessageNotification msg = new GenericMessageNotification("Game is started!");
+        EncodedNotification shared = EncodedNotification.of(msg);
+        assertSame(shared, EncodedNotification.of(shared));
+        assertSame(FrameCodec.encode(shared), FrameCodec.encode(shared));
+        assertArrayEquals(FrameCodec.encode(msg), FrameCodec.encode(shared));
+
+        byte[] frame = FrameCodec.encode(shared);
+        Notification decoded = FrameCodec.read(new DataInputStream(new ByteArrayInputStream(frame)));
+        assertEquals("Game is started!", ((GenericMessageNotification) decoded).getMessage());
+
+        shared.setClientId("server");
+        assertNotSame(frame, FrameCodec.encode(shared));
+        assertEquals("server", FrameCodec.read(new DataInputStream(new ByteArrayInputStream(FrameCodec.encode(shared)))).getSenderID());
+    }
+
+    /**
+     * Test that truncated payloads and payloads of another protocol version are refused
+     */
+    @Test
+    void corruptedPayloadTest() throws IOException {
+        byte[] frame = FrameCodec.encode(new WinNotification("Luca", false));
+        int length = frame.length - FrameCodec.HEADER_SIZE;
+        assertThrows(IOException.class, () -> FrameCodec.decode(frame, FrameCodec.HEADER_SIZE, length - 1));
+
+        frame[FrameCodec.HEADER_SIZE] = (byte) (NotificationCodec.VERSION + 1);
+        assertThrows(IOException.class, () -> FrameCodec.decode(frame, FrameCodec.HEADER_SIZE, length));
+    }
+
+    /**
+     * Test that a heartbeat is an empty frame, read back as the shared heartbeat instance
+     */
+    @Test
+    void heartbeatTest() throws IOException {
+        byte[] frame = FrameCodec.encode(FrameCodec.HEARTBEAT);
+        assertEquals(FrameCodec.HEADER_SIZE, frame.length);
+        assertSame(frame, FrameCodec.encode(FrameCodec.HEARTBEAT));
+        assertSame(FrameCodec.HEARTBEAT, FrameCodec.read(new DataInputStream(new ByteArrayInputStream(frame))));
+        assertSame(FrameCodec.HEARTBEAT, FrameCodec.decode(frame, FrameCodec.HEADER_SIZE, 0));
+    }
+}
@@ -0,0 +1,157 @@
+package it.polimi.ingsw.network.server;
+
+import it.polimi.ingsw.network.communication.notification.Notification;
+import it.polimi.ingsw.utility.TimerWheel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests the {@link HeartbeatWheel}, its clock is advanced by hand.
+ * The wheel has a tick of 100 ms, a heartbeat each 5 ticks and a timeout of 20 ticks.
+ */
+class HeartbeatWheelTest {
+    private TimerWheel timers;
+    private HeartbeatWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        timers = new TimerWheel("test", 100);
+        wheel = new HeartbeatWheel(timers, 500, 2000);
+    }
+
+    private void tick(int ticks) {
+        for (int i = 0; i < ticks; i++)
+            timers.tick();
+    }
+
+    /**
+     * Test that a heartbeat is sent each interval
+     */
+    @Test
+    void heartbeatTest() {
+        StubConnection connection = new StubConnection();
+        HeartbeatWheel.Entry entry = wheel.register(connection);
+        tick(4);
+        assertEquals(0, connection.heartbeats);
+        tick(1);
+        assertEquals(1, connection.heartbeats);
+        entry.touch();
+        tick(10);
+        assertEquals(3, connection.heartbeats);
+        assertFalse(connection.disconnected);
+    }
+
+    /**
+     * Test that a silent connection is closed after the timeout, and only once
+     */
+    @Test
+    void timeoutTest() {
+        StubConnection connection = new StubConnection();
+        wheel.register(connection);
+        tick(19);
+        assertFalse(connection.disconnected);
+        tick(1);
+        assertTrue(connection.disconnected);
+        int heartbeats = connection.heartbeats;
+        connection.disconnected = false;
+        tick(200);
+        assertFalse(connection.disconnected);
+        assertEquals(heartbeats, connection.heartbeats);
+    }
+
+    /**
+     * Test that a connection that keeps sending frames is never closed, even after many rounds of the wheel
+     */
+    @Test
+    void touchTest() {
+        StubConnection connection = new StubConnection();
+        HeartbeatWheel.Entry entry = wheel.register(connection);
+        for (int i = 0; i < 100; i++) {
+            tick(10);
+            entry.touch();
+        }
+        assertFalse(connection.disconnected);
+        assertEquals(200, connection.heartbeats); //one each 5 ticks, from the fifth to the 1000th
+    }
+
+    /**
+     * Test that the checks of the connections reuse their timeouts: thousands of heartbeats allocate nothing
+     */
+    @Test
+    void allocationTest() {
+        List<StubConnection> connections = new ArrayList<>();
+        List<HeartbeatWheel.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            StubConnection connection = new StubConnection();
+            connections.add(connection);
+            entries.add(wheel.register(connection));
+        }
+        for (int i = 0; i < 20; i++) { //warm up
+            tick(10);
+            entries.forEach(HeartbeatWheel.Entry::touch);
+        }
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = bean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100; i++) {
+            tick(10);
+            for (int e = 0; e < entries.size(); e++)
+                entries.get(e).touch();
+        }
+        long allocated = bean.getCurrentThreadAllocatedBytes() - before;
+        int checks = 0;
+        for (StubConnection connection : connections) {
+            assertFalse(connection.disconnected);
+            checks += connection.heartbeats;
+        }
+        assertEquals(1000 * 240, checks);
+        assertTrue(allocated < checks, allocated + " bytes allocated for " + checks + " checks");
+    }
+
+    /**
+     * Test that a cancelled connection is dropped from the wheel
+     */
+    @Test
+    void cancelTest() {
+        StubConnection connection = new StubConnection();
+        StubConnection other = new StubConnection();
+        HeartbeatWheel.Entry entry = wheel.register(connection);
+        wheel.register(other);
+        tick(6);
+        entry.cancel();
+        tick(100);
+        assertEquals(1, connection.heartbeats);
+        assertFalse(connection.disconnected);
+        assertTrue(other.disconnected);
+    }
+
+    private static class StubConnection implements Connection {
+        private int heartbeats;
+        private boolean disconnected;
+
+        @Override
+        public void sendMessage(Notification msg) {
+            fail("Only heartbeats are expected");
+        }
+
+        @Override
+        public void sendHeartbeat() {
+            heartbeats++;
+        }
+
+        @Override
+        public void disconnect() {
+            disconnected = true;
+        }
+
+        @Override
+        public void run() {
+            //nothing to read
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package it.polimi.ingsw.network.server;
+
+import it.polimi.ingsw.network.communication.codec.EncodedNotification;
+import it.polimi.ingsw.network.communication.notification.ChooseGameModeNotification;
+import it.polimi.ingsw.network.communication.notification.ErrorMessageNotification;
+import it.polimi.ingsw.network.communication.notification.Notification;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests the matchmaking of the {@link LobbyManager}.
+ */
+class LobbyManagerTest {
+    private static Server server;
+    private LobbyManager lobby;
+
+    @BeforeAll
+    static void startServer() {
+        server = new Server(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        lobby = new LobbyManager(server);
+    }
+
+    private static class RecordingConnection implements Connection {
+        private final List<Notification> received = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void sendMessage(Notification msg) {
+            received.add(EncodedNotification.unwrap(msg));
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public void run() {
+        }
+    }
+
+    private RecordingConnection join(String nickname, int nPlayers, boolean expertMode) {
+        RecordingConnection connection = new RecordingConnection();
+        lobby.addClient(nickname, connection);
+        choose(nickname, nPlayers, expertMode);
+        return connection;
+    }
+
+    private void choose(String nickname, int nPlayers, boolean expertMode) {
+        ChooseGameModeNotification msg = new ChooseGameModeNotification(nPlayers, expertMode);
+        msg.setClientId(nickname);
+        lobby.onUpdateGameMode(msg);
+    }
+
+    /**
+     * Players that want different kinds of match wait in different queues and don't block each other
+     */
+    @Test
+    void separateQueuesTest() {
+        RecordingConnection first = join("Luca", 2, true);
+        assertInstanceOf(ChooseGameModeNotification.class, first.received.get(0));
+        join("Anna", 3, false);
+        join("Marco", 2, false);
+        assertEquals(0, lobby.getTimeToMatch().getCount());
+        join("Sara", 2, true);
+        assertEquals(2, lobby.getTimeToMatch().getCount());
+        join("Paolo", 2, false);
+        assertEquals(4, lobby.getTimeToMatch().getCount());
+        assertFalse(lobby.handleDisconnection("Luca", first));
+    }
+
+    /**
+     * A player that leaves is not put in a match, and a player that hasn't chosen yet doesn't count
+     */
+    @Test
+    void disconnectionTest() {
+        RecordingConnection luca = join("Luca", 2, false);
+        assertFalse(lobby.handleDisconnection("Luca", new RecordingConnection()));
+        assertTrue(lobby.handleDisconnection("Luca", luca));
+        join("Marco", 2, false);
+        RecordingConnection anna = new RecordingConnection();
+        lobby.addClient("Anna", anna);
+        assertEquals(0, lobby.getTimeToMatch().getCount());
+        assertTrue(lobby.handleDisconnection("Anna", anna));
+        choose("Anna", 2, false);
+        assertEquals(0, lobby.getTimeToMatch().getCount());
+        join("Sara", 2, false);
+        assertEquals(2, lobby.getTimeToMatch().getCount());
+    }
+
+    /**
+     * An unavailable number of players is refused and the client is asked again
+     */
+    @Test
+    void invalidPreferenceTest() {
+        RecordingConnection luca = join("Luca", 7, false);
+        assertInstanceOf(ErrorMessageNotification.class, luca.received.get(1));
+        assertInstanceOf(ChooseGameModeNotification.class, luca.received.get(2));
+        choose("Luca", 2, false);
+        join("Marco", 2, false);
+        assertEquals(2, lobby.getTimeToMatch().getCount());
+    }
+
+    /**
+     * Matches are formed in parallel and every player ends in exactly one match
+     */
+    @Test
+    void concurrentMatchmakingTest() throws InterruptedException {
+        int threads = 8;
+        int clientsPerThread = 300;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Map<String, Integer> perKind = new ConcurrentHashMap<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < clientsPerThread; i++) {
+                    int nPlayers = 2 + (i + thread) % 2;
+                    boolean expertMode = i % 3 == 0;
+                    perKind.merge(nPlayers + "-" + expertMode, 1, Integer::sum);
+                    join("player" + thread + "-" + i, nPlayers, expertMode);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        long expected = 0;
+        for (Map.Entry<String, Integer> kind : perKind.entrySet()) {
+            int nPlayers = Integer.parseInt(kind.getKey().substring(0, 1));
+            expected += kind.getValue() / nPlayers * nPlayers;
+        }
+        assertEquals(expected, lobby.getTimeToMatch().getCount());
+    }
+}
@@ -0,0 +1,105 @@
+package it.polimi.ingsw.network.server;
+
+import it.polimi.ingsw.controller.server.GameController;
+import it.polimi.ingsw.network.communication.notification.Notification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests the {@link MatchRegistry}.
+ */
+class MatchRegistryTest {
+    private MatchRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new MatchRegistry();
+    }
+
+    private static Connection newConnection() {
+        return new Connection() {
+            @Override
+            public void sendMessage(Notification msg) {
+            }
+
+            @Override
+            public void disconnect() {
+            }
+
+            @Override
+            public void run() {
+            }
+        };
+    }
+
+    /**
+     * A nickname can be used by only one connection until it is released
+     */
+    @Test
+    void nicknameTest() {
+        Connection first = newConnection();
+        Connection second = newConnection();
+        assertTrue(registry.claimNickname("Luca", first));
+        assertFalse(registry.claimNickname("Luca", second));
+        assertNull(registry.releaseNickname(second));
+        assertEquals("Luca", registry.releaseNickname(first));
+        assertTrue(registry.claimNickname("Luca", second));
+        assertEquals(1, registry.nicknameCount());
+    }
+
+    /**
+     * Removing the match of a player removes all its players, but not the other matches
+     */
+    @Test
+    void removeMatchTest() {
+        GameController first = new GameController();
+        GameController second = new GameController();
+        MatchRegistry.Match match = registry.addMatch(List.of("Luca", "Marco"), first);
+        registry.addMatch(List.of("Anna", "Sara", "Paolo"), second);
+        assertSame(first, registry.getController("Marco"));
+        assertSame(second, registry.getController("Paolo"));
+
+        assertEquals(match, registry.removeMatchOf("Marco"));
+        assertNull(registry.getController("Luca"));
+        assertNull(registry.removeMatchOf("Luca"));
+        assertSame(second, registry.getController("Anna"));
+        assertEquals(1, registry.matchCount());
+    }
+
+    /**
+     * When many clients ask for the same nickname, or many players of a match leave, only one of them succeeds
+     */
+    @Test
+    void concurrentClaimTest() throws InterruptedException {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger claimed = new AtomicInteger();
+        AtomicInteger removed = new AtomicInteger();
+        registry.addMatch(List.of("p0", "p1", "p2", "p3", "p4", "p5", "p6", "p7"), new GameController());
+        for (int i = 0; i < threads; i++) {
+            String player = "p" + i;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (registry.claimNickname("Luca", newConnection())) claimed.incrementAndGet();
+                if (registry.removeMatchOf(player) != null) removed.incrementAndGet();
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(1, claimed.get());
+        assertEquals(1, removed.get());
+        assertEquals(0, registry.matchCount());
+    }
+}
@@ -0,0 +1,126 @@
+package it.polimi.ingsw.network.server;
+
+import it.polimi.ingsw.network.communication.codec.FrameCodec;
+import it.polimi.ingsw.network.communication.notification.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests the {@link NioConnection} over a loopback socket: frames split across many reads, frames bigger
+ * than the read buffer, replies written while the client doesn't read and the disconnection of a client.
+ */
+class NioConnectionTest {
+    private Server server;
+    private Socket socket;
+    private DataInputStream in;
+    private OutputStream out;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new Server(0, Transport.NIO, new OutboundPolicy(100_000, true, OutboundPolicy.Overflow.DISCONNECT));
+        server.start();
+        socket = connect();
+        in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        out = socket.getOutputStream();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        socket.close();
+    }
+
+    private Socket connect() throws IOException {
+        Socket client = new Socket();
+        client.setReceiveBufferSize(4096);
+        client.connect(new InetSocketAddress("localhost", server.getPort()));
+        client.setSoTimeout(10_000);
+        return client;
+    }
+
+    private static byte[] frame(Notification msg, String sender) throws IOException {
+        msg.setClientId(sender);
+        return FrameCodec.encode(msg);
+    }
+
+    private static Notification next(DataInputStream in) throws IOException {
+        Notification msg;
+        do {
+            msg = FrameCodec.read(in);
+        } while (msg == FrameCodec.HEARTBEAT);
+        return msg;
+    }
+
+    /**
+     * A frame sent one byte at a time is decoded once it is complete
+     */
+    @Test
+    void splitFrameTest() throws IOException, InterruptedException {
+        for (byte b : frame(new LoginNotification("Luca"), "Luca")) {
+            out.write(b);
+            out.flush();
+            Thread.sleep(1);
+        }
+        assertInstanceOf(ChooseGameModeNotification.class, next(in));
+    }
+
+    /**
+     * A frame bigger than the initial read buffer makes the buffer grow
+     */
+    @Test
+    void bigFrameTest() throws IOException {
+        String nickname = "L".repeat(5000);
+        out.write(frame(new LoginNotification(nickname), nickname));
+        out.flush();
+        assertInstanceOf(ChooseGameModeNotification.class, next(in));
+    }
+
+    /**
+     * The replies to many requests fill the socket buffers while the client doesn't read: they are written when the
+     * channel becomes writable again, all of them and in order
+     */
+    @Test
+    void partialWriteTest() throws IOException {
+        out.write(frame(new LoginNotification("Luca"), "Luca"));
+        out.flush();
+        assertInstanceOf(ChooseGameModeNotification.class, next(in));
+        int requests = 20_000;
+        byte[] invalid = frame(new ChooseGameModeNotification(7, false), "Luca");
+        OutputStream buffered = new BufferedOutputStream(out);
+        for (int i = 0; i < requests; i++)
+            buffered.write(invalid);
+        buffered.flush();
+        for (int i = 0; i < requests; i++) {
+            assertInstanceOf(ErrorMessageNotification.class, next(in), "reply " + i);
+            assertInstanceOf(ChooseGameModeNotification.class, next(in), "reply " + i);
+        }
+    }
+
+    /**
+     * A closed client leaves the lobby, so its nickname can be used again
+     */
+    @Test
+    void disconnectTest() throws IOException, InterruptedException {
+        out.write(frame(new LoginNotification("Luca"), "Luca"));
+        out.flush();
+        assertInstanceOf(ChooseGameModeNotification.class, next(in));
+        socket.close();
+        for (int attempt = 0; ; attempt++) {
+            try (Socket other = connect()) {
+                DataInputStream otherIn = new DataInputStream(new BufferedInputStream(other.getInputStream()));
+                other.getOutputStream().write(frame(new LoginNotification("Luca"), "Luca"));
+                Notification reply = next(otherIn);
+                if (reply instanceof ChooseGameModeNotification) return;
+                assertInstanceOf(NicknameErrorNotification.class, reply);
+                assertTrue(attempt < 100, "The nickname is never released");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package it.polimi.ingsw.network.server;
+
+import it.polimi.ingsw.model.Game;
+import it.polimi.ingsw.model.ShortModel;
+import it.polimi.ingsw.model.player.Assistant;
+import it.polimi.ingsw.model.player.TowerColor;
+import it.polimi.ingsw.model.player.Wizard;
+import it.polimi.ingsw.network.communication.notification.GenericMessageNotification;
+import it.polimi.ingsw.network.communication.notification.ModelUpdateNotification;
+import it.polimi.ingsw.network.communication.notification.Notification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests the {@link OutboundQueue} policies.
+ */
+class OutboundQueueTest {
+    private List<Notification> updates;
+    private Game game;
+
+    @BeforeEach
+    void setUp() {
+        updates = new ArrayList<>();
+        game = new Game();
+        game.addObserver(updates::add);
+        game.addPlayer("Luca", Wizard.KING, TowerColor.BLACK);
+        game.addPlayer("Marco", Wizard.SORCERER, TowerColor.WHITE);
+        game.startGame(false);
+        game.setCurrentPlayer("Luca");
+        game.playAssistant(Assistant.CAT);
+        game.fillClouds();
+    }
+
+    private static ShortModel modelOf(Notification msg) {
+        return ((ModelUpdateNotification) msg).getModel();
+    }
+
+    /**
+     * Consecutive deltas are merged in a single update
+     */
+    @Test
+    void coalesceDeltasTest() {
+        OutboundQueue queue = new OutboundQueue(OutboundPolicy.DEFAULT);
+        queue.offer(updates.get(0));
+        queue.offer(new GenericMessageNotification("hello"));
+        queue.offer(updates.get(1));
+        queue.offer(updates.get(2));
+        assertEquals(1, queue.getCoalesced());
+
+        ShortModel client = new ShortModel();
+        assertTrue(client.update(modelOf(queue.poll())));
+        assertInstanceOf(GenericMessageNotification.class, queue.poll());
+        ShortModel merged = modelOf(queue.poll());
+        assertEquals(1, merged.getBaseVersion());
+        assertEquals(3, merged.getVersion());
+        assertTrue(client.update(merged));
+        assertEquals(game.getLastModel().getClouds(), client.getClouds());
+        assertEquals(game.getLastModel().getAssistantMap(), client.getAssistantMap());
+        assertNull(queue.poll());
+    }
+
+    /**
+     * A full snapshot replaces the queued update, coalescing can be disabled
+     */
+    @Test
+    void fullSnapshotAndNoCoalesceTest() {
+        OutboundQueue queue = new OutboundQueue(OutboundPolicy.DEFAULT);
+        queue.offer(updates.get(1));
+        queue.offer(updates.get(0));
+        assertSame(updates.get(0), queue.poll());
+        assertNull(queue.poll());
+
+        OutboundQueue plain = new OutboundQueue(new OutboundPolicy(10, false, OutboundPolicy.Overflow.DISCONNECT));
+        updates.forEach(plain::offer);
+        assertEquals(0, plain.getCoalesced());
+        for (Notification update : updates)
+            assertSame(update, plain.poll());
+    }
+
+    /**
+     * When the queue is full the policy decides whether to disconnect the client or to drop the message
+     */
+    @Test
+    void overflowTest() {
+        OutboundQueue disconnect = new OutboundQueue(new OutboundPolicy(2, true, OutboundPolicy.Overflow.DISCONNECT));
+        assertTrue(disconnect.offer(new GenericMessageNotification("1")));
+        assertTrue(disconnect.offer(new GenericMessageNotification("2")));
+        assertFalse(disconnect.offer(new GenericMessageNotification("3")));
+        assertEquals(1, disconnect.getDropped());
+
+        OutboundQueue drop = new OutboundQueue(new OutboundPolicy(1, true, OutboundPolicy.Overflow.DROP));
+        assertTrue(drop.offer(new GenericMessageNotification("1")));
+        assertTrue(drop.offer(new GenericMessageNotification("2")));
+        assertEquals(1, drop.getDropped());
+        assertEquals("1", ((GenericMessageNotification) drop.poll()).getMessage());
+    }
+
+    /**
+     * A closed queue wakes up the writer and ignores new messages
+     */
+    @Test
+    void closeTest() throws InterruptedException {
+        OutboundQueue queue = new OutboundQueue(OutboundPolicy.DEFAULT);
+        queue.offer(new GenericMessageNotification("1"));
+        queue.close();
+        assertNull(queue.take());
+        assertTrue(queue.offer(new GenericMessageNotification("2")));
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -1,9 +1,12 @@
 package it.polimi.ingsw.utility;
 
 import it.polimi.ingsw.constants.Constants;
+import it.polimi.ingsw.model.character.CharacterCard;
 import it.polimi.ingsw.utility.character.CharactersDeck;
 import org.junit.jupiter.api.Test;
 
+import java.util.SplittableRandom;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class CharactersDeckTest {
@@ -11,4 +14,15 @@ class CharactersDeckTest {
     void extractCharacterInUseTest() {
         assertEquals(Constants.CHARACTER_IN_USE, CharactersDeck.extractCharacterInUse().size());
     }
+
+    /**
+     * Two generators with the same seed extract the same characters
+     */
+    @Test
+    void seededExtractionTest() {
+        for (long seed = 0; seed < 10; seed++) {
+            assertEquals(CharactersDeck.extractCharacterInUse(new SplittableRandom(seed)).stream().map(CharacterCard::getName).toList(),
+                    CharactersDeck.extractCharacterInUse(new SplittableRandom(seed)).stream().map(CharacterCard::getName).toList());
+        }
+    }
 }
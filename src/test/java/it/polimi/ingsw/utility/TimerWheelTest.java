@@ -0,0 +1,98 @@
+package it.polimi.ingsw.utility;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests the {@link TimerWheel}, its clock is advanced by hand. The wheel has a tick of 100 ms.
+ */
+class TimerWheelTest {
+    private TimerWheel wheel;
+    private List<String> expired;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new TimerWheel("test", 100);
+        expired = new ArrayList<>();
+    }
+
+    private void tick(int ticks) {
+        for (int i = 0; i < ticks; i++)
+            wheel.tick();
+    }
+
+    /**
+     * Test that the timeouts run after their delay, rounded up to a tick, in order
+     */
+    @Test
+    void expiryTest() {
+        wheel.schedule(() -> expired.add("second"), 250);
+        wheel.schedule(() -> expired.add("first"), 100);
+        tick(1);
+        assertEquals(List.of("first"), expired);
+        tick(1);
+        assertEquals(List.of("first"), expired);
+        tick(1);
+        assertEquals(List.of("first", "second"), expired);
+        tick(100);
+        assertEquals(2, expired.size());
+    }
+
+    /**
+     * Test that a timeout longer than a round of the wheel waits for its deadline
+     */
+    @Test
+    void longDelayTest() {
+        wheel.schedule(() -> expired.add("late"), 15_000);
+        tick(149);
+        assertTrue(expired.isEmpty());
+        tick(1);
+        assertEquals(List.of("late"), expired);
+    }
+
+    /**
+     * Test that a task can put its own timeout back in the wheel, and that a rescheduled timeout runs again
+     */
+    @Test
+    void rescheduleTest() {
+        TimerWheel.Timeout[] timeout = new TimerWheel.Timeout[1];
+        timeout[0] = new TimerWheel.Timeout(() -> {
+            expired.add("run " + wheel.getCurrentTick());
+            if (expired.size() < 3) wheel.reschedule(timeout[0], 200);
+        });
+        wheel.reschedule(timeout[0], 100);
+        tick(10);
+        assertEquals(List.of("run 1", "run 3", "run 5"), expired);
+        wheel.reschedule(timeout[0], 6400); //a whole round of the wheel
+        tick(63);
+        assertEquals(3, expired.size());
+        tick(1);
+        assertEquals("run 74", expired.get(3));
+        timeout[0].cancel();
+        wheel.reschedule(timeout[0], 100);
+        tick(10);
+        assertEquals(4, expired.size());
+    }
+
+    /**
+     * Test that a cancelled timeout doesn't run, and that a failing task doesn't stop the wheel
+     */
+    @Test
+    void cancelTest() {
+        TimerWheel.Timeout timeout = wheel.schedule(() -> expired.add("cancelled"), 500);
+        wheel.schedule(() -> {
+            throw new IllegalStateException();
+        }, 200);
+        wheel.schedule(() -> expired.add("run"), 500);
+        tick(2);
+        timeout.cancel();
+        assertTrue(timeout.isCancelled());
+        tick(10);
+        assertEquals(List.of("run"), expired);
+    }
+}
@@ -0,0 +1,71 @@
+package it.polimi.ingsw.utility.events;
+
+import it.polimi.ingsw.network.server.Server;
+import it.polimi.ingsw.network.server.Transport;
+import it.polimi.ingsw.view.bot.BotStrategy;
+import it.polimi.ingsw.view.bot.LoadGenerator;
+import jdk.jfr.Configuration;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests the Flight Recorder events of the server.
+ */
+class ServerEventsTest {
+    private static final Set<String> EVENTS = Set.of("it.polimi.ingsw.MessageDecode", "it.polimi.ingsw.MessageEncode",
+            "it.polimi.ingsw.OutboundWrite", "it.polimi.ingsw.MessageDispatch", "it.polimi.ingsw.GameState",
+            "it.polimi.ingsw.Snapshot");
+
+    @TempDir
+    Path directory;
+
+    /**
+     * The events are disabled unless a recording enables them
+     */
+    @Test
+    void disabledTest() {
+        for (Class<? extends jdk.jfr.Event> event : Set.of(MessageDecodeEvent.class, MessageEncodeEvent.class,
+                OutboundWriteEvent.class, MessageDispatchEvent.class, GameStateEvent.class, SnapshotEvent.class))
+            assertFalse(EventType.getEventType(event).isEnabled());
+    }
+
+    /**
+     * A recording made with the settings of the server has all its events
+     */
+    @Test
+    void recordingTest() throws Exception {
+        Configuration configuration;
+        try (Reader reader = new InputStreamReader(Objects.requireNonNull(
+                getClass().getResourceAsStream("/jfr/eriantys.jfc")), StandardCharsets.UTF_8)) {
+            configuration = Configuration.create(reader);
+        }
+        Path file = directory.resolve("server.jfr");
+        try (Recording recording = new Recording(configuration)) {
+            recording.start();
+            Server server = new Server(0, Transport.SOCKET);
+            server.start();
+            new LoadGenerator("localhost", server.getPort(), 2, 2, true, BotStrategy.RANDOM, 5).run(60, TimeUnit.SECONDS);
+            recording.stop();
+            recording.dump(file);
+        }
+        Set<String> recorded = RecordingFile.readAllEvents(file).stream()
+                .map(RecordedEvent::getEventType).map(EventType::getName)
+                .filter(EVENTS::contains).collect(Collectors.toSet());
+        assertEquals(EVENTS, recorded);
+    }
+}
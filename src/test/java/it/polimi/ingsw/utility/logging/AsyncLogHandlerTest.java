@@ -0,0 +1,125 @@
+package it.polimi.ingsw.utility.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests the {@link AsyncLogHandler} and the {@link StructuredFormatter}.
+ */
+class AsyncLogHandlerTest {
+    /**
+     * The records of each thread reach the targets in order, and all of them are written before the handler is closed
+     */
+    @Test
+    void orderTest() throws InterruptedException {
+        RecordingHandler target = new RecordingHandler(null);
+        AsyncLogHandler handler = new AsyncLogHandler(AsyncLogHandler.DEFAULT_CAPACITY, List.of(target));
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            String name = "t" + t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++)
+                    handler.publish(new LogRecord(Level.INFO, name + " " + i));
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+        handler.close();
+        assertTrue(target.closed);
+        assertEquals(0, handler.getDropped());
+        assertEquals(4000, target.records.size());
+        for (int t = 0; t < threads.length; t++) {
+            String prefix = "t" + t + " ";
+            List<String> own = target.records.stream().map(LogRecord::getMessage).filter(m -> m.startsWith(prefix)).toList();
+            assertEquals(IntStream.range(0, 1000).mapToObj(i -> prefix + i).toList(), own);
+        }
+    }
+
+    /**
+     * When the buffer is full the new records are dropped, and the writer reports how many
+     */
+    @Test
+    void dropTest() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        RecordingHandler target = new RecordingHandler(blocked);
+        AsyncLogHandler handler = new AsyncLogHandler(4, List.of(target));
+        handler.publish(new LogRecord(Level.INFO, "first")); //taken by the writer, that blocks on it
+        while (target.records.isEmpty()) Thread.sleep(1);
+        for (int i = 0; i < 10; i++)
+            handler.publish(new LogRecord(Level.INFO, "record " + i));
+        assertEquals(6, handler.getDropped());
+        blocked.countDown();
+        handler.close();
+        List<String> messages = target.records.stream().map(LogRecord::getMessage).toList();
+        assertEquals(List.of("first", "record 0", "record 1", "record 2", "record 3"), messages.subList(0, 5));
+        assertTrue(messages.contains("6 log records dropped, the log buffer is full"), messages.toString());
+    }
+
+    /**
+     * A structured record is written on one line, with its fields as key=value pairs
+     */
+    @Test
+    void formatTest() {
+        StructuredRecord logRecord = new StructuredRecord(Level.INFO, "Default move played", "5deece66d", "alice", null, "ACTION_MOVE");
+        String line = new StructuredFormatter().format(logRecord);
+        assertTrue(line.startsWith(logRecord.getInstant() + " INFO [thread " + Thread.currentThread().getId() + "] "), line);
+        assertTrue(line.endsWith("Default move played match=5deece66d player=alice state=ACTION_MOVE" + System.lineSeparator()), line);
+        assertFalse(line.contains("type="));
+    }
+
+    /**
+     * A sampler of one in one logs everything, the others log about the expected share
+     */
+    @Test
+    void samplerTest() {
+        assertTrue(IntStream.range(0, 100).allMatch(i -> new LogSampler(1).sample()));
+        LogSampler sampler = new LogSampler(10);
+        long sampled = IntStream.range(0, 100_000).filter(i -> sampler.sample()).count();
+        assertTrue(sampled > 8_000 && sampled < 12_000, "sampled " + sampled);
+    }
+
+    /**
+     * A target that keeps the records, it can block on the first one
+     */
+    private static class RecordingHandler extends Handler {
+        private final List<LogRecord> records = new CopyOnWriteArrayList<>();
+        private final CountDownLatch gate;
+        private volatile boolean closed;
+
+        private RecordingHandler(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void publish(LogRecord logRecord) {
+            records.add(logRecord);
+            if (gate != null) {
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package it.polimi.ingsw.utility.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests the {@link LatencyHistogram}.
+ */
+class LatencyHistogramTest {
+
+    /**
+     * Each value is counted in a bucket whose upper bound is at most 12.5% higher than the value
+     */
+    @Test
+    void bucketTest() {
+        for (long value = 0; value < 100_000; value++) {
+            long highest = LatencyHistogram.highestOf(LatencyHistogram.bucketOf(value));
+            assertTrue(highest >= value);
+            assertTrue(highest - value <= value / 8);
+        }
+        assertTrue(LatencyHistogram.bucketOf(Long.MAX_VALUE) < (Long.SIZE - 2) * 8);
+    }
+
+    /**
+     * The percentiles of known values
+     */
+    @Test
+    void percentileTest() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(99));
+        for (int millis = 1; millis <= 100; millis++)
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        histogram.record(-5);
+
+        assertEquals(101, histogram.getCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), histogram.getMax());
+        assertEquals(0, histogram.getPercentile(0));
+        long median = histogram.getPercentile(50);
+        assertTrue(median >= TimeUnit.MILLISECONDS.toNanos(50) && median <= TimeUnit.MILLISECONDS.toNanos(57));
+        assertEquals(histogram.getMax(), histogram.getPercentile(100));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(5050) / 101.0, histogram.getMean(), 1);
+        assertTrue(histogram.summary(TimeUnit.MILLISECONDS).startsWith("count=101 p50=5"));
+    }
+}
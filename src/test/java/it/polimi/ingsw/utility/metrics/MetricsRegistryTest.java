@@ -0,0 +1,94 @@
+package it.polimi.ingsw.utility.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests the {@link MetricsRegistry}.
+ */
+class MetricsRegistryTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * The counters of a family are found by the class of the counted objects and shared with the counters by name
+     */
+    @Test
+    void familyTest() {
+        MetricsRegistry registry = new MetricsRegistry();
+        MetricsRegistry.CounterFamily received = registry.counters("received");
+        received.increment("a string");
+        received.increment("another string");
+        received.increment(42);
+        registry.counter("received.String").increment();
+        assertEquals(Map.of("received.String", 3L, "received.Integer", 1L), registry.getCounters());
+
+        registry.histograms("handling").record(42, TimeUnit.MICROSECONDS.toNanos(5));
+        assertEquals(1, registry.histogram("handling.Integer").getCount());
+        LatencyHistogram owned = new LatencyHistogram();
+        registry.register("handling.Integer", owned);
+        assertSame(owned, registry.getHistograms().get("handling.Integer"));
+    }
+
+    /**
+     * The dump has every counter with its rate since the previous dump, and every histogram
+     */
+    @Test
+    void writeTest() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("messages").add(30);
+        registry.histogram("latency").record(TimeUnit.MILLISECONDS.toNanos(2));
+        StringWriter out = new StringWriter();
+        Map<String, Long> values = registry.write(out, Map.of("messages", 10L), TimeUnit.SECONDS.toNanos(2));
+        assertEquals(Map.of("messages", 30L), values);
+        String dump = out.toString();
+        assertTrue(dump.contains("messages 30 10.0/s"), dump);
+        assertTrue(dump.contains("latency count=1"), dump);
+
+        Path file = directory.resolve("metrics.txt");
+        registry.startDump(file, 10);
+        for (int i = 0; i < 500 && !Files.exists(file); i++)
+            Thread.sleep(10);
+        registry.stopDump();
+        assertTrue(Files.readString(file).contains("messages 30"));
+    }
+
+    /**
+     * The counters and the histograms are attributes of the MBean
+     */
+    @Test
+    void mbeanTest() throws JMException {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("messages").add(7);
+        registry.histogram("latency").record(TimeUnit.MICROSECONDS.toNanos(100));
+        String name = "it.polimi.ingsw:type=MetricsTest";
+        registry.registerMBean(name);
+        registry.registerMBean(name); //the old MBean is replaced
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName(name);
+        try {
+            assertEquals(7L, server.getAttribute(objectName, "messages"));
+            assertEquals(1L, server.getAttribute(objectName, "latency.count"));
+            long p99 = (Long) server.getAttribute(objectName, "latency.p99");
+            assertTrue(p99 >= 100 && p99 <= 113);
+            assertTrue(Arrays.stream(server.getMBeanInfo(objectName).getAttributes())
+                    .map(MBeanAttributeInfo::getName).anyMatch("latency.max"::equals));
+        } finally {
+            server.unregisterMBean(objectName);
+        }
+    }
+}
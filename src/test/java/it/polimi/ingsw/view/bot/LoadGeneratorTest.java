@@ -0,0 +1,51 @@
+package it.polimi.ingsw.view.bot;
+
+import it.polimi.ingsw.network.server.Server;
+import it.polimi.ingsw.network.server.Transport;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class plays complete matches between bots against a server in the same process, with every transport.
+ */
+class LoadGeneratorTest {
+    private static final Map<Transport, Server> servers = new EnumMap<>(Transport.class);
+
+    private static Server server(Transport transport) {
+        return servers.computeIfAbsent(transport, key -> {
+            Server server = new Server(0, key);
+            server.start();
+            return server;
+        });
+    }
+
+    /**
+     * Random bots play simple matches of two players until the end
+     */
+    @ParameterizedTest
+    @EnumSource(Transport.class)
+    void randomMatchesTest(Transport transport) throws InterruptedException {
+        LoadStats stats = new LoadGenerator("localhost", server(transport).getPort(), 4, 2, false, BotStrategy.RANDOM, 1).run(60, TimeUnit.SECONDS);
+        assertEquals(2, stats.getMatches());
+        assertEquals(0, stats.getErrors());
+        assertTrue(stats.getLatency().getCount() > 0);
+    }
+
+    /**
+     * Greedy bots play expert matches of three players until the end
+     */
+    @ParameterizedTest
+    @EnumSource(Transport.class)
+    void greedyMatchesTest(Transport transport) throws InterruptedException {
+        LoadStats stats = new LoadGenerator("localhost", server(transport).getPort(), 6, 3, true, BotStrategy.GREEDY, 2).run(60, TimeUnit.SECONDS);
+        assertEquals(2, stats.getMatches());
+        assertEquals(0, stats.getErrors());
+    }
+}
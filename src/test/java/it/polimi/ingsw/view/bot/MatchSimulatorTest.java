@@ -0,0 +1,36 @@
+package it.polimi.ingsw.view.bot;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class plays complete matches between bots connected to a controller without a network.
+ */
+class MatchSimulatorTest {
+
+    /**
+     * Every match ends with a winner, also when the bots play the characters
+     */
+    @Test
+    void matchesEndTest() {
+        for (BotStrategy strategy : BotStrategy.values()) {
+            MatchSimulator simple = new MatchSimulator(2, false, strategy);
+            MatchSimulator expert = new MatchSimulator(3, true, strategy);
+            for (long seed = 0; seed < 100; seed++) {
+                assertTrue(simple.play(seed).completed());
+                assertTrue(expert.play(seed).completed());
+            }
+        }
+    }
+
+    /**
+     * A match played again with the same seed has the same outcome
+     */
+    @Test
+    void sameSeedTest() {
+        MatchSimulator simulator = new MatchSimulator(3, true, BotStrategy.RANDOM);
+        assertEquals(simulator.play(7), simulator.play(7));
+    }
+}